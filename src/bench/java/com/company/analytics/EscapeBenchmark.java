@@ -0,0 +1,50 @@
+package com.company.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CSV and HTML escaping applied to every cell of the flaky and streaming reports, for a typical value with nothing
+ * to escape and for one that needs quoting/entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EscapeBenchmark {
+
+    @Param({"plain", "special"})
+    String input;
+
+    String value;
+
+    @Setup
+    public void setUp() {
+        value = "plain".equals(input)
+                ? "com.company.runner.APITestNGRunner#runScenario[GET a single post]"
+                : "LIKELY_FLAKY: \"Expected <200> but was <503>\", retried 2 times & quarantined, see <a href=x>log</a>\nnext line";
+    }
+
+    @Benchmark
+    public String escapeCsv() {
+        return FlakyAnalytics.escapeCsv(value);
+    }
+
+    @Benchmark
+    public String escapeHtml() {
+        return FlakyAnalytics.escapeHtml(value);
+    }
+}
@@ -0,0 +1,102 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlakyAnalytics parsing of flaky.jsonl into per-test aggregates: one line (the per-entry cost) and a whole generated
+ * log (memory-mapped, sequential below flaky.analytics.parallelThresholdMb).
+ * The generated logs (about 5 MB and 50 MB) sit below the shipped 64 MB threshold, so thresholdMb=0 measures the same
+ * files through the chunked multi-threaded path next to the sequential one, with at least two workers even on a
+ * single-CPU machine (the parser never splits with flaky.analytics.threads=1).
+ * Lines have the shape RetryAnalyzer writes: 200 tests, 50 runs, with stack fingerprints.
+ * Logs above the 1 GB mapping size are measured by FlakyParseLargeBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlakyParseBenchmark {
+
+    // Lines in the generated flaky.jsonl
+    @Param({"10000", "100000"})
+    int lines;
+
+    // flaky.analytics.parallelThresholdMb for the trial: 64 is the shipped default (sequential), 0 always splits
+    @Param({"64", "0"})
+    String thresholdMb;
+
+    Path log;
+    String line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PropertyConfig.set("flaky.analytics.parallelThresholdMb", thresholdMb);
+        if ("0".equals(thresholdMb)) {
+            PropertyConfig.set("flaky.analytics.threads", String.valueOf(Math.max(2, Runtime.getRuntime().availableProcessors())));
+        }
+        log = Files.createTempFile("flaky-bench", ".jsonl");
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        try (BufferedWriter w = Files.newBufferedWriter(log, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                w.write(line(i, start));
+                w.newLine();
+            }
+        }
+        line = line(42, start);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(log);
+        PropertyConfig.set("flaky.analytics.parallelThresholdMb", null);
+        PropertyConfig.set("flaky.analytics.threads", null);
+    }
+
+    @Benchmark
+    public Map<String, FlakyAnalytics.Aggregate> parseLine() throws IOException {
+        Map<String, FlakyAnalytics.Aggregate> into = new HashMap<>();
+        FlakyAnalytics.accumulate(line, into, new RunRegistry());
+        return into;
+    }
+
+    @Benchmark
+    public Map<String, FlakyAnalytics.Aggregate> parseFile() throws IOException {
+        return FlakyAnalytics.parse(log, new RunRegistry());
+    }
+
+    static String line(int i, Instant start) {
+        int test = i % 200;
+        int run = i / 200 % 50;
+        return "{\"timestamp\":\"" + start.plusSeconds(run * 3600L + i % 200) + "\",\"runId\":\"jenkins-qe-" + run + "\","
+                + "\"testClass\":\"com.company.runner.APITestNGRunner\",\"testMethod\":\"runScenario\",\"scenario\":\"Scenario " + test + "\","
+                + "\"attempt\":" + (1 + i % 2) + ",\"maxRetryCount\":2,\"category\":\"TIMEOUT\",\"status\":\"RETRY\","
+                + "\"errorClass\":\"org.openqa.selenium.TimeoutException\",\"errorMessage\":\"Expected condition failed: waiting for element\","
+                + "\"messageHash\":\"" + Integer.toHexString(test * 31) + "\",\"frames\":[\"com.company.pages.HomePage.getHeaderMessage:42\","
+                + "\"com.company.steps.WebSteps.verifyHeader:61\"],\"stackHash\":\"" + Integer.toHexString(test * 17 + 5) + "\"}";
+    }
+}
@@ -0,0 +1,119 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlakyAnalytics parsing of a generated multi-GB flaky.jsonl, the size where one MappedByteBuffer no longer covers
+ * a chunk. Each parse is timed once (single shot), since one pass over the file takes seconds.
+ *  - parseFile: the full parse. With threads=1 the 2 GB log is cut into two chunks of just over 1 GB, so the first
+ *    chunk rolls over into a second mapping; threads=4 parses four chunks in parallel.
+ *  - parseRegions: one sequential pass mapping regionMb at a time: 1024 is the shipped region, 64 rolls over 32 times.
+ * The log is written to java.io.tmpdir (free space is checked up front) and deleted after the trial.
+ * Lines have the same shape as in FlakyParseBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FlakyParseLargeBenchmark {
+
+    // Size of the generated flaky.jsonl
+    @Param({"2048"})
+    long sizeMb;
+
+    Path log;
+
+    @State(Scope.Benchmark)
+    public static class Workers {
+        // flaky.analytics.threads for the trial; the log is far above the 64 MB parallel threshold
+        @Param({"1", "4"})
+        String threads;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            PropertyConfig.set("flaky.analytics.threads", threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            PropertyConfig.set("flaky.analytics.threads", null);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Region {
+        // Bytes mapped at once by parseRange
+        @Param({"1024", "64"})
+        long regionMb;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        log = Files.createTempFile("flaky-bench-large", ".jsonl");
+        long bytes = sizeMb * 1024 * 1024;
+        long free = Files.getFileStore(log).getUsableSpace();
+        if (free < bytes + (256L << 20)) {
+            Files.deleteIfExists(log);
+            throw new IllegalStateException("Need " + sizeMb + " MB free next to " + log + " for the generated log, have " + (free >> 20) + " MB");
+        }
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        long written = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(log), 1 << 20)) {
+            for (int i = 0; ; i++) {
+                byte[] line = (FlakyParseBenchmark.line(i, start) + "\n").getBytes(StandardCharsets.UTF_8);
+                // Stay within sizeMb so a 2048 MB log splits into two chunks, not three
+                if (written + line.length > bytes) break;
+                out.write(line);
+                written += line.length;
+            }
+        }
+        System.out.println("[FlakyParseLargeBenchmark] Generated " + (written >> 20) + " MB at " + log);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(log);
+    }
+
+    @Benchmark
+    public Map<String, FlakyAnalytics.Aggregate> parseFile(Workers workers) throws IOException {
+        return FlakyAnalytics.parse(log, new RunRegistry());
+    }
+
+    @Benchmark
+    public Map<String, FlakyAnalytics.Aggregate> parseRegions(Region region) throws IOException {
+        Map<String, FlakyAnalytics.Aggregate> into = new HashMap<>();
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ)) {
+            FlakyAnalytics.parseRange(ch, 0, ch.size(), into, new RunRegistry(), region.regionMb * 1024 * 1024);
+        }
+        return into;
+    }
+}
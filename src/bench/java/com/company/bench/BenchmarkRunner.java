@@ -0,0 +1,134 @@
+package com.company.bench;
+
+import com.company.config.PropertyConfig;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks (arguments are JMH's own, e.g. a benchmark regex or -f/-wi/-i), writes the results as JSON
+ * to bench.results and compares them with the stored baseline (bench.baseline).
+ * Behavior:
+ *  - A benchmark regresses when it is worse than its baseline by more than bench.threshold percent and by more than
+ *    the two error margins combined, so run-to-run noise is not reported. "Worse" is lower throughput or higher time.
+ *  - Regressions fail the run (exit code 1) unless bench.failOnRegression=false. Without a baseline nothing is compared.
+ *  - -Dbench.saveBaseline=true stores the results as the new baseline. Record baselines on the machine that runs the
+ *    comparison; scores from different hardware are not comparable.
+ * Run with: mvn test -Pbenchmarks (see README).
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    public static void main(String[] args) throws Exception {
+        Path results = Paths.get(PropertyConfig.get("bench.results", "target/jmh-results.json"));
+        Path baseline = Paths.get(PropertyConfig.get("bench.baseline", "src/bench/baseline/jmh-baseline.json"));
+        double threshold = PropertyConfig.getDouble("bench.threshold", 10);
+        Files.createDirectories(results.toAbsolutePath().getParent());
+
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build()).run();
+        System.out.println("[BenchmarkRunner] Results written to " + results);
+
+        List<String> regressions = new ArrayList<>();
+        if (Files.exists(baseline)) {
+            regressions = compare(read(baseline), read(results), threshold);
+        } else {
+            System.out.println("[BenchmarkRunner] No baseline at " + baseline + "; run with -Dbench.saveBaseline=true to record one");
+        }
+
+        if (PropertyConfig.getBoolean("bench.saveBaseline", false)) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("[BenchmarkRunner] Baseline saved to " + baseline);
+        } else if (!regressions.isEmpty() && PropertyConfig.getBoolean("bench.failOnRegression", true)) {
+            System.out.println("[BenchmarkRunner] " + regressions.size() + " regression(s) against " + baseline + ":");
+            regressions.forEach(r -> System.out.println("  " + r));
+            System.exit(1);
+        }
+    }
+
+    // One line per benchmark present in both runs; returns the regressed ones
+    static List<String> compare(Map<String, JsonObject> baseline, Map<String, JsonObject> current, double thresholdPercent) {
+        List<String> regressions = new ArrayList<>();
+        System.out.println(String.format("[BenchmarkRunner] %-90s %14s %14s %-8s %8s", "benchmark", "baseline", "current", "unit", "change"));
+        for (Map.Entry<String, JsonObject> e : current.entrySet()) {
+            JsonObject base = baseline.get(e.getKey());
+            JsonObject now = e.getValue();
+            if (base == null) {
+                System.out.println(String.format("[BenchmarkRunner] %-90s %14s %14.3f %-8s %8s", e.getKey(), "-", score(now), unit(now), "new"));
+                continue;
+            }
+            double b = score(base);
+            double c = score(now);
+            boolean higherIsBetter = "thrpt".equals(now.get("mode").getAsString());
+            double change = b == 0 ? 0 : (c - b) / b * 100;
+            double worseBy = higherIsBetter ? b - c : c - b;
+            boolean regressed = (higherIsBetter ? -change : change) > thresholdPercent && worseBy > error(base) + error(now);
+            String line = String.format("%-90s %14.3f %14.3f %-8s %+7.1f%%", e.getKey(), b, c, unit(now), change);
+            System.out.println("[BenchmarkRunner] " + line + (regressed ? "  REGRESSION" : ""));
+            if (regressed) regressions.add(line);
+        }
+        return regressions;
+    }
+
+    // Keyed by benchmark, parameters and thread count, e.g. "com.company.config.PropertyConfigBenchmark.Threads4.get"
+    static Map<String, JsonObject> read(Path file) throws IOException {
+        Map<String, JsonObject> out = new LinkedHashMap<>();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(r).getAsJsonArray();
+            for (JsonElement el : runs) {
+                JsonObject run = el.getAsJsonObject();
+                StringBuilder key = new StringBuilder(run.get("benchmark").getAsString());
+                if (run.has("params")) {
+                    Map<String, String> params = new TreeMap<>();
+                    for (Map.Entry<String, JsonElement> p : run.getAsJsonObject("params").entrySet()) params.put(p.getKey(), p.getValue().getAsString());
+                    key.append(params);
+                }
+                key.append(" t=").append(run.get("threads").getAsInt());
+                out.put(key.toString(), run);
+            }
+        }
+        return out;
+    }
+
+    private static double score(JsonObject run) {
+        return run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+    }
+
+    // JMH writes "NaN" when there are too few iterations for an error estimate
+    private static double error(JsonObject run) {
+        JsonElement err = run.getAsJsonObject("primaryMetric").get("scoreError");
+        try {
+            double v = err.getAsDouble();
+            return Double.isNaN(v) ? 0 : v;
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return 0;
+        }
+    }
+
+    private static String unit(JsonObject run) {
+        return run.getAsJsonObject("primaryMetric").get("scoreUnit").getAsString();
+    }
+}
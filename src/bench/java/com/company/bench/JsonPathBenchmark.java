@@ -0,0 +1,66 @@
+package com.company.bench;
+
+import com.company.json.JsonBody;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * APISteps path assertions: RestAssured's response.jsonPath() (a new JsonPath, i.e. a full Groovy parse, per assertion)
+ * against JsonBody (one Gson parse per response, compiled and cached path expressions).
+ * Each invocation is one response checked with every path in PATHS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonPathBenchmark {
+
+    private static final String[] PATHS = {"id", "title", "author.name", "tags[0]", "tags[-1]", "items.size()", "items[0].sku",
+            "items[-1].price", "items.sku", "meta.page"};
+
+    // Number of elements in the items array of the response body
+    @Param({"10", "1000"})
+    int items;
+
+    String body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"id\":101,\"title\":\"benchmark\",\"author\":{\"name\":\"qa\",\"id\":7},\"tags\":[\"a\",\"b\",\"c\"],\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"sku\":\"SKU-").append(i).append("\",\"price\":").append(i * 1.5).append(",\"qty\":").append(i % 7).append('}');
+        }
+        body = sb.append("],\"meta\":{\"page\":1,\"total\":").append(items).append("}}").toString();
+    }
+
+    @Benchmark
+    public void restAssuredJsonPath(Blackhole bh) {
+        for (String path : PATHS) {
+            bh.consume(new JsonPath(body).getString(path));
+        }
+    }
+
+    @Benchmark
+    public void jsonBody(Blackhole bh) {
+        JsonBody json = JsonBody.parse(body);
+        for (String path : PATHS) {
+            bh.consume(json.getString(path));
+        }
+    }
+}
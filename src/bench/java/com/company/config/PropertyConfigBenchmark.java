@@ -0,0 +1,56 @@
+package com.company.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertyConfig reads as done on the driver, pool and listener paths: a present key, a missing key (default returned)
+ * and the typed accessors. Every read goes through the shared snapshot, so each case runs at 1, 4 and 16 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class PropertyConfigBenchmark {
+
+    @Benchmark
+    public String get() {
+        return PropertyConfig.get("web.browserName", "chrome");
+    }
+
+    @Benchmark
+    public String getMissing() {
+        return PropertyConfig.get("bench.not.configured", "fallback");
+    }
+
+    @Benchmark
+    public int getInt() {
+        return PropertyConfig.getInt("web.pool.size", 2);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return PropertyConfig.getBoolean("web.headless", false);
+    }
+
+    @Threads(1)
+    public static class Threads1 extends PropertyConfigBenchmark { }
+
+    @Threads(4)
+    public static class Threads4 extends PropertyConfigBenchmark { }
+
+    @Threads(16)
+    public static class Threads16 extends PropertyConfigBenchmark { }
+}
@@ -0,0 +1,65 @@
+package com.company.listeners;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExtentTestManager as used by ExtentTestNGListener and the steps, at 1, 4 and 16 threads: the current-test accessor,
+ * and a whole test record (start, one log event, end). Finished records are drained every DRAIN_EVERY tests per thread,
+ * as the report merge would, so the buffers do not grow for the length of the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ExtentTestManagerBenchmark {
+
+    private static final int DRAIN_EVERY = 1024;
+
+    @State(Scope.Thread)
+    public static class TestThread {
+        int finished;
+
+        // Runs on the benchmark thread, so the thread has a current test for getExtentTest()
+        @Setup
+        public void setUp() {
+            ExtentTestManager.startTest("benchmark");
+        }
+    }
+
+    @Benchmark
+    public ExtentTestManager.TestRecord getExtentTest(TestThread thread) {
+        return ExtentTestManager.getExtentTest();
+    }
+
+    @Benchmark
+    public void testRecord(TestThread thread) {
+        ExtentTestManager.startTest("scenario");
+        ExtentTestManager.getExtentTest().info("step passed");
+        ExtentTestManager.endTest();
+        if (++thread.finished % DRAIN_EVERY == 0) {
+            ExtentTestManager.drain();
+        }
+    }
+
+    @Threads(1)
+    public static class Threads1 extends ExtentTestManagerBenchmark { }
+
+    @Threads(4)
+    public static class Threads4 extends ExtentTestManagerBenchmark { }
+
+    @Threads(16)
+    public static class Threads16 extends ExtentTestManagerBenchmark { }
+}
@@ -0,0 +1,91 @@
+package com.company.listeners;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlakyLogger.log as called by RetryAnalyzer on the retrying test thread, at 1, 4 and 16 threads.
+ * Async (the default) measures serialization plus the hand-off to the writer thread; entries the writer cannot keep up
+ * with are dropped and counted, which is printed at the end of each trial. Sync appends under FlakyLogger's lock.
+ * The log goes to target/bench/flaky so benchmark entries never reach FlakyAnalytics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class FlakyLoggerBenchmark {
+
+    private static final String ASYNC = "-Dflaky.log.async=true";
+    private static final String SYNC = "-Dflaky.log.async=false";
+    private static final String DIR = "-Dflaky.log.dir=target/bench/flaky";
+
+    final Map<String, Object> entry = new LinkedHashMap<>();
+
+    {
+        entry.put("timestamp", "2026-01-01T00:00:00Z");
+        entry.put("runId", "jenkins-qe-42");
+        entry.put("testClass", "com.company.runner.APITestNGRunner");
+        entry.put("testMethod", "runScenario");
+        entry.put("scenario", "GET a single post");
+        entry.put("attempt", 1);
+        entry.put("maxRetryCount", 2);
+        entry.put("category", "TIMEOUT");
+        entry.put("status", "RETRY");
+        entry.put("errorClass", "org.openqa.selenium.TimeoutException");
+        entry.put("errorMessage", "Expected condition failed: waiting for visibility of element");
+        entry.put("messageHash", "5f2c1a9e");
+        entry.put("frames", Arrays.asList("com.company.pages.HomePage.getHeaderMessage:42", "com.company.steps.WebSteps.verifyHeader:61"));
+        entry.put("stackHash", "a41be07c");
+    }
+
+    @Benchmark
+    public void log() {
+        FlakyLogger.log(entry);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println("[FlakyLoggerBenchmark] queued=" + FlakyLogger.getQueuedCount() + " written=" + FlakyLogger.getWrittenCount()
+                + " dropped=" + FlakyLogger.getDroppedCount());
+    }
+
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = {ASYNC, DIR})
+    public static class AsyncThreads1 extends FlakyLoggerBenchmark { }
+
+    @Threads(4)
+    @Fork(value = 1, jvmArgsAppend = {ASYNC, DIR})
+    public static class AsyncThreads4 extends FlakyLoggerBenchmark { }
+
+    @Threads(16)
+    @Fork(value = 1, jvmArgsAppend = {ASYNC, DIR})
+    public static class AsyncThreads16 extends FlakyLoggerBenchmark { }
+
+    @Threads(1)
+    @Fork(value = 1, jvmArgsAppend = {SYNC, DIR})
+    public static class SyncThreads1 extends FlakyLoggerBenchmark { }
+
+    @Threads(4)
+    @Fork(value = 1, jvmArgsAppend = {SYNC, DIR})
+    public static class SyncThreads4 extends FlakyLoggerBenchmark { }
+
+    @Threads(16)
+    @Fork(value = 1, jvmArgsAppend = {SYNC, DIR})
+    public static class SyncThreads16 extends FlakyLoggerBenchmark { }
+}
@@ -1,24 +1,31 @@
 package com.company.analytics;
 
+import com.company.config.PropertyConfig;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Simple offline flaky test analyzer.
@@ -36,7 +43,8 @@ public class FlakyAnalytics {
     }
 
     public static void main(String[] args) {
-        Path input = Paths.get("target", "flaky", "flaky.jsonl");
+        // The log and its index live in the history directory (they outlive mvn clean); reports go to target/flaky
+        Path input = FlakyHistory.dir().resolve("flaky.jsonl");
         Path outDir = Paths.get("target", "flaky");
         try {
             if (!Files.exists(input)) {
@@ -44,43 +52,32 @@ public class FlakyAnalytics {
                 return;
             }
 
-            Map<String, Aggregate> map = new HashMap<>();
             Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            Type mapType = new TypeToken<Map<String, Object>>(){}.getType();
-
-            try (BufferedReader br = new BufferedReader(new FileReader(input.toFile()))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (line.trim().isEmpty()) continue;
-                    Map<String, Object> entry = gson.fromJson(line, mapType);
-                    String cls = (String) entry.getOrDefault("testClass", "<unknown>");
-                    String mth = (String) entry.getOrDefault("testMethod", "<unknown>");
-                    String key = cls + "#" + mth;
-                    Aggregate agg = map.computeIfAbsent(key, k -> new Aggregate(cls, mth));
-                    agg.count.incrementAndGet();
-                    Object attemptObj = entry.get("attempt");
-                    if (attemptObj != null) {
-                        try {
-                            int a = ((Number) attemptObj).intValue();
-                            if (a > agg.maxAttempt) agg.maxAttempt = a;
-                        } catch (Exception ignored) { }
-                    }
-                    Object ts = entry.get("timestamp");
-                    if (ts != null) {
-                        agg.lastSeen = ts.toString();
-                    }
-                }
+            Map<String, Aggregate> map;
+            RunRegistry runs;
+            if (PropertyConfig.getBoolean("flaky.index.enabled", true)) {
+                // Only lines appended since the last build are parsed; reports are produced from the index
+                FlakyIndex index = FlakyIndex.update(input, FlakyHistory.indexFile());
+                map = index.aggregates();
+                runs = index.runs();
+            } else {
+                runs = new RunRegistry();
+                map = parse(input, runs);
             }
 
             // ensure output dir
             Files.createDirectories(outDir);
 
             // Build list of recommendation records
+            long scoringStarted = System.nanoTime();
+            ScoringWindow window = ScoringWindow.of(runs, System.currentTimeMillis());
             List<Recommendation> recommendations = new ArrayList<>();
             for (Aggregate a : map.values()) {
-                Recommendation r = analyzeAggregate(a);
+                Recommendation r = analyzeAggregate(a, window);
                 recommendations.add(r);
             }
+            System.out.println("[FlakyAnalytics] Scored " + recommendations.size() + " tests over " + runs.size() + " runs in "
+                    + (System.nanoTime() - scoringStarted) / 1_000 + " us");
 
             // write JSON summary
             Path jsonOut = outDir.resolve("flaky-summary.json");
@@ -91,32 +88,35 @@ public class FlakyAnalytics {
             // write CSV for Jenkins processing
             Path csvOut = outDir.resolve("flaky-summary.csv");
             try (BufferedWriter bw = new BufferedWriter(new FileWriter(csvOut.toFile()))) {
-                bw.write("test,clazz,method,occurrences,maxAttempt,lastSeen,recommendation\n");
+                bw.write("test,clazz,method,occurrences,maxAttempt,lastSeen,recentRunRate,last7DaysRate,decayedScore,recommendation\n");
                 for (Recommendation r : recommendations) {
-                    bw.write(escapeCsv(r.test) + "," + escapeCsv(r.clazz) + "," + escapeCsv(r.method) + "," + r.occurrences + "," + r.maxAttempt + "," + escapeCsv(r.lastSeen) + "," + escapeCsv(r.recommendation) + "\n");
+                    bw.write(escapeCsv(r.test) + "," + escapeCsv(r.clazz) + "," + escapeCsv(r.method) + "," + r.occurrences + "," + r.maxAttempt + "," + escapeCsv(r.lastSeen)
+                            + "," + r.recentRunRate + "," + r.last7DaysRate + "," + r.decayedScore + "," + escapeCsv(r.recommendation) + "\n");
                 }
             }
 
-            // write simple HTML report
-            Path htmlOut = outDir.resolve("flaky-report.html");
-            try (BufferedWriter bw = new BufferedWriter(new FileWriter(htmlOut.toFile()))) {
-                bw.write("<html><head><meta charset=\"utf-8\"><title>Flaky Report</title></head><body>");
-                bw.write("<h1>Flaky Tests Report</h1>");
-                bw.write("<p>Generated: " + Instant.now().toString() + "</p>");
-                bw.write("<table border=\"1\" cellpadding=\"6\"><tr><th>Test</th><th>Class</th><th>Method</th><th>Occurrences</th><th>MaxAttempt</th><th>LastSeen</th><th>Recommendation</th></tr>");
+            // write HTML report, paginated so very large suites stay navigable
+            int pageSize = PropertyConfig.getInt("report.page.size", 500);
+            Path htmlOut;
+            try (HtmlPager pager = new HtmlPager(outDir, "flaky-report", "Flaky Tests Report",
+                    "<p>Generated: " + Instant.now().toString() + "</p>",
+                    "<tr><th>Test</th><th>Class</th><th>Method</th><th>Occurrences</th><th>MaxAttempt</th><th>LastSeen</th><th>Recent runs rate</th><th>Last 7 days rate</th><th>Decayed score</th><th>Recommendation</th></tr>",
+                    pageSize)) {
                 for (Recommendation r : recommendations) {
-                    bw.write("<tr>");
-                    bw.write("<td>" + escapeHtml(r.test) + "</td>");
-                    bw.write("<td>" + escapeHtml(r.clazz) + "</td>");
-                    bw.write("<td>" + escapeHtml(r.method) + "</td>");
-                    bw.write("<td align=\"right\">" + r.occurrences + "</td>");
-                    bw.write("<td align=\"right\">" + r.maxAttempt + "</td>");
-                    bw.write("<td>" + escapeHtml(r.lastSeen) + "</td>");
-                    bw.write("<td>" + escapeHtml(r.recommendation) + "</td>");
-                    bw.write("</tr>");
+                    pager.row("<tr>"
+                            + "<td>" + escapeHtml(r.test) + "</td>"
+                            + "<td>" + escapeHtml(r.clazz) + "</td>"
+                            + "<td>" + escapeHtml(r.method) + "</td>"
+                            + "<td align=\"right\">" + r.occurrences + "</td>"
+                            + "<td align=\"right\">" + r.maxAttempt + "</td>"
+                            + "<td>" + escapeHtml(r.lastSeen) + "</td>"
+                            + "<td align=\"right\">" + r.recentRunRate + "</td>"
+                            + "<td align=\"right\">" + r.last7DaysRate + "</td>"
+                            + "<td align=\"right\">" + r.decayedScore + "</td>"
+                            + "<td>" + escapeHtml(r.recommendation) + "</td>"
+                            + "</tr>");
                 }
-                bw.write("</table>");
-                bw.write("</body></html>");
+                htmlOut = pager.firstPage();
             }
 
             // write plain text recommendations
@@ -125,7 +125,8 @@ public class FlakyAnalytics {
                 for (Recommendation r : recommendations) {
                     bw.write("Test: " + r.test + "\n");
                     bw.write("  Recommendation: " + r.recommendation + "\n");
-                    bw.write("  Occurrences: " + r.occurrences + ", MaxAttempt: " + r.maxAttempt + ", LastSeen: " + r.lastSeen + "\n\n");
+                    bw.write("  Occurrences: " + r.occurrences + ", MaxAttempt: " + r.maxAttempt + ", LastSeen: " + r.lastSeen + "\n");
+                    bw.write("  Recent runs rate: " + r.recentRunRate + ", Last 7 days rate: " + r.last7DaysRate + ", Decayed score: " + r.decayedScore + "\n\n");
                 }
             }
 
@@ -140,26 +141,239 @@ public class FlakyAnalytics {
         }
     }
 
-    private static Recommendation analyzeAggregate(Aggregate a) {
+    // Largest region mapped at once; a MappedByteBuffer cannot exceed Integer.MAX_VALUE bytes
+    static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    /**
+     * Parse the flaky log into per-test aggregates.
+     * The file is memory-mapped and split on line boundaries. Files above flaky.analytics.parallelThresholdMb are parsed
+     * by flaky.analytics.threads workers (default: available processors), each into its own map; the per-chunk maps are
+     * merged in file order so the result is identical to a sequential pass.
+     */
+    static Map<String, Aggregate> parse(Path input, RunRegistry runs) throws IOException {
+        return parse(input, 0, Files.size(input), runs);
+    }
+
+    // Parse only the bytes in [from, to); both must sit on line boundaries
+    static Map<String, Aggregate> parse(Path input, long from, long to, RunRegistry runs) throws IOException {
+        int threads = Math.max(1, PropertyConfig.getInt("flaky.analytics.threads", Runtime.getRuntime().availableProcessors()));
+        long thresholdBytes = PropertyConfig.getLong("flaky.analytics.parallelThresholdMb", 64) * 1024 * 1024;
+
+        try (FileChannel ch = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = to - from;
+            boolean parallel = threads > 1 && size >= thresholdBytes;
+            int chunks = (int) Math.max(parallel ? threads : 1, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+            long[] bounds = splitOnLines(ch, from, to, chunks);
+
+            if (!parallel) {
+                Map<String, Aggregate> map = new HashMap<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    parseRange(ch, bounds[i], bounds[i + 1], map, runs);
+                }
+                return map;
+            }
+
+            System.out.println("[FlakyAnalytics] Parsing " + size + " bytes with " + threads + " threads in " + (bounds.length - 1) + " chunks");
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Map<String, Aggregate>>> parts = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    final long chunkFrom = bounds[i], chunkTo = bounds[i + 1];
+                    parts.add(pool.submit(() -> {
+                        Map<String, Aggregate> part = new HashMap<>();
+                        parseRange(ch, chunkFrom, chunkTo, part, runs);
+                        return part;
+                    }));
+                }
+                Map<String, Aggregate> map = new HashMap<>();
+                for (Future<Map<String, Aggregate>> f : parts) {
+                    for (Map.Entry<String, Aggregate> e : f.get().entrySet()) {
+                        Aggregate existing = map.putIfAbsent(e.getKey(), e.getValue());
+                        if (existing != null) existing.merge(e.getValue());
+                    }
+                }
+                return map;
+            } catch (Exception e) {
+                throw new IOException("Parallel parse of " + input + " failed", e);
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    // Chunk boundaries moved forward to just after the next newline, so every chunk holds whole lines
+    private static long[] splitOnLines(FileChannel ch, long from, long to, int chunks) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(from);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        for (int i = 1; i < chunks; i++) {
+            long pos = Math.max(from + (to - from) * i / chunks, bounds.get(bounds.size() - 1));
+            long boundary = to;
+            while (pos < to) {
+                probe.clear();
+                int n = ch.read(probe, pos);
+                if (n <= 0) break;
+                int nl = -1;
+                for (int j = 0; j < n; j++) {
+                    if (probe.get(j) == '\n') { nl = j; break; }
+                }
+                if (nl >= 0) { boundary = pos + nl + 1; break; }
+                pos += n;
+            }
+            if (boundary > bounds.get(bounds.size() - 1) && boundary < to) bounds.add(boundary);
+        }
+        bounds.add(to);
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) out[i] = bounds.get(i);
+        return out;
+    }
+
+    // Parse the whole lines in [from, to) into the map, mapping at most MAX_CHUNK_BYTES at a time
+    static void parseRange(FileChannel ch, long from, long to, Map<String, Aggregate> into, RunRegistry runs) throws IOException {
+        parseRange(ch, from, to, into, runs, MAX_CHUNK_BYTES);
+    }
+
+    // Same with the mapped region size given, so tests can make lines straddle regions without a multi-GB file.
+    // A region ends after its last newline and the next one is mapped from there; a line longer than a region is an error.
+    static void parseRange(FileChannel ch, long from, long to, Map<String, Aggregate> into, RunRegistry runs, long regionBytes) throws IOException {
+        if (regionBytes <= 0 || regionBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("regionBytes must be in (0, " + MAX_CHUNK_BYTES + "]: " + regionBytes);
+        }
+        byte[] scratch = new byte[4096];
+        long regionStart = from;
+        while (regionStart < to) {
+            long regionLen = Math.min(regionBytes, to - regionStart);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, regionStart, regionLen);
+            int limit = buf.limit();
+            int lineStart = 0;
+            int consumed = 0;
+            for (int i = 0; i < limit; i++) {
+                if (buf.get(i) != '\n') continue;
+                scratch = parseLine(buf, lineStart, i - lineStart, scratch, into, runs);
+                lineStart = i + 1;
+                consumed = lineStart;
+            }
+            boolean lastRegion = regionStart + regionLen >= to;
+            if (lastRegion && lineStart < limit) {
+                // trailing line without a newline
+                scratch = parseLine(buf, lineStart, limit - lineStart, scratch, into, runs);
+                consumed = limit;
+            }
+            if (consumed == 0) {
+                throw new IOException("Line longer than " + regionBytes + " bytes at offset " + regionStart);
+            }
+            regionStart += consumed;
+        }
+    }
+
+    private static byte[] parseLine(ByteBuffer buf, int offset, int length, byte[] scratch, Map<String, Aggregate> into, RunRegistry runs) {
+        if (length > 0 && buf.get(offset + length - 1) == '\r') length--;
+        if (length <= 0) return scratch;
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        buf.get(offset, scratch, 0, length);
+        String line = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        if (line.isBlank()) return scratch;
+        try {
+            accumulate(line, into, runs);
+        } catch (Exception e) {
+            System.err.println("[FlakyAnalytics] Skipping malformed line: " + e.getMessage());
+        }
+        return scratch;
+    }
+
+    // Stream the fields we aggregate straight into the Aggregate; everything else (e.g. stack traces) is skipped unparsed
+    static void accumulate(String line, Map<String, Aggregate> into, RunRegistry runs) throws IOException {
+        String cls = null;
+        String mth = null;
+        String timestamp = null;
+        String runId = null;
+        String scenario = null;
+        String event = null;
+        int attempt = -1;
+
+        JsonReader reader = new JsonReader(new StringReader(line));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "testClass" -> cls = nextString(reader);
+                case "testMethod" -> mth = nextString(reader);
+                case "timestamp" -> timestamp = nextString(reader);
+                case "runId" -> runId = nextString(reader);
+                case "scenario" -> scenario = nextString(reader);
+                case "event" -> event = nextString(reader);
+                case "attempt" -> {
+                    if (reader.peek() == JsonToken.NUMBER) attempt = reader.nextInt();
+                    else reader.skipValue();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        long epochMillis = 0;
+        if (timestamp != null) {
+            try {
+                epochMillis = Instant.parse(timestamp).toEpochMilli();
+            } catch (Exception ignored) { }
+        }
+        if ("runStart".equals(event)) {
+            // Every suite run logs one marker, so runs without any retry still count in the per-run rates
+            if (runId != null) runs.idOf(runId, epochMillis);
+            return;
+        }
+
+        final String c = cls != null ? cls : "<unknown>";
+        // Cucumber runners execute every scenario through the same method, so the scenario name identifies the test
+        final String m = (mth != null ? mth : "<unknown>") + (scenario != null ? "[" + scenario + "]" : "");
+        Aggregate agg = into.computeIfAbsent(c + "#" + m, k -> new Aggregate(c, m));
+        agg.count++;
+        if (attempt > agg.maxAttempt) agg.maxAttempt = attempt;
+        if (timestamp != null) agg.lastSeen = timestamp;
+
+        if (runId == null) {
+            // Entries written before runId was logged: treat each day as one run
+            runId = "legacy-" + (timestamp != null && timestamp.length() >= 10 ? timestamp.substring(0, 10) : "unknown");
+        }
+        agg.history.add(runs.idOf(runId, epochMillis), epochMillis, attempt);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (reader.peek() == JsonToken.STRING || reader.peek() == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static Recommendation analyzeAggregate(Aggregate a, ScoringWindow window) {
         Recommendation r = new Recommendation();
         r.test = a.cls + "#" + a.method;
         r.clazz = a.cls;
         r.method = a.method;
-        r.occurrences = a.count.get();
+        r.occurrences = a.count;
         r.maxAttempt = a.maxAttempt;
         r.lastSeen = a.lastSeen != null ? a.lastSeen : "";
+        window.score(a.history, r);
 
-        // Simple heuristic "AI" rules to produce recommendations
-        // - If a test retried multiple times across runs (occurrences >=3) -> Likely Flaky: quarantine or assign to investigator
-        // - If a test had a high max attempt (>=2) -> likely transient timing/resource issue: suggest increasing retry or stabilizing
-        // - If occurrences == 1 but maxAttempt >=2 -> transient: mark for investigation
+        // Simple heuristic "AI" rules to produce recommendations. Windowed rates take precedence over lifetime counts so
+        // a test that was fixed stops being reported as risky, and a test that just started retrying is flagged quickly.
+        // - Retried in half of the recent runs, or needed 3+ attempts -> quarantine / investigate
+        // - Many lifetime retries but none recently (decayed score ~0) -> recovered, keep watching
+        // - Single occurrence that needed 2+ attempts -> transient timing/resource issue
+        // - Retried in 20%+ of recent runs or the last week, or repeated/multi-attempt retries that are still recent -> likely flaky
         // - Otherwise: monitor
-        if (r.occurrences >= 5 || r.maxAttempt >= 3) {
+        if (r.recentRunRate >= 0.5 || r.maxAttempt >= 3 || (r.occurrences >= 5 && r.decayedScore >= 1.0)) {
             r.recommendation = "HIGH_RISK: Consider quarantining the test and open an investigation ticket. Increase monitoring and capture full logs/screenshots on failure.";
-        } else if (r.occurrences >= 3 || r.maxAttempt >= 2) {
-            r.recommendation = "LIKELY_FLAKY: Mark as flaky, consider quarantining or assigning for investigation. Add more logging and consider adding targeted retries.";
+        } else if (r.occurrences >= 3 && r.decayedScore < 0.1) {
+            r.recommendation = "RECOVERED: Retried in the past but not recently. Keep monitoring before removing any quarantine or targeted retries.";
         } else if (r.occurrences == 1 && r.maxAttempt >= 2) {
             r.recommendation = "TRANSIENT: Occurred once with retries. Consider adding targeted retry or investigate intermittent resource/timing issues.";
+        } else if (r.recentRunRate >= 0.2 || r.last7DaysRate >= 0.2 || ((r.occurrences >= 3 || r.maxAttempt >= 2) && r.decayedScore >= 0.1)) {
+            r.recommendation = "LIKELY_FLAKY: Mark as flaky, consider quarantining or assigning for investigation. Add more logging and consider adding targeted retries.";
         } else {
             r.recommendation = "MONITOR: Low frequency. Continue monitoring; consider adding better logging if it re-occurs.";
         }
@@ -167,12 +381,11 @@ public class FlakyAnalytics {
         return r;
     }
 
-    private static String escapeHtml(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    static String escapeHtml(String s) {
+        return HtmlPager.escape(s);
     }
 
-    private static String escapeCsv(String s) {
+    static String escapeCsv(String s) {
         if (s == null) return "";
         String out = s.replace("\"", "\"\"");
         if (out.contains(",") || out.contains("\n") || out.contains("\"")) {
@@ -181,26 +394,105 @@ public class FlakyAnalytics {
         return out;
     }
 
-    private static class Aggregate {
+    static class Aggregate {
         String cls;
         String method;
-        AtomicInteger count = new AtomicInteger(0);
+        int count = 0;
         int maxAttempt = 0;
         String lastSeen;
+        RunHistory history = new RunHistory(HISTORY_CAPACITY);
 
         Aggregate(String cls, String method) {
             this.cls = cls;
             this.method = method;
         }
+
+        // Fold in an aggregate built from a later part of the log
+        void merge(Aggregate later) {
+            count += later.count;
+            if (later.maxAttempt > maxAttempt) maxAttempt = later.maxAttempt;
+            if (later.lastSeen != null) lastSeen = later.lastSeen;
+            history.appendAll(later.history);
+        }
+    }
+
+    // Runs remembered per test; older runs drop out of the windowed scores
+    static final int HISTORY_CAPACITY = Math.max(1, PropertyConfig.getInt("flaky.history.runsPerTest", 256));
+
+    /**
+     * Precomputed window boundaries shared by every test: which runs count as "recent" (the last flaky.score.recentRuns
+     * by start time), how many runs fall in the last 7 days, and the decay constant for flaky.score.halfLifeDays.
+     */
+    static final class ScoringWindow {
+        private static final long WEEK_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+        final long now;
+        final boolean[] recent;
+        final int recentRuns;
+        final int weekRuns;
+        final long weekStart;
+        final double decayPerMilli;
+
+        private ScoringWindow(long now, boolean[] recent, int recentRuns, int weekRuns, double halfLifeDays) {
+            this.now = now;
+            this.recent = recent;
+            this.recentRuns = recentRuns;
+            this.weekRuns = weekRuns;
+            this.weekStart = now - WEEK_MILLIS;
+            this.decayPerMilli = Math.log(2) / (halfLifeDays * 24 * 60 * 60 * 1000);
+        }
+
+        static ScoringWindow of(RunRegistry runs, long now) {
+            int lastN = Math.max(1, PropertyConfig.getInt("flaky.score.recentRuns", 20));
+            double halfLifeDays = PropertyConfig.getDouble("flaky.score.halfLifeDays", 3);
+
+            List<RunRegistry.Run> all = runs.runs();
+            all.sort((x, y) -> Long.compare(y.start.get(), x.start.get()));
+            boolean[] recent = new boolean[all.size()];
+            int recentCount = Math.min(lastN, all.size());
+            for (int i = 0; i < recentCount; i++) recent[all.get(i).id] = true;
+
+            int weekRuns = 0;
+            for (RunRegistry.Run run : all) {
+                if (run.start.get() >= now - WEEK_MILLIS) weekRuns++;
+            }
+            return new ScoringWindow(now, recent, recentCount, weekRuns, halfLifeDays);
+        }
+
+        void score(RunHistory h, Recommendation r) {
+            int inRecent = 0;
+            int inWeek = 0;
+            double decayed = 0;
+            for (int i = 0; i < h.size(); i++) {
+                int run = h.runId(i);
+                if (run < recent.length && recent[run]) inRecent++;
+                long t = h.time(i);
+                if (t > 0) {
+                    if (t >= weekStart) inWeek++;
+                    decayed += Math.exp(-decayPerMilli * Math.max(0, now - t));
+                }
+            }
+            // RunHistory keeps one slot per run id, so each run counts at most once
+            r.recentRunRate = round(recentRuns == 0 ? 0 : (double) inRecent / recentRuns);
+            r.last7DaysRate = round(weekRuns == 0 ? 0 : (double) inWeek / weekRuns);
+            r.decayedScore = round(decayed);
+        }
+
+        private static double round(double v) {
+            return Math.round(v * 1000) / 1000.0;
+        }
     }
 
-    private static class Recommendation {
+    static class Recommendation {
         String test;
         String clazz;
         String method;
         int occurrences;
         int maxAttempt;
         String lastSeen;
+        double recentRunRate;
+        double last7DaysRate;
+        double decayedScore;
         String recommendation;
     }
 }
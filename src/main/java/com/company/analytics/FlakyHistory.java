@@ -0,0 +1,85 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only view of the flaky-history index for use while tests run (e.g. by the retry policy).
+ * Scores are computed once at load time with the same windows as the FlakyAnalytics report; lookups are plain map reads.
+ * Keys have the flaky-log form testClass#testMethod, with [scenario] appended for Cucumber scenarios.
+ */
+public final class FlakyHistory {
+
+    private static final FlakyHistory EMPTY = new FlakyHistory(Collections.emptyMap());
+
+    private final Map<String, FlakyAnalytics.Recommendation> scores;
+
+    private FlakyHistory(Map<String, FlakyAnalytics.Recommendation> scores) {
+        this.scores = scores;
+    }
+
+    /**
+     * Directory of flaky.jsonl, flaky-stacks.jsonl and flaky-index.bin (flaky.log.dir). When unset:
+     *  - Jenkins builds (JOB_NAME set) use ~/.cache/framework/flaky/<job>, outside target/ so the history survives
+     *    mvn clean, and per job (multibranch job names include the branch) so jobs and branches on one agent never
+     *    share a log.
+     *  - Everything else uses target/flaky-history, so a local mvn test never writes into the home directory.
+     */
+    public static Path dir() {
+        String configured = PropertyConfig.get("flaky.log.dir", "");
+        if (!configured.isEmpty()) return Paths.get(configured.trim());
+        String job = jenkinsJob();
+        if (job != null) return Paths.get(System.getProperty("user.home"), ".cache", "framework", "flaky", job);
+        return Paths.get("target", "flaky-history");
+    }
+
+    // JOB_NAME as a single path segment (multibranch names contain '/'), or null outside Jenkins
+    static String jenkinsJob() {
+        String job = System.getenv("JOB_NAME");
+        if (job == null || job.isBlank()) return null;
+        return job.trim().replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    public static Path indexFile() {
+        return dir().resolve("flaky-index.bin");
+    }
+
+    public static FlakyHistory load(Path indexFile) {
+        FlakyIndex index = FlakyIndex.load(indexFile);
+        if (index == null) {
+            return EMPTY;
+        }
+        FlakyAnalytics.ScoringWindow window = FlakyAnalytics.ScoringWindow.of(index.runs(), System.currentTimeMillis());
+        Map<String, FlakyAnalytics.Recommendation> scores = new HashMap<>();
+        for (Map.Entry<String, FlakyAnalytics.Aggregate> e : index.aggregates().entrySet()) {
+            FlakyAnalytics.Recommendation r = new FlakyAnalytics.Recommendation();
+            window.score(e.getValue().history, r);
+            scores.put(e.getKey(), r);
+        }
+        return new FlakyHistory(scores);
+    }
+
+    public boolean isEmpty() {
+        return scores.isEmpty();
+    }
+
+    public boolean contains(String testKey) {
+        return scores.containsKey(testKey);
+    }
+
+    // Share of the recent runs in which the test needed a retry (0 when unknown)
+    public double recentRunRate(String testKey) {
+        FlakyAnalytics.Recommendation r = scores.get(testKey);
+        return r != null ? r.recentRunRate : 0;
+    }
+
+    public double decayedScore(String testKey) {
+        FlakyAnalytics.Recommendation r = scores.get(testKey);
+        return r != null ? r.decayedScore : 0;
+    }
+}
@@ -0,0 +1,208 @@
+package com.company.analytics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent per-test aggregates (including the bounded run history used for windowed scores) for flaky.jsonl, plus
+ * the byte offset up to which the log has been consumed.
+ * Each build parses only the lines appended since the previous one and merges them in, so report generation costs
+ * O(new lines + distinct tests) instead of O(all lines).
+ *
+ * Stored as a compact binary snapshot next to the log. The first bytes of the log are fingerprinted so a truncated,
+ * rotated or replaced log triggers a full rebuild instead of silently merging unrelated history.
+ */
+final class FlakyIndex {
+
+    private static final int MAGIC = 0x464C5849; // "FLXI"
+    private static final int VERSION = 2;
+    private static final int FINGERPRINT_BYTES = 4096;
+
+    private final Map<String, FlakyAnalytics.Aggregate> aggregates;
+    private final RunRegistry runs;
+    private long consumedOffset;
+    private long fingerprint;
+
+    private FlakyIndex(Map<String, FlakyAnalytics.Aggregate> aggregates, RunRegistry runs, long consumedOffset, long fingerprint) {
+        this.aggregates = aggregates;
+        this.runs = runs;
+        this.consumedOffset = consumedOffset;
+        this.fingerprint = fingerprint;
+    }
+
+    Map<String, FlakyAnalytics.Aggregate> aggregates() {
+        return aggregates;
+    }
+
+    RunRegistry runs() {
+        return runs;
+    }
+
+    // Bytes of the log folded into the aggregates; always at the end of a complete line
+    long consumedOffset() {
+        return consumedOffset;
+    }
+
+    /**
+     * Load the index (if any), fold in the complete lines appended to the log since it was written, and save it back.
+     * Holds an exclusive lock on a sibling .lock file throughout, so concurrent builds sharing the history directory
+     * update the index one after the other instead of overwriting each other's result.
+     */
+    static FlakyIndex update(Path log, Path indexFile) throws IOException {
+        Path lockFile = indexFile.resolveSibling(indexFile.getFileName() + ".lock");
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            return updateLocked(log, indexFile);
+        }
+    }
+
+    private static FlakyIndex updateLocked(Path log, Path indexFile) throws IOException {
+        FlakyIndex index = load(indexFile);
+        long size = Files.size(log);
+        if (index != null && (size < index.consumedOffset || fingerprint(log, index.consumedOffset) != index.fingerprint)) {
+            System.out.println("[FlakyIndex] " + log + " was truncated or replaced; rebuilding index");
+            index = null;
+        }
+        if (index == null) {
+            index = new FlakyIndex(new HashMap<>(), new RunRegistry(), 0, 0);
+        }
+
+        // Stop at the last newline: a line still being written is picked up by the next build
+        long end = lastLineEnd(log, index.consumedOffset, size);
+        if (end > index.consumedOffset) {
+            long started = System.nanoTime();
+            Map<String, FlakyAnalytics.Aggregate> delta = FlakyAnalytics.parse(log, index.consumedOffset, end, index.runs);
+            for (Map.Entry<String, FlakyAnalytics.Aggregate> e : delta.entrySet()) {
+                FlakyAnalytics.Aggregate existing = index.aggregates.putIfAbsent(e.getKey(), e.getValue());
+                if (existing != null) existing.merge(e.getValue());
+            }
+            System.out.println("[FlakyIndex] Parsed " + (end - index.consumedOffset) + " new bytes in " + (System.nanoTime() - started) / 1_000_000 + " ms; "
+                    + index.aggregates.size() + " tests indexed");
+            index.consumedOffset = end;
+            index.fingerprint = fingerprint(log, end);
+            index.save(indexFile);
+        }
+        return index;
+    }
+
+    static FlakyIndex load(Path indexFile) {
+        if (!Files.exists(indexFile)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                System.out.println("[FlakyIndex] Unrecognized index format at " + indexFile + "; rebuilding");
+                return null;
+            }
+            long offset = in.readLong();
+            long fp = in.readLong();
+
+            // Runs are stored in id order, so re-registering them reproduces the ids the histories refer to
+            RunRegistry runs = new RunRegistry();
+            int runCount = in.readInt();
+            for (int i = 0; i < runCount; i++) {
+                runs.idOf(in.readUTF(), in.readLong());
+            }
+
+            int n = in.readInt();
+            Map<String, FlakyAnalytics.Aggregate> map = new HashMap<>(Math.max(16, n * 2));
+            for (int i = 0; i < n; i++) {
+                FlakyAnalytics.Aggregate a = new FlakyAnalytics.Aggregate(in.readUTF(), in.readUTF());
+                a.count = in.readInt();
+                a.maxAttempt = in.readInt();
+                a.lastSeen = in.readBoolean() ? in.readUTF() : null;
+                int slots = in.readInt();
+                for (int s = 0; s < slots; s++) {
+                    a.history.add(in.readInt(), in.readLong(), in.readByte());
+                }
+                map.put(a.cls + "#" + a.method, a);
+            }
+            return new FlakyIndex(map, runs, offset, fp);
+        } catch (IOException e) {
+            System.out.println("[FlakyIndex] Could not read " + indexFile + " (" + e.getMessage() + "); rebuilding");
+            return null;
+        }
+    }
+
+    // Write to a temporary file of its own and move it into place so an interrupted build never leaves a torn index
+    void save(Path indexFile) throws IOException {
+        Path tmp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), indexFile.getFileName().toString(), ".tmp");
+        try {
+            write(tmp);
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void write(Path tmp) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(consumedOffset);
+            out.writeLong(fingerprint);
+            List<RunRegistry.Run> allRuns = runs.runs();
+            out.writeInt(allRuns.size());
+            for (RunRegistry.Run run : allRuns) {
+                out.writeUTF(run.name);
+                out.writeLong(run.start.get());
+            }
+            out.writeInt(aggregates.size());
+            for (FlakyAnalytics.Aggregate a : aggregates.values()) {
+                out.writeUTF(a.cls);
+                out.writeUTF(a.method);
+                out.writeInt(a.count);
+                out.writeInt(a.maxAttempt);
+                out.writeBoolean(a.lastSeen != null);
+                if (a.lastSeen != null) out.writeUTF(a.lastSeen);
+                RunHistory h = a.history;
+                out.writeInt(h.size());
+                for (int i = 0; i < h.size(); i++) {
+                    out.writeInt(h.runId(i));
+                    out.writeLong(h.time(i));
+                    out.writeByte(h.attempt(i));
+                }
+            }
+        }
+    }
+
+    // Hash of the first bytes of the log (up to the consumed offset); changes when the log is replaced
+    private static long fingerprint(Path log, long consumed) throws IOException {
+        int len = (int) Math.min(FINGERPRINT_BYTES, consumed);
+        if (len == 0) return 0;
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ)) {
+            while (buf.hasRemaining() && ch.read(buf, buf.position()) > 0) { }
+        }
+        return Arrays.hashCode(buf.array()) * 31L + len;
+    }
+
+    private static long lastLineEnd(Path log, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ)) {
+            long pos = size;
+            while (pos > from) {
+                int len = (int) Math.min(buf.capacity(), pos - from);
+                buf.clear().limit(len);
+                ch.read(buf, pos - len);
+                for (int i = len - 1; i >= 0; i--) {
+                    if (buf.get(i) == '\n') return pos - len + i + 1;
+                }
+                pos -= len;
+            }
+        }
+        return from;
+    }
+}
@@ -0,0 +1,107 @@
+package com.company.analytics;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes table rows into a series of HTML pages of at most pageSize rows each, so a report never has to be held
+ * in memory or rendered as a single huge document.
+ * Page 1 is baseName.html (the stable entry point), page n is baseName-n.html. Each page links to its neighbours;
+ * a page is finished only when the next row arrives, so the "next" link appears only when there really is a next page.
+ */
+final class HtmlPager implements Closeable {
+
+    private final Path dir;
+    private final String baseName;
+    private final String title;
+    private final String preamble;
+    private final String tableHeader;
+    private final int pageSize;
+
+    private BufferedWriter out;
+    private int page;
+    private int rowsOnPage;
+    private long rows;
+
+    /**
+     * @param preamble    HTML placed above the table on every page (may be empty)
+     * @param tableHeader the header row, e.g. {@code <tr><th>Test</th>...</tr>}
+     */
+    HtmlPager(Path dir, String baseName, String title, String preamble, String tableHeader, int pageSize) {
+        this.dir = dir;
+        this.baseName = baseName;
+        this.title = title;
+        this.preamble = preamble;
+        this.tableHeader = tableHeader;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    void row(String rowHtml) throws IOException {
+        if (out == null || rowsOnPage == pageSize) {
+            if (out != null) finishPage(true);
+            startPage();
+        }
+        out.write(rowHtml);
+        out.newLine();
+        rowsOnPage++;
+        rows++;
+    }
+
+    int pages() {
+        return page;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    Path firstPage() {
+        return dir.resolve(fileName(1));
+    }
+
+    String fileName(int n) {
+        return n == 1 ? baseName + ".html" : baseName + "-" + n + ".html";
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out == null) {
+            // Still produce the entry page so links to it keep working
+            startPage();
+        }
+        finishPage(false);
+        // Drop trailing pages left over from an earlier, longer report
+        for (int n = page + 1; Files.deleteIfExists(dir.resolve(fileName(n))); n++) { }
+    }
+
+    private void startPage() throws IOException {
+        page++;
+        rowsOnPage = 0;
+        out = Files.newBufferedWriter(dir.resolve(fileName(page)), StandardCharsets.UTF_8);
+        out.write("<html><head><meta charset=\"utf-8\"><title>" + escape(title) + (page > 1 ? " (page " + page + ")" : "") + "</title></head><body>");
+        out.write("<h1>" + escape(title) + "</h1>");
+        out.write(preamble);
+        out.write("<p>Page " + page + "</p>");
+        out.write("<table border=\"1\" cellpadding=\"6\">" + tableHeader);
+        out.newLine();
+    }
+
+    private void finishPage(boolean hasNext) throws IOException {
+        out.write("</table><p>");
+        if (page > 1) out.write("<a href=\"" + fileName(page - 1) + "\">&laquo; Previous</a> ");
+        if (page > 2) out.write("<a href=\"" + fileName(1) + "\">First</a> ");
+        if (hasNext) out.write("<a href=\"" + fileName(page + 1) + "\">Next &raquo;</a>");
+        out.write("</p></body></html>");
+        out.close();
+        out = null;
+    }
+
+    static String escape(String s) {
+        if (s == null) return "";
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
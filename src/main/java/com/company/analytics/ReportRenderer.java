@@ -0,0 +1,193 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renders the streaming report (target/report/events.jsonl, written during the run with report.mode=stream) into
+ * paginated HTML under target/report:
+ *  - index.html: totals per status and links to the pages
+ *  - tests.html, tests-2.html, ...: every test in completion order, report.page.size rows per page
+ *  - failures.html, ...: failed tests only
+ * The event file is read one line at a time and pages are written as they fill up, so memory use does not depend on
+ * the number of tests. Log entries are folded into collapsed &lt;details&gt; elements and expanded on demand.
+ */
+public class ReportRenderer {
+
+    private static final String TABLE_HEADER = "<tr><th>Test</th><th>Status</th><th>Duration (ms)</th><th>Started</th><th>Thread</th><th>Log</th></tr>";
+
+    public static void main(String[] args) {
+        Path dir = Paths.get("target", "report");
+        Path input = dir.resolve("events.jsonl");
+        if (!Files.exists(input)) {
+            System.out.println("No report events found at " + input + " (run with -Dreport.mode=stream)");
+            return;
+        }
+        try {
+            render(input, dir, PropertyConfig.getInt("report.page.size", 500));
+        } catch (IOException e) {
+            System.err.println("Failed to render report: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    static void render(Path input, Path dir, int pageSize) throws IOException {
+        long started = System.nanoTime();
+        Map<String, Long> byStatus = new TreeMap<>();
+        long totalMs = 0;
+        long malformed = 0;
+        long dropped = 0;
+        String generated = "<p>Generated: " + Instant.now() + "</p><p><a href=\"index.html\">Summary</a></p>";
+
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             HtmlPager all = new HtmlPager(dir, "tests", "Test Results", generated, TABLE_HEADER, pageSize);
+             HtmlPager failures = new HtmlPager(dir, "failures", "Failed Tests", generated, TABLE_HEADER, pageSize)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                TestEvent e;
+                try {
+                    e = TestEvent.parse(line);
+                } catch (Exception ex) {
+                    // A line cut short by a killed JVM; skip it rather than losing the whole report
+                    malformed++;
+                    continue;
+                }
+                if ("dropped".equals(e.event)) {
+                    // Trailer from ReportEventLog.finish(): tests that finished but never reached the file
+                    dropped = Math.max(dropped, e.dropped);
+                    continue;
+                }
+                byStatus.merge(e.status, 1L, Long::sum);
+                totalMs += Math.max(0, e.end - e.start);
+                String row = e.toRow();
+                all.row(row);
+                if ("FAIL".equals(e.status)) failures.row(row);
+            }
+
+            writeIndex(dir, byStatus, totalMs, all, failures, malformed, dropped);
+            if (dropped > 0) {
+                System.err.println("[ReportRenderer] " + dropped + " test event(s) were dropped during the run; the report is incomplete");
+            }
+            System.out.println("[ReportRenderer] Rendered " + all.rows() + " tests into " + all.pages() + " page(s) in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms: " + dir.resolve("index.html").toAbsolutePath());
+        }
+    }
+
+    private static void writeIndex(Path dir, Map<String, Long> byStatus, long totalMs, HtmlPager all, HtmlPager failures, long malformed, long dropped) throws IOException {
+        try (BufferedWriter bw = Files.newBufferedWriter(dir.resolve("index.html"), StandardCharsets.UTF_8)) {
+            bw.write("<html><head><meta charset=\"utf-8\"><title>Test Results</title></head><body>");
+            bw.write("<h1>Test Results</h1>");
+            bw.write("<p>Generated: " + Instant.now() + "</p>");
+            if (dropped > 0) {
+                bw.write("<p><b>Incomplete report: " + dropped + " test(s) finished but their events were dropped during the run"
+                        + " (report.stream.queueCapacity / report.stream.offerTimeoutMs).</b></p>");
+            }
+            bw.write("<table border=\"1\" cellpadding=\"6\"><tr><th>Status</th><th>Tests</th></tr>");
+            for (Map.Entry<String, Long> s : byStatus.entrySet()) {
+                bw.write("<tr><td>" + HtmlPager.escape(s.getKey()) + "</td><td align=\"right\">" + s.getValue() + "</td></tr>");
+            }
+            bw.write("<tr><th>Total</th><th align=\"right\">" + all.rows() + "</th></tr></table>");
+            bw.write("<p>Summed test time: " + totalMs + " ms</p>");
+            if (malformed > 0) {
+                bw.write("<p>Skipped " + malformed + " incomplete event line(s).</p>");
+            }
+            writePageLinks(bw, "All tests", all);
+            if (failures.rows() > 0) {
+                writePageLinks(bw, "Failures", failures);
+            }
+            bw.write("</body></html>");
+        }
+    }
+
+    // Page count is only known after the last row, so links go on the index rather than in each page header
+    private static void writePageLinks(BufferedWriter bw, String label, HtmlPager pager) throws IOException {
+        bw.write("<h2>" + label + " (" + pager.rows() + ")</h2><p>");
+        int pages = Math.max(1, pager.pages());
+        for (int n = 1; n <= pages; n++) {
+            bw.write("<a href=\"" + pager.fileName(n) + "\">" + n + "</a> ");
+        }
+        bw.write("</p>");
+    }
+
+    private static final class TestEvent {
+        String name;
+        String status = "";
+        String thread;
+        String event;
+        long dropped;
+        long start;
+        long end;
+        final StringBuilder log = new StringBuilder();
+        int logEntries;
+
+        static TestEvent parse(String line) throws IOException {
+            TestEvent e = new TestEvent();
+            JsonReader reader = new JsonReader(new StringReader(line));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name": e.name = reader.nextString(); break;
+                    case "status": e.status = reader.nextString(); break;
+                    case "thread": e.thread = reader.nextString(); break;
+                    case "start": e.start = reader.nextLong(); break;
+                    case "end": e.end = reader.nextLong(); break;
+                    case "event": e.event = reader.nextString(); break;
+                    case "dropped": e.dropped = reader.nextLong(); break;
+                    case "logs":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            e.readLog(reader);
+                        }
+                        reader.endArray();
+                        break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return e;
+        }
+
+        private void readLog(JsonReader reader) throws IOException {
+            long time = 0;
+            String status = "";
+            String details = "";
+            String stackTrace = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "time": time = reader.nextLong(); break;
+                    case "status": status = reader.nextString(); break;
+                    case "details": details = reader.nextString(); break;
+                    case "stackTrace": stackTrace = reader.nextString(); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+            logEntries++;
+            log.append(Instant.ofEpochMilli(time)).append(' ').append(status).append(' ').append(details).append('\n');
+            if (stackTrace != null) log.append(stackTrace);
+        }
+
+        String toRow() {
+            return "<tr><td>" + HtmlPager.escape(name) + "</td>"
+                    + "<td>" + HtmlPager.escape(status) + "</td>"
+                    + "<td align=\"right\">" + Math.max(0, end - start) + "</td>"
+                    + "<td>" + Instant.ofEpochMilli(start) + "</td>"
+                    + "<td>" + HtmlPager.escape(thread) + "</td>"
+                    + "<td><details><summary>" + logEntries + " entries</summary><pre>" + HtmlPager.escape(log.toString()) + "</pre></details></td></tr>";
+        }
+    }
+}
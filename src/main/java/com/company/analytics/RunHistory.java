@@ -0,0 +1,77 @@
+package com.company.analytics;
+
+/**
+ * Bounded per-test retry history: one slot per run in which the test retried (never two for one run id), oldest slots
+ * overwritten first.
+ * Slots live in parallel primitive arrays (run id, time of the first retry in that run, highest attempt) so thousands
+ * of tests with hundreds of runs each stay compact and can be scanned in microseconds.
+ */
+final class RunHistory {
+
+    private final int[] runIds;
+    private final long[] times;
+    private final byte[] attempts;
+    private int head;   // index of the oldest slot
+    private int size;
+
+    RunHistory(int capacity) {
+        runIds = new int[capacity];
+        times = new long[capacity];
+        attempts = new byte[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return runIds.length;
+    }
+
+    int runId(int i) {
+        return runIds[slot(i)];
+    }
+
+    long time(int i) {
+        return times[slot(i)];
+    }
+
+    int attempt(int i) {
+        return attempts[slot(i)];
+    }
+
+    // Record a retry; retries of the same run are coalesced into one slot, also when another run's retries came in
+    // between (two JVMs of one build logging into the same file), so each run counts once in the scores
+    void add(int runId, long epochMillis, int attempt) {
+        // Newest first: a run's retries are almost always in the last slot or close to it
+        for (int i = size - 1; i >= 0; i--) {
+            int s = slot(i);
+            if (runIds[s] == runId) {
+                if (attempt > attempts[s]) attempts[s] = (byte) Math.min(attempt, Byte.MAX_VALUE);
+                if (epochMillis > 0 && (times[s] == 0 || epochMillis < times[s])) times[s] = epochMillis;
+                return;
+            }
+        }
+        int target;
+        if (size < runIds.length) {
+            target = slot(size++);
+        } else {
+            target = head;
+            head = (head + 1) % runIds.length;
+        }
+        runIds[target] = runId;
+        times[target] = epochMillis;
+        attempts[target] = (byte) Math.min(Math.max(attempt, 0), Byte.MAX_VALUE);
+    }
+
+    // Append the slots of a history built from a later part of the log
+    void appendAll(RunHistory later) {
+        for (int i = 0; i < later.size; i++) {
+            add(later.runId(i), later.time(i), later.attempt(i));
+        }
+    }
+
+    private int slot(int i) {
+        return (head + i) % runIds.length;
+    }
+}
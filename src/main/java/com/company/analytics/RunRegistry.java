@@ -0,0 +1,65 @@
+package com.company.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suite runs (builds) seen in the flaky log, each with a small integer id and the time of its earliest entry.
+ * Per-test histories refer to runs by id so they can stay in primitive arrays.
+ * Safe to share between parser threads: lookups are lock-free, only registering a new run takes the lock.
+ */
+final class RunRegistry {
+
+    static final class Run {
+        final int id;
+        final String name;
+        final AtomicLong start;
+
+        Run(int id, String name, long start) {
+            this.id = id;
+            this.name = name;
+            this.start = new AtomicLong(start);
+        }
+
+        void observe(long epochMillis) {
+            long cur;
+            while (epochMillis > 0 && ((cur = start.get()) == 0 || epochMillis < cur)) {
+                if (start.compareAndSet(cur, epochMillis)) return;
+            }
+        }
+    }
+
+    private final Map<String, Run> byName = new ConcurrentHashMap<>();
+    private final List<Run> byId = new ArrayList<>();
+
+    int idOf(String name, long epochMillis) {
+        Run run = byName.get(name);
+        if (run == null) {
+            synchronized (this) {
+                run = byName.get(name);
+                if (run == null) {
+                    run = new Run(byId.size(), name, epochMillis);
+                    byId.add(run);
+                    byName.put(name, run);
+                }
+            }
+        }
+        run.observe(epochMillis);
+        return run.id;
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    synchronized Run get(int id) {
+        return byId.get(id);
+    }
+
+    synchronized List<Run> runs() {
+        return new ArrayList<>(byId);
+    }
+}
@@ -0,0 +1,338 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Duration-aware sharding of the Cucumber scenarios.
+ * Behavior:
+ *  - main() folds the scenario durations of one or more cucumber.json files (default target/cucumber.json) into a
+ *    duration history (shard.history, see historyPath()) as a moving average per scenario, keyed "feature path:line"
+ *    as in Cucumber rerun files.
+ *  - assign() packs scenarios into shards with the longest-processing-time-first heuristic: longest scenario first,
+ *    each onto the shard with the least estimated time so far, so no shard exceeds an even split by more than the
+ *    longest single scenario. Scenarios without history are estimated at the median known duration.
+ *  - With shard.total > 1, main() also writes the plan: target/shards/shard-<i>.txt rerun lists (usable as
+ *    -Dcucumber.features=@target/shards/shard-0.txt), and prints the estimated time of each shard.
+ * The runners never recompute the split from their own history: they read the plan (readPlan) handed to every shard,
+ * and place scenarios the plan does not list with hashShard, which gives the same answer on every machine.
+ */
+public final class ShardPlanner {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    // Estimate for every scenario when there is no history at all; the split is then by scenario count
+    private static final long UNKNOWN_DEFAULT_MS = 1000;
+    private static final Pattern PLAN_FILE = Pattern.compile("shard-\\d+\\.txt");
+
+    private ShardPlanner() { }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        for (String a : args) inputs.add(Paths.get(a));
+        if (inputs.isEmpty()) inputs.add(Paths.get("target", "cucumber.json"));
+
+        Path historyFile = historyPath();
+        Map<String, Entry> history = readHistory(historyFile);
+        double alpha = PropertyConfig.getDouble("shard.history.alpha", 0.3);
+        int recorded = 0;
+        for (Path input : inputs) {
+            if (!Files.exists(input)) {
+                System.out.println("[ShardPlanner] No Cucumber results at " + input);
+                continue;
+            }
+            for (Map.Entry<String, Sample> s : readDurations(input).entrySet()) {
+                history.computeIfAbsent(s.getKey(), k -> new Entry()).add(s.getValue(), alpha);
+                recorded++;
+            }
+        }
+        int pruned = prune(history, Duration.ofDays(PropertyConfig.getLong("shard.history.maxAgeDays", 30)));
+        if (recorded > 0 || pruned > 0) {
+            writeHistory(historyFile, history);
+            System.out.println("[ShardPlanner] Recorded " + recorded + " scenario durations" + (pruned > 0 ? ", dropped " + pruned + " stale" : "")
+                    + "; " + history.size() + " scenarios in " + historyFile);
+        }
+
+        int total = PropertyConfig.getInt("shard.total", 1);
+        if (total > 1 && !history.isEmpty()) {
+            writePlan(estimates(history.keySet(), history), total, Paths.get(PropertyConfig.get("shard.dir", "target/shards")));
+        }
+    }
+
+    /**
+     * Shard (0-based) of every scenario key, balancing the estimated durations over the given number of shards.
+     * Deterministic: ties are broken by key and by shard number.
+     */
+    public static Map<String, Integer> assign(Map<String, Long> estimatesMs, int shards) {
+        List<Map.Entry<String, Long>> items = new ArrayList<>(estimatesMs.entrySet());
+        items.sort((a, b) -> {
+            int c = Long.compare(b.getValue(), a.getValue());
+            return c != 0 ? c : a.getKey().compareTo(b.getKey());
+        });
+        // [load, shard]
+        PriorityQueue<long[]> loads = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        for (int i = 0; i < shards; i++) loads.add(new long[]{0, i});
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> item : items) {
+            long[] lightest = loads.poll();
+            out.put(item.getKey(), (int) lightest[1]);
+            lightest[0] += item.getValue();
+            loads.add(lightest);
+        }
+        return out;
+    }
+
+    /**
+     * Shard of every scenario key in the plan directory's shard-0.txt .. shard-<total-1>.txt rerun lists.
+     * IllegalStateException when the plan was written for a different shard.total or lists a scenario in two shards.
+     */
+    public static Map<String, Integer> readPlan(Path dir, int total) throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(p -> PLAN_FILE.matcher(p.getFileName().toString()).matches()).sorted().collect(Collectors.toList());
+        }
+        if (files.size() != total || !Files.exists(dir.resolve("shard-" + (total - 1) + ".txt"))) {
+            throw new IllegalStateException("Shard plan " + dir + " has " + files.size() + " shard files, expected shard-0.txt .. shard-"
+                    + (total - 1) + ".txt for shard.total=" + total);
+        }
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < total; i++) {
+            for (String line : Files.readAllLines(dir.resolve("shard-" + i + ".txt"), StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(":");
+                for (int p = 1; p < parts.length; p++) {
+                    String key = parts[0] + ":" + parts[p];
+                    Integer earlier = out.put(key, i);
+                    if (earlier != null) {
+                        throw new IllegalStateException("Shard plan " + dir + " lists " + key + " in shard " + earlier + " and shard " + i);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Shard of a scenario the plan does not list: a hash of its key, so every machine agrees without shared state.
+     */
+    public static int hashShard(String key, int total) {
+        return Math.floorMod(key.hashCode(), total);
+    }
+
+    /**
+     * "src/test/resources/features/api/api.feature:7" for a feature URI as Cucumber reports it (file:, classpath:,
+     * absolute file URI) and a scenario or example line.
+     */
+    public static String scenarioKey(String uri, int line) {
+        String path = uri;
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+            if (path.startsWith("//")) path = path.substring(2);
+            String cwd = Paths.get("").toAbsolutePath().toString().replace('\\', '/') + "/";
+            if (path.startsWith(cwd)) path = path.substring(cwd.length());
+        }
+        if (path.startsWith("./")) path = path.substring(2);
+        return path + ":" + line;
+    }
+
+    /**
+     * The duration history file (shard.history). When unset, the same fallback as FlakyHistory.dir(): Jenkins builds
+     * (JOB_NAME set) use ~/.cache/framework/shards/<job>/shard-durations.json, so it survives mvn clean and jobs on one
+     * agent never share it; everything else uses target/shard-durations.json, so a local mvn verify never writes into
+     * the home directory.
+     */
+    static Path historyPath() {
+        String configured = PropertyConfig.get("shard.history", "");
+        if (!configured.isEmpty()) return Paths.get(configured.trim());
+        String job = FlakyHistory.jenkinsJob();
+        if (job != null) return Paths.get(System.getProperty("user.home"), ".cache", "framework", "shards", job, "shard-durations.json");
+        return Paths.get("target", "shard-durations.json");
+    }
+
+    private static Map<String, Long> estimates(Collection<String> keys, Map<String, Entry> history) {
+        List<Long> known = new ArrayList<>();
+        for (String key : keys) {
+            Entry e = history.get(key);
+            if (e != null) known.add(Math.round(e.ms));
+        }
+        known.sort(Long::compare);
+        long unknown = known.isEmpty() ? UNKNOWN_DEFAULT_MS : known.get(known.size() / 2);
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (String key : keys) {
+            Entry e = history.get(key);
+            out.put(key, e != null ? Math.max(1, Math.round(e.ms)) : unknown);
+        }
+        return out;
+    }
+
+    // Scenario key -> summed step and hook durations of its last occurrence in the file (a retried scenario appears twice)
+    static Map<String, Sample> readDurations(Path cucumberJson) throws IOException {
+        Map<String, Sample> out = new LinkedHashMap<>();
+        JsonArray features;
+        try (Reader r = Files.newBufferedReader(cucumberJson, StandardCharsets.UTF_8)) {
+            JsonElement root = JsonParser.parseReader(r);
+            if (!root.isJsonArray()) return out;
+            features = root.getAsJsonArray();
+        }
+        for (JsonElement f : features) {
+            JsonObject feature = f.getAsJsonObject();
+            if (!feature.has("uri") || !feature.has("elements")) continue;
+            String uri = feature.get("uri").getAsString();
+            for (JsonElement el : feature.getAsJsonArray("elements")) {
+                JsonObject element = el.getAsJsonObject();
+                if (!"scenario".equals(stringOr(element, "type", "scenario")) || !element.has("line")) continue;
+                long nanos = sumDurations(element, "before") + sumDurations(element, "steps") + sumDurations(element, "after");
+                if (nanos <= 0) continue;
+                out.put(scenarioKey(uri, element.get("line").getAsInt()), new Sample(stringOr(element, "name", ""), nanos / 1_000_000.0));
+            }
+        }
+        return out;
+    }
+
+    private static long sumDurations(JsonObject element, String field) {
+        if (!element.has(field)) return 0;
+        long sum = 0;
+        for (JsonElement step : element.getAsJsonArray(field)) {
+            JsonObject result = step.getAsJsonObject().getAsJsonObject("result");
+            if (result != null && result.has("duration")) sum += result.get("duration").getAsLong();
+        }
+        return sum;
+    }
+
+    private static String stringOr(JsonObject o, String field, String def) {
+        return o.has(field) && !o.get(field).isJsonNull() ? o.get(field).getAsString() : def;
+    }
+
+    private static void writePlan(Map<String, Long> estimates, int total, Path dir) throws IOException {
+        Map<String, Integer> assignment = assign(estimates, total);
+        List<Map<String, List<Integer>>> linesByFeature = new ArrayList<>();
+        long[] loads = new long[total];
+        int[] counts = new int[total];
+        for (int i = 0; i < total; i++) linesByFeature.add(new TreeMap<>());
+        for (Map.Entry<String, Integer> e : assignment.entrySet()) {
+            int colon = e.getKey().lastIndexOf(':');
+            linesByFeature.get(e.getValue()).computeIfAbsent(e.getKey().substring(0, colon), k -> new ArrayList<>())
+                    .add(Integer.parseInt(e.getKey().substring(colon + 1)));
+            loads[e.getValue()] += estimates.get(e.getKey());
+            counts[e.getValue()]++;
+        }
+        Files.createDirectories(dir);
+        // A plan for more shards left in the directory would make readPlan reject this one
+        try (Stream<Path> s = Files.list(dir)) {
+            for (Path stale : (Iterable<Path>) s::iterator) {
+                String name = stale.getFileName().toString();
+                if (PLAN_FILE.matcher(name).matches() && Integer.parseInt(name.substring(6, name.length() - 4)) >= total) {
+                    Files.delete(stale);
+                }
+            }
+        }
+        long sum = 0;
+        long longest = 0;
+        for (int i = 0; i < total; i++) {
+            // Rerun format: one feature per line, followed by the lines of its scenarios
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, List<Integer>> f : linesByFeature.get(i).entrySet()) {
+                f.getValue().sort(Integer::compare);
+                sb.append(f.getKey());
+                for (int line : f.getValue()) sb.append(':').append(line);
+                sb.append(System.lineSeparator());
+            }
+            Files.writeString(dir.resolve("shard-" + i + ".txt"), sb.toString(), StandardCharsets.UTF_8);
+            System.out.println("[ShardPlanner] shard " + i + ": " + counts[i] + " scenarios, estimated " + seconds(loads[i]));
+            sum += loads[i];
+            longest = Math.max(longest, loads[i]);
+        }
+        System.out.println("[ShardPlanner] " + total + " shards written to " + dir + "; longest shard " + seconds(longest)
+                + " (even split " + seconds(sum / total) + ")");
+    }
+
+    private static String seconds(long ms) {
+        return String.format("%.1fs", ms / 1000.0);
+    }
+
+    private static int prune(Map<String, Entry> history, Duration maxAge) {
+        Instant cutoff = Instant.now().minus(maxAge);
+        int before = history.size();
+        history.values().removeIf(e -> e.lastSeen == null || Instant.parse(e.lastSeen).isBefore(cutoff));
+        return before - history.size();
+    }
+
+    private static Map<String, Entry> readHistory(Path file) {
+        Map<String, Entry> out = new TreeMap<>();
+        if (!Files.exists(file)) return out;
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject scenarios = JsonParser.parseReader(r).getAsJsonObject().getAsJsonObject("scenarios");
+            if (scenarios != null) {
+                for (Map.Entry<String, JsonElement> e : scenarios.entrySet()) {
+                    out.put(e.getKey(), GSON.fromJson(e.getValue(), Entry.class));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[ShardPlanner] Ignoring unreadable duration history " + file + ": " + e.getMessage());
+        }
+        return out;
+    }
+
+    private static void writeHistory(Path file, Map<String, Entry> history) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("updated", Instant.now().toString());
+        root.put("scenarios", new TreeMap<>(history));
+        Path tmp = dir.resolve(file.getFileName() + ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(root, w);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static final class Sample {
+        final String name;
+        final double ms;
+
+        Sample(String name, double ms) {
+            this.name = name;
+            this.ms = ms;
+        }
+    }
+
+    // One scenario in the history file: exponential moving average of its duration
+    static final class Entry {
+        String name;
+        double ms;
+        int runs;
+        String lastSeen;
+
+        void add(Sample s, double alpha) {
+            ms = runs == 0 ? s.ms : ms + alpha * (s.ms - ms);
+            ms = Math.round(ms * 10) / 10.0;
+            runs++;
+            name = s.name;
+            lastSeen = Instant.now().toString();
+        }
+    }
+}
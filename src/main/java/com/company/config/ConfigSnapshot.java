@@ -0,0 +1,211 @@
+package com.company.config;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One immutable, fully merged view of the configuration, published by PropertyConfig.
+ * Reads never lock: the raw values are fixed when the snapshot is built, and typed values are parsed on first use and
+ * memoized per snapshot. A configuration change never mutates a snapshot; PropertyConfig swaps in a new one.
+ */
+public final class ConfigSnapshot {
+
+    enum Type { BOOLEAN, INT, LONG, DOUBLE, DURATION, URL }
+
+    private static final String[] SECRET_MARKERS = {"password", "passwd", "secret", "token", "accesskey", "apikey", "credential", "privatekey"};
+
+    private final Map<String, String> values;
+    private final Map<String, String> origins;
+    private final long version;
+    // Parsed values per type, keyed by the property key itself so a memoized read allocates nothing. Only present keys
+    // are memoized, so call-site defaults never leak into it. Filled in the constructor and never restructured after.
+    private final Map<Type, Map<String, Object>> parsed = new EnumMap<>(Type.class);
+    // Durations also depend on the unit of a bare number
+    private final Map<ChronoUnit, Map<String, Duration>> durations = new ConcurrentHashMap<>();
+
+    ConfigSnapshot(Map<String, String> values, Map<String, String> origins, long version) {
+        this.values = Collections.unmodifiableMap(new TreeMap<>(values));
+        this.origins = Collections.unmodifiableMap(new TreeMap<>(origins));
+        this.version = version;
+        for (Type type : Type.values()) parsed.put(type, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Increases with every swap; 1 for the snapshot built at start-up.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Every key and raw value in this snapshot, sorted by key.
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    /**
+     * Where the value of the key came from (a properties file, an environment variable, a system property, set()),
+     * or null when the key is absent.
+     */
+    public String origin(String key) {
+        return origins.get(key);
+    }
+
+    /**
+     * The value as it may be printed: values of secret-looking keys (password, secret, token, access key, ...) are masked.
+     */
+    public static String printable(String key, String value) {
+        if (value == null || value.isEmpty()) return value;
+        String k = key.toLowerCase(Locale.ROOT).replace("_", "").replace("-", "");
+        for (String marker : SECRET_MARKERS) {
+            if (k.contains(marker)) return "****";
+        }
+        return value;
+    }
+
+    /**
+     * The raw value, or defaultValue when the key is absent or blank. Blank means "not set" for every getter, so an
+     * empty -Dkey= or KEY= in a file falls back to the default the same way a missing key does.
+     */
+    public String get(String key, String defaultValue) {
+        String v = values.get(key);
+        return v == null || v.trim().isEmpty() ? defaultValue : v;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean v = (Boolean) typed(Type.BOOLEAN, key);
+        return v != null ? v : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer v = (Integer) typed(Type.INT, key);
+        return v != null ? v : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long v = (Long) typed(Type.LONG, key);
+        return v != null ? v : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Double v = (Double) typed(Type.DOUBLE, key);
+        return v != null ? v : defaultValue;
+    }
+
+    /**
+     * Accepts "500ms", "30s", "5m", "2h", "1d", ISO-8601 ("PT30S"), or a bare number in the given unit.
+     */
+    public Duration getDuration(String key, Duration defaultValue, ChronoUnit bareNumberUnit) {
+        String raw = values.get(key);
+        if (raw == null || raw.trim().isEmpty()) return defaultValue;
+        Map<String, Duration> memo = durations.computeIfAbsent(bareNumberUnit, unit -> new ConcurrentHashMap<>());
+        Duration v = memo.get(key);
+        if (v == null) {
+            v = parseDuration(key, raw, bareNumberUnit);
+            memo.putIfAbsent(key, v);
+        }
+        return v;
+    }
+
+    public URL getUrl(String key, String defaultValue) {
+        URL v = (URL) typed(Type.URL, key);
+        return v != null ? v : (defaultValue == null || defaultValue.isEmpty() ? null : (URL) parse(Type.URL, key, defaultValue));
+    }
+
+    // Null when the key is absent or blank; IllegalArgumentException naming the key when the value does not parse
+    private Object typed(Type type, String key) {
+        String raw = values.get(key);
+        if (raw == null || raw.trim().isEmpty()) return null;
+        Map<String, Object> memo = parsed.get(type);
+        Object v = memo.get(key);
+        if (v == null) {
+            v = parse(type, key, raw);
+            memo.putIfAbsent(key, v);
+        }
+        return v;
+    }
+
+    /**
+     * Check every key of the schema that has a value; returns one message per invalid value.
+     */
+    List<String> validate(Map<String, Type> schema) {
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, Type> e : schema.entrySet()) {
+            String raw = values.get(e.getKey());
+            if (raw == null || raw.trim().isEmpty()) continue;
+            try {
+                if (e.getValue() == Type.DURATION) parseDuration(e.getKey(), raw, ChronoUnit.SECONDS);
+                else parse(e.getValue(), e.getKey(), raw);
+            } catch (IllegalArgumentException ex) {
+                errors.add(ex.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    private static Object parse(Type type, String key, String raw) {
+        String v = raw.trim();
+        try {
+            switch (type) {
+                case BOOLEAN:
+                    switch (v.toLowerCase(Locale.ROOT)) {
+                        case "true": case "yes": case "on": case "1": return Boolean.TRUE;
+                        case "false": case "no": case "off": case "0": return Boolean.FALSE;
+                        default: throw new IllegalArgumentException("not a boolean");
+                    }
+                case INT:
+                    return Integer.parseInt(v);
+                case LONG:
+                    return Long.parseLong(v);
+                case DOUBLE:
+                    return Double.parseDouble(v);
+                case URL:
+                    return new URI(v).toURL();
+                default:
+                    throw new IllegalArgumentException("unsupported type " + type);
+            }
+        } catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+            // IllegalArgumentException includes NumberFormatException and the boolean/type errors above
+            throw invalid(key, raw, type, e.getMessage());
+        }
+    }
+
+    private static Duration parseDuration(String key, String raw, ChronoUnit bareNumberUnit) {
+        String v = raw.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (v.startsWith("p")) return Duration.parse(v.toUpperCase(Locale.ROOT));
+            int split = 0;
+            while (split < v.length() && (Character.isDigit(v.charAt(split)) || v.charAt(split) == '-')) split++;
+            long amount = Long.parseLong(v.substring(0, split));
+            switch (v.substring(split).trim()) {
+                case "": return Duration.of(amount, bareNumberUnit);
+                case "ms": return Duration.ofMillis(amount);
+                case "s": return Duration.ofSeconds(amount);
+                case "m": return Duration.ofMinutes(amount);
+                case "h": return Duration.ofHours(amount);
+                case "d": return Duration.ofDays(amount);
+                default: throw new IllegalArgumentException("unknown unit '" + v.substring(split) + "'");
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw invalid(key, raw, Type.DURATION, e.getMessage());
+        }
+    }
+
+    private static IllegalArgumentException invalid(String key, String raw, Type type, String reason) {
+        return new IllegalArgumentException(key + "='" + raw + "' is not a valid " + type.name().toLowerCase(Locale.ROOT) + " (" + reason + ")");
+    }
+}
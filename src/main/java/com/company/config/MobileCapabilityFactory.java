@@ -17,7 +17,7 @@ public class MobileCapabilityFactory {
                 caps.setCapability("browserName", getConfig("mobile.android.browserName", "Chrome"));
 
                 // chromedriver autodownload and executable directory
-                boolean chromedriverAutodownload = Boolean.parseBoolean(getConfig("appium.chromedriver.autodownload", "true"));
+                boolean chromedriverAutodownload = PropertyConfig.getBoolean("appium.chromedriver.autodownload", true);
                 caps.setCapability("appium:chromedriverAutodownload", chromedriverAutodownload);
                 caps.setCapability("chromedriverAutodownload", chromedriverAutodownload);
 
@@ -61,6 +61,23 @@ public class MobileCapabilityFactory {
         return caps;
     }
 
+    /**
+     * Local capabilities bound to one device: its udid plus the ports reserved for it, so several sessions can run in
+     * parallel against different devices (and the same Appium server) without clashing.
+     */
+    public static DesiredCapabilities getLocalCapabilities(String platform, String runType, String udid, int systemPort, int chromedriverPort) {
+        DesiredCapabilities caps = getLocalCapabilities(platform, runType);
+        caps.setCapability("appium:udid", udid);
+        if (platform.equalsIgnoreCase("android")) {
+            caps.setCapability("appium:deviceName", udid);
+            caps.setCapability("appium:systemPort", systemPort);
+            caps.setCapability("appium:chromedriverPort", chromedriverPort);
+        } else if (platform.equalsIgnoreCase("ios")) {
+            caps.setCapability("appium:wdaLocalPort", systemPort);
+        }
+        return caps;
+    }
+
     public static DesiredCapabilities getContainerCapabilities(String platform, String runType) {
         DesiredCapabilities caps = getLocalCapabilities(platform, runType);
         // Add container-specific overrides if needed
@@ -82,7 +99,7 @@ public class MobileCapabilityFactory {
                 caps.setCapability("appium:platformVersion", getConfig("sauce.platformVersion", "12.0"));
                 caps.setCapability("browserName", getConfig("sauce.browserName", "Chrome"));
                 // Allow sauce-specific chromedriver autodownload preference
-                boolean cdAuto = Boolean.parseBoolean(getConfig("sauce.chromedriver.autodownload", "true"));
+                boolean cdAuto = PropertyConfig.getBoolean("sauce.chromedriver.autodownload", true);
                 caps.setCapability("appium:chromedriverAutodownload", cdAuto);
                 caps.setCapability("chromedriverAutodownload", cdAuto);
             } else {
@@ -107,7 +124,7 @@ public class MobileCapabilityFactory {
         return caps;
     }
 
-    // Configuration is delegated to PropertyConfig (reads system properties and properties file)
+    // Configuration is delegated to PropertyConfig (current snapshot of system properties and properties files)
     private static String getConfig(String key, String defaultValue) {
         return PropertyConfig.get(key, defaultValue);
     }
@@ -2,55 +2,456 @@ package com.company.config;
 
 import java.io.InputStream;
 import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.DirectoryStream;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static java.util.Map.entry;
 
 /**
- * Simplified centralized reader for framework properties.
+ * Centralized reader for framework properties.
  * Behavior:
- *  - First, attempt to load a small set of well-known property files from the classpath under `properties/`.
- *  - Then, load any .properties files found in src/test/resources/properties (useful during development/IDE runs).
- *  - Property resolution: System property (-Dkey=...) takes precedence, then loaded properties, then provided default value.
+ *  - At start-up these layers, each overriding the ones before, are merged into one immutable ConfigSnapshot:
+ *      1. properties/*.properties on the classpath (directories or jars), replaced by same-named files in
+ *         src/test/resources/properties when running from a checkout;
+ *      2. properties/<profile>/*.properties for each profile in -Dprofile=ci[,other];
+ *      3. environment variables matching a known key ignoring case and separators (WEB_POOL_SIZE -> web.pool.size);
+ *      4. system properties (-Dkey=...).
+ *    Within a layer files load in file-name order, so the result does not depend on directory listing order.
+ *  - The snapshot is validated against the known typed keys before it is published; an invalid value fails start-up
+ *    with every problem listed. describe() (or -Dconfig.dump=true) shows every effective value and where it came from.
+ *  - Reads go to the current snapshot without locking; typed accessors (getInt, getBoolean, getDuration, getUrl, ...)
+ *    parse a value once per snapshot.
+ *  - The configuration only changes by swapping in a complete new snapshot: set() for programmatic overrides, reload()
+ *    to re-read the files, and with -Dconfig.watch=true a watcher that reloads when a file in properties/ changes.
+ *    A snapshot that fails validation is rejected and the current one stays in place.
  */
 public final class PropertyConfig {
 
-    private static final Properties PROPS = new Properties();
+    private static final String CLASSPATH_DIR = "properties";
+    private static final Path PROJECT_PROPS = Paths.get("src", "test", "resources", "properties");
+    private static final String ORIGIN_SYSTEM = "system property";
+    // System properties every JVM, Maven or Surefire run carries; describe() leaves them out
+    private static final String[] RUNTIME_PREFIXES = {"java.", "jdk.", "sun.", "os.", "user.", "file.", "line.", "path.", "native.",
+            "stdout.", "stderr.", "awt.", "maven.", "surefire.", "basedir", "localRepository", "library.jansi.", "jansi.", "guice.",
+            "classworlds.", "idea.", "socksNonProxyHosts", "ftp.nonProxyHosts", "http.nonProxyHosts"};
+
+    // Known keys whose values must parse as their type; other keys are free-form strings
+    private static final Map<String, ConfigSnapshot.Type> SCHEMA = Map.ofEntries(
+            entry("api.baseUri", ConfigSnapshot.Type.URL),
+            entry("api.pool.idleSeconds", ConfigSnapshot.Type.LONG),
+            entry("api.pool.maxPerRoute", ConfigSnapshot.Type.INT),
+            entry("api.pool.maxTotal", ConfigSnapshot.Type.INT),
+            entry("api.pool.ttlSeconds", ConfigSnapshot.Type.LONG),
+            entry("api.timeout.connectMs", ConfigSnapshot.Type.INT),
+            entry("api.timeout.readMs", ConfigSnapshot.Type.INT),
+            entry("api.tls.relaxed", ConfigSnapshot.Type.BOOLEAN),
+            entry("appium.chromedriver.autodownload", ConfigSnapshot.Type.BOOLEAN),
+            entry("appium.server", ConfigSnapshot.Type.URL),
+            entry("browser.profile.copyThreads", ConfigSnapshot.Type.INT),
+            entry("browser.profile.template", ConfigSnapshot.Type.BOOLEAN),
+            entry("browser.profile.templateMaxAgeHours", ConfigSnapshot.Type.LONG),
+            entry("config.dump", ConfigSnapshot.Type.BOOLEAN),
+            entry("config.watch", ConfigSnapshot.Type.BOOLEAN),
+            entry("dataProviderThreadCount", ConfigSnapshot.Type.INT),
+            entry("driver.manifest.maxAgeHours", ConfigSnapshot.Type.LONG),
+            entry("flaky.analytics.parallelThresholdMb", ConfigSnapshot.Type.LONG),
+            entry("flaky.analytics.threads", ConfigSnapshot.Type.INT),
+            entry("flaky.history.runsPerTest", ConfigSnapshot.Type.INT),
+            entry("flaky.index.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("flaky.log.async", ConfigSnapshot.Type.BOOLEAN),
+            entry("flaky.log.batchSize", ConfigSnapshot.Type.INT),
+            entry("flaky.log.flushIntervalMs", ConfigSnapshot.Type.LONG),
+            entry("flaky.log.queueCapacity", ConfigSnapshot.Type.INT),
+            entry("flaky.score.halfLifeDays", ConfigSnapshot.Type.DOUBLE),
+            entry("flaky.score.recentRuns", ConfigSnapshot.Type.INT),
+            entry("healenium.breaker.failureThreshold", ConfigSnapshot.Type.INT),
+            entry("healenium.breaker.openSeconds", ConfigSnapshot.Type.LONG),
+            entry("healenium.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("healenium.probe.timeoutMs", ConfigSnapshot.Type.INT),
+            entry("healenium.probe.ttlSeconds", ConfigSnapshot.Type.LONG),
+            entry("load.durationSeconds", ConfigSnapshot.Type.LONG),
+            entry("load.iterations", ConfigSnapshot.Type.LONG),
+            entry("load.rampUpSeconds", ConfigSnapshot.Type.LONG),
+            entry("load.thinkTimeMs", ConfigSnapshot.Type.LONG),
+            entry("load.users", ConfigSnapshot.Type.INT),
+            entry("load.virtualThreads", ConfigSnapshot.Type.BOOLEAN),
+            entry("load.warmupIterations", ConfigSnapshot.Type.INT),
+            entry("mobile.adb.timeoutSeconds", ConfigSnapshot.Type.LONG),
+            entry("mobile.inventory.refreshSeconds", ConfigSnapshot.Type.LONG),
+            entry("mobile.pool.chromedriverPortBase", ConfigSnapshot.Type.INT),
+            entry("mobile.pool.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("mobile.pool.leaseTimeoutSeconds", ConfigSnapshot.Type.LONG),
+            entry("mobile.pool.systemPortBase", ConfigSnapshot.Type.INT),
+            entry("parallel.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("perf.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("perf.maxThreadRecorders", ConfigSnapshot.Type.INT),
+            entry("perf.topN", ConfigSnapshot.Type.INT),
+            entry("report.page.size", ConfigSnapshot.Type.INT),
+            entry("report.stream.batchSize", ConfigSnapshot.Type.INT),
+            entry("report.stream.flushIntervalMs", ConfigSnapshot.Type.LONG),
+            entry("report.stream.offerTimeoutMs", ConfigSnapshot.Type.LONG),
+            entry("report.stream.queueCapacity", ConfigSnapshot.Type.INT),
+            entry("retry.backoff.baseMs", ConfigSnapshot.Type.LONG),
+            entry("retry.backoff.maxMs", ConfigSnapshot.Type.LONG),
+            entry("retry.budget", ConfigSnapshot.Type.INT),
+            entry("retry.fingerprint.frames", ConfigSnapshot.Type.INT),
+            entry("retry.history.minRecentRate", ConfigSnapshot.Type.DOUBLE),
+            entry("retry.maxRetries", ConfigSnapshot.Type.INT),
+            entry("retry.unknown.maxRetries", ConfigSnapshot.Type.INT),
+            entry("sauce.chromedriver.autodownload", ConfigSnapshot.Type.BOOLEAN),
+            entry("sauce.url", ConfigSnapshot.Type.URL),
+            entry("shard.history.alpha", ConfigSnapshot.Type.DOUBLE),
+            entry("shard.history.maxAgeDays", ConfigSnapshot.Type.LONG),
+            entry("shard.index", ConfigSnapshot.Type.INT),
+            entry("shard.total", ConfigSnapshot.Type.INT),
+            entry("threadCount", ConfigSnapshot.Type.INT),
+            entry("web.headless", ConfigSnapshot.Type.BOOLEAN),
+            entry("web.pool.enabled", ConfigSnapshot.Type.BOOLEAN),
+            entry("web.pool.leaseTimeoutSeconds", ConfigSnapshot.Type.LONG),
+            entry("web.pool.size", ConfigSnapshot.Type.INT),
+            entry("web.remote.url", ConfigSnapshot.Type.URL));
+
+    // Programmatic overrides (set()); kept so a reload from disk does not drop them
+    private static final Map<String, String> OVERRIDES = new ConcurrentHashMap<>();
+    private static final AtomicReference<ConfigSnapshot> CURRENT = new AtomicReference<>();
 
     static {
-        Set<String> loaded = new HashSet<>();
-        ClassLoader cl = PropertyConfig.class.getClassLoader();
+        ConfigSnapshot initial = build(1, true);
+        List<String> errors = initial.validate(SCHEMA);
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("[PropertyConfig] Invalid configuration:\n  " + String.join("\n  ", errors));
+        }
+        CURRENT.set(initial);
+        if (initial.getBoolean("config.dump", false)) {
+            System.out.println(describe());
+        }
+        if (initial.getBoolean("config.watch", false)) {
+            startWatcher();
+        }
+    }
+
+    private PropertyConfig() { }
+
+    /**
+     * The configuration in effect right now. Hold on to it to read several related keys from one consistent version.
+     */
+    public static ConfigSnapshot snapshot() {
+        return CURRENT.get();
+    }
+
+    public static String get(String key, String defaultValue) {
+        return CURRENT.get().get(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return CURRENT.get().getBoolean(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return CURRENT.get().getInt(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return CURRENT.get().getLong(key, defaultValue);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        return CURRENT.get().getDouble(key, defaultValue);
+    }
+
+    public static Duration getDuration(String key, Duration defaultValue, ChronoUnit bareNumberUnit) {
+        return CURRENT.get().getDuration(key, defaultValue, bareNumberUnit);
+    }
+
+    public static URL getUrl(String key, String defaultValue) {
+        return CURRENT.get().getUrl(key, defaultValue);
+    }
+
+    /**
+     * Override a key for the rest of the run (a null value removes the override) by publishing a new snapshot.
+     * Returns false, leaving the configuration unchanged, when the value fails validation.
+     */
+    public static synchronized boolean set(String key, String value) {
+        String previous = value == null ? OVERRIDES.remove(key) : OVERRIDES.put(key, value);
+        if (swap(build(CURRENT.get().version() + 1, false), "set " + key)) {
+            return true;
+        }
+        if (previous == null) OVERRIDES.remove(key);
+        else OVERRIDES.put(key, previous);
+        return false;
+    }
+
+    /**
+     * Re-read every layer (files, environment, system properties) and publish the result if it is valid.
+     */
+    public static synchronized boolean reload() {
+        return swap(build(CURRENT.get().version() + 1, false), "reload");
+    }
+
+    private static boolean swap(ConfigSnapshot next, String reason) {
+        List<String> errors = next.validate(SCHEMA);
+        if (!errors.isEmpty()) {
+            System.out.println("[PropertyConfig] Rejected configuration (" + reason + "), keeping version " + CURRENT.get().version() + ":\n  "
+                    + String.join("\n  ", errors));
+            return false;
+        }
+        ConfigSnapshot previous = CURRENT.getAndSet(next);
+        Map<String, String> changed = new TreeMap<>();
+        for (Map.Entry<String, String> e : next.asMap().entrySet()) {
+            if (!Objects.equals(previous.asMap().get(e.getKey()), e.getValue())) {
+                changed.put(e.getKey(), ConfigSnapshot.printable(e.getKey(), e.getValue()));
+            }
+        }
+        for (String key : previous.asMap().keySet()) {
+            if (!next.asMap().containsKey(key)) changed.put(key, "<removed>");
+        }
+        System.out.println("[PropertyConfig] Configuration version " + next.version() + " (" + reason + ")" + (changed.isEmpty() ? "" : ": " + changed));
+        return true;
+    }
+
+    /**
+     * The effective configuration, one "key = value  (origin)" line per key, with secrets masked. JVM and tool system
+     * properties (java.*, os.*, maven.*, ...) are left out unless they override a configured key.
+     */
+    public static String describe() {
+        return describe(CURRENT.get(), profiles());
+    }
+
+    static String describe(ConfigSnapshot snapshot, List<String> profiles) {
+        StringBuilder sb = new StringBuilder("[PropertyConfig] Effective configuration (version ").append(snapshot.version())
+                .append(profiles.isEmpty() ? "" : ", profile " + String.join(",", profiles)).append("):");
+        for (Map.Entry<String, String> e : snapshot.asMap().entrySet()) {
+            String origin = snapshot.origin(e.getKey());
+            if (ORIGIN_SYSTEM.equals(origin) && !SCHEMA.containsKey(e.getKey()) && isRuntimeProperty(e.getKey())) continue;
+            sb.append(System.lineSeparator()).append("  ").append(e.getKey()).append(" = ")
+                    .append(ConfigSnapshot.printable(e.getKey(), e.getValue())).append("  (").append(origin).append(')');
+        }
+        return sb.toString();
+    }
 
+    // Layers, each overriding the ones before: classpath properties/*.properties, profile properties/<profile>/*.properties,
+    // environment variables, system properties, set(). A blank environment variable or system property is "not set" and
+    // leaves the lower layers' value in place, the same rule ConfigSnapshot.get applies to blank values.
+    private static ConfigSnapshot build(long version, boolean log) {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) cl = PropertyConfig.class.getClassLoader();
+        return build(version, log, cl, PROJECT_PROPS, profiles(), System.getenv(), System.getProperties(), OVERRIDES);
+    }
+
+    // The same merge from explicit sources, so tests can build a snapshot without touching the JVM-wide ones
+    static ConfigSnapshot build(long version, boolean log, ClassLoader cl, Path projectProps, List<String> profiles,
+                                Map<String, String> env, Properties system, Map<String, String> overrides) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> origins = new HashMap<>();
+        loadLayer(CLASSPATH_DIR, cl, projectProps, values, origins, log);
+        for (String profile : profiles) {
+            if (loadLayer(CLASSPATH_DIR + "/" + profile, cl, projectProps, values, origins, log) == 0 && log) {
+                System.out.println("[PropertyConfig] No properties found for profile '" + profile + "'");
+            }
+        }
+        applyEnvironment(env, values, origins);
+        for (String name : system.stringPropertyNames()) {
+            if (system.getProperty(name).trim().isEmpty()) continue;
+            values.put(name, system.getProperty(name));
+            origins.put(name, ORIGIN_SYSTEM);
+        }
+        for (Map.Entry<String, String> e : overrides.entrySet()) {
+            values.put(e.getKey(), e.getValue());
+            origins.put(e.getKey(), "set()");
+        }
+        return new ConfigSnapshot(values, origins, version);
+    }
+
+    // Files load in file-name order, so a key defined in two files of one layer always resolves to the later file
+    private static int loadLayer(String dir, ClassLoader cl, Path projectProps, Map<String, String> values, Map<String, String> origins, boolean log) {
+        Map<String, String> layer = new HashMap<>();
+        int loaded = 0;
+        for (Map.Entry<String, URL> file : layerFiles(dir, cl, projectProps).entrySet()) {
+            Properties props = new Properties();
+            String origin = originOf(file.getValue());
+            try (InputStream is = file.getValue().openStream()) {
+                props.load(is);
+            } catch (IOException e) {
+                System.err.println("[PropertyConfig] Failed to load " + origin + ": " + e.getMessage());
+                continue;
+            }
+            loaded++;
+            if (log) System.out.println("[PropertyConfig] Loaded " + file.getKey() + " from " + origin);
+            for (String name : props.stringPropertyNames()) {
+                String value = props.getProperty(name);
+                String earlier = layer.put(name, origin);
+                if (log && earlier != null && !Objects.equals(values.get(name), value)) {
+                    System.out.println("[PropertyConfig] " + name + " is defined in " + earlier + " and " + origin + "; using " + origin);
+                }
+                values.put(name, value);
+                origins.put(name, origin);
+            }
+        }
+        return loaded;
+    }
+
+    // File name -> location, sorted by name. Classpath copies come first (the first one on the classpath wins, as for
+    // any resource); a file of the same name in the project's source directory replaces it, so edits made in a checkout
+    // apply without a rebuild.
+    private static Map<String, URL> layerFiles(String dir, ClassLoader cl, Path projectProps) {
+        Map<String, URL> files = new TreeMap<>();
         try {
-            Path projectProps = Paths.get("src", "test", "resources", "properties");
-            if (Files.exists(projectProps) && Files.isDirectory(projectProps)) {
-                try (DirectoryStream<Path> ds = Files.newDirectoryStream(projectProps, "*.properties")) {
-                    for (Path p : ds) {
-                        String name = p.getFileName().toString();
-                        if (loaded.add(name)) {
-                            try (InputStream is = Files.newInputStream(p)) {
-                                PROPS.load(is);
-                                System.out.println("[PropertyConfig] Loaded " + name + " from project: " + p);
+            Enumeration<URL> roots = cl.getResources(dir);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("file".equals(root.getProtocol())) {
+                    for (Path p : listProperties(Paths.get(root.toURI()))) {
+                        files.putIfAbsent(p.getFileName().toString(), p.toUri().toURL());
+                    }
+                } else if ("jar".equals(root.getProtocol())) {
+                    JarURLConnection connection = (JarURLConnection) root.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        for (JarEntry entry : Collections.list(jar.entries())) {
+                            String name = entry.getName();
+                            if (name.startsWith(dir + "/") && name.endsWith(".properties") && name.indexOf('/', dir.length() + 1) < 0) {
+                                files.putIfAbsent(name.substring(dir.length() + 1), new URL("jar:" + connection.getJarFileURL() + "!/" + name));
                             }
                         }
                     }
                 }
             }
-        } catch (IOException e) {
-            System.err.println("[PropertyConfig] Failed to load properties from src/test/resources/properties: " + e.getMessage());
+            Path projectDir = projectProps.resolve(dir.substring(CLASSPATH_DIR.length()).replaceFirst("^/", ""));
+            for (Path p : listProperties(projectDir)) {
+                files.put(p.getFileName().toString(), p.toUri().toURL());
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("[PropertyConfig] Failed to list " + dir + "/*.properties: " + e.getMessage());
         }
+        return files;
     }
 
-    private PropertyConfig() { }
+    private static List<Path> listProperties(Path dir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.properties")) {
+            for (Path p : ds) out.add(p);
+        }
+        return out;
+    }
 
-    public static String get(String key, String defaultValue) {
-        String v = System.getProperty(key);
-        if (v != null) return v;
-        v = PROPS.getProperty(key);
-        return v != null ? v : defaultValue;
+    private static String originOf(URL url) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                Path p = Paths.get(url.toURI());
+                Path cwd = Paths.get("").toAbsolutePath();
+                return p.startsWith(cwd) ? cwd.relativize(p).toString() : p.toString();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return url.toString();
+            }
+        }
+        String s = url.toString();
+        int bang = s.indexOf("!/");
+        return bang < 0 ? s : s.substring(s.lastIndexOf('/', bang) + 1);
+    }
+
+    // Relaxed binding: an environment variable sets a key from the files or the schema when the two match ignoring
+    // case and separators, e.g. WEB_POOL_SIZE -> web.pool.size, SAUCE_ACCESS_KEY -> sauce.accessKey.
+    // Unrelated variables (PATH, HOME, ...) never enter the configuration.
+    private static void applyEnvironment(Map<String, String> env, Map<String, String> values, Map<String, String> origins) {
+        Map<String, String> byRelaxedName = new HashMap<>();
+        for (Map.Entry<String, String> e : env.entrySet()) {
+            byRelaxedName.put(relaxed(e.getKey()), e.getKey());
+        }
+        Set<String> keys = new TreeSet<>(values.keySet());
+        keys.addAll(SCHEMA.keySet());
+        for (String key : keys) {
+            String variable = byRelaxedName.get(relaxed(key));
+            if (variable == null || env.get(variable).trim().isEmpty()) continue;
+            values.put(key, env.get(variable));
+            origins.put(key, "env " + variable);
+        }
+    }
+
+    private static String relaxed(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+    // -Dprofile=ci or -Dprofile=ci,docker; later profiles override earlier ones
+    private static List<String> profiles() {
+        List<String> out = new ArrayList<>();
+        for (String p : System.getProperty("profile", "").split(",")) {
+            if (!p.trim().isEmpty()) out.add(p.trim());
+        }
+        return out;
+    }
+
+    private static boolean isRuntimeProperty(String key) {
+        for (String prefix : RUNTIME_PREFIXES) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    // Reloads shortly after the last change in properties/ (or an active profile's directory), so an editor's save
+    // sequence results in a single reload
+    private static void startWatcher() {
+        if (!Files.isDirectory(PROJECT_PROPS)) return;
+        Thread t = new Thread(() -> {
+            try (WatchService watcher = PROJECT_PROPS.getFileSystem().newWatchService()) {
+                PROJECT_PROPS.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                for (String profile : profiles()) {
+                    Path dir = PROJECT_PROPS.resolve(profile);
+                    if (Files.isDirectory(dir)) {
+                        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                                StandardWatchEventKinds.ENTRY_DELETE);
+                    }
+                }
+                while (true) {
+                    WatchKey key = watcher.take();
+                    do {
+                        key.pollEvents();
+                        key.reset();
+                        key = watcher.poll(250, TimeUnit.MILLISECONDS);
+                    } while (key != null);
+                    reload();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.out.println("[PropertyConfig] Config watcher stopped: " + e.getMessage());
+            }
+        }, "config-watcher");
+        t.setDaemon(true);
+        t.start();
+        System.out.println("[PropertyConfig] Watching " + PROJECT_PROPS + " for changes");
     }
 }
@@ -0,0 +1,429 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Chromium (Chrome/Edge) user-data-dirs cloned from a pre-initialized template instead of starting from an empty directory.
+ * Behavior:
+ *  - The template is created once per browser by launching it against an empty profile and quitting, so first-run
+ *    initialization is paid once. It lives under browser.profile.root and is reused by later JVMs until it is older
+ *    than browser.profile.templateMaxAgeHours.
+ *  - Templates are immutable, versioned directories (<browser>-template-<millis>.<pid>). The pointer file
+ *    <browser>-template.current names the one new sessions use; a rebuilt template is published by replacing the
+ *    pointer atomically, so JVMs still cloning the previous version are not affected.
+ *  - Every JVM registers itself as a user of the template it resolved (.template-users/<template>/<pid>). Templates
+ *    that are no longer current are deleted once no live process uses them. Lookups, publishing and collection hold
+ *    the file lock .template.lock, so a template is never collected between being resolved and being registered.
+ *  - Each session gets its own clone: a copy-on-write reflink (cp --reflink on Linux, cp -c on macOS) where the
+ *    filesystem supports it, otherwise a parallel file copy. Hardlinks are not used because Chromium updates its
+ *    SQLite/LevelDB files in place, which would write through to the template.
+ *  - Clones are deleted in the background when their session quits, on JVM shutdown, and (for clones left behind by
+ *    JVMs that no longer run) on first use.
+ *  - When building a template fails, its partial directory is deleted and the browser gets empty profiles for the rest
+ *    of the JVM; the launch is not retried for every session.
+ * Disabled with -Dbrowser.profile.template=false, in which case each session still gets its own fresh, cleaned-up directory.
+ */
+final class BrowserProfileManager {
+
+    private static final Path ROOT = Paths.get(PropertyConfig.get("browser.profile.root",
+            Paths.get(System.getProperty("java.io.tmpdir"), "framework-profiles").toString()));
+    private static final long PID = ProcessHandle.current().pid();
+    private static final String TEMPLATE_INFIX = "-template";
+    private static final String POINTER_SUFFIX = "-template.current";
+    private static final String READY_MARKER = ".template-ready";
+    private static final String TRASH_PREFIX = ".trash-";
+    private static final Path USERS = ROOT.resolve(".template-users");
+    private static final Path LOCK_FILE = ROOT.resolve(".template.lock");
+    // FileLock is held per JVM, so threads of this JVM serialize on the monitor first
+    private static final Object LOCK = new Object();
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+    private static final Map<String, Path> TEMPLATES = new ConcurrentHashMap<>();
+    // Cached in TEMPLATES for a browser whose template could not be built
+    private static final Path NO_TEMPLATE = Paths.get("");
+    private static final Set<Path> CLONES = ConcurrentHashMap.newKeySet();
+    // User registrations of this JVM, removed on shutdown
+    private static final Set<Path> REGISTERED = ConcurrentHashMap.newKeySet();
+    // Identity map: Healenium wraps drivers in proxies whose equals/hashCode are not safe to rely on
+    private static final Map<WebDriver, Path> BY_DRIVER = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final AtomicLong CLONE_COUNT = new AtomicLong();
+    private static final AtomicLong CLONE_NANOS = new AtomicLong();
+    private static volatile Boolean reflink;
+
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(2, PropertyConfig.getInt("browser.profile.copyThreads", Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "browser-profile-worker");
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        WORKERS.submit(() -> {
+            sweepOrphans();
+            collectTemplates();
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Path clone : CLONES) deleteQuietly(clone);
+            for (Path registration : REGISTERED) {
+                try { Files.deleteIfExists(registration); } catch (IOException ignored) { }
+            }
+            if (CLONE_COUNT.get() > 0) {
+                System.out.println("[BrowserProfileManager] " + CLONE_COUNT.get() + " profile clone(s), avg "
+                        + CLONE_NANOS.get() / CLONE_COUNT.get() / 1_000_000 + " ms (" + (Boolean.TRUE.equals(reflink) ? "reflink" : "copy") + ")");
+            }
+        }, "browser-profile-cleanup"));
+    }
+
+    private BrowserProfileManager() { }
+
+    /**
+     * A fresh user-data-dir for one session of the browser, cloned from the template when templates are enabled.
+     *
+     * @param launcher starts the browser against a given profile directory; used once to build the template
+     */
+    static Path newProfile(String browser, Function<Path, WebDriver> launcher) {
+        String b = browser.toLowerCase();
+        Path clone = ROOT.resolve(b + "-" + PID + "-" + SEQ.incrementAndGet());
+        CLONES.add(clone);
+        try {
+            Path template = templateFor(b, launcher);
+            long started = System.nanoTime();
+            if (template != null) {
+                copyTree(template, clone);
+                CLONE_NANOS.addAndGet(System.nanoTime() - started);
+                CLONE_COUNT.incrementAndGet();
+            } else {
+                Files.createDirectories(clone);
+            }
+        } catch (Exception e) {
+            // Never block a session on the optimization: fall back to an empty profile
+            System.out.println("[BrowserProfileManager] Could not clone " + b + " profile (" + e.getMessage() + "); using an empty one");
+            deleteQuietly(clone);
+            try {
+                Files.createDirectories(clone);
+            } catch (IOException ignored) { }
+        }
+        return clone;
+    }
+
+    // Build the template ahead of the first session (no-op when templates are disabled or it already exists)
+    static void prepare(String browser, Function<Path, WebDriver> launcher) {
+        templateFor(browser.toLowerCase(), launcher);
+    }
+
+    // Tie a profile to the session using it, so it is removed when the session quits
+    static void attach(WebDriver wd, Path profile) {
+        BY_DRIVER.put(wd, profile);
+    }
+
+    // The session object changed (e.g. wrapped by Healenium); keep tracking the profile under the new one
+    static void rebind(WebDriver from, WebDriver to) {
+        if (from == to) return;
+        Path profile = BY_DRIVER.remove(from);
+        if (profile != null) BY_DRIVER.put(to, profile);
+    }
+
+    // Delete the session's profile in the background; call after the browser has quit
+    static void release(WebDriver wd) {
+        Path profile = BY_DRIVER.remove(wd);
+        if (profile != null) discard(profile);
+    }
+
+    static void discard(Path profile) {
+        WORKERS.submit(() -> {
+            deleteQuietly(profile);
+            CLONES.remove(profile);
+        });
+    }
+
+    // The browser's template, or null when templates are disabled or building one failed earlier in this JVM
+    private static Path templateFor(String browser, Function<Path, WebDriver> launcher) {
+        if (!PropertyConfig.getBoolean("browser.profile.template", true)) return null;
+        Path template = TEMPLATES.computeIfAbsent(browser, key -> {
+            try {
+                return template(key, launcher);
+            } catch (IllegalStateException e) {
+                System.out.println("[BrowserProfileManager] " + e.getMessage() + "; " + key + " sessions use empty profiles for the rest of this run");
+                return NO_TEMPLATE;
+            }
+        });
+        return template == NO_TEMPLATE ? null : template;
+    }
+
+    private static Path template(String browser, Function<Path, WebDriver> launcher) {
+        long maxAgeMs = TimeUnit.HOURS.toMillis(PropertyConfig.getLong("browser.profile.templateMaxAgeHours", 168));
+        Path template = null;
+        boolean published = false;
+        try {
+            Path current = withLock(() -> useCurrent(browser, maxAgeMs));
+            if (current != null) {
+                return current;
+            }
+            // Build a new version under its own name; nobody sees it until the pointer names it
+            template = ROOT.resolve(browser + TEMPLATE_INFIX + "-" + System.currentTimeMillis() + "." + PID);
+            Files.createDirectories(template);
+            long started = System.nanoTime();
+            WebDriver wd = launcher.apply(template);
+            try {
+                wd.get("about:blank");
+            } finally {
+                wd.quit();
+            }
+            removeLocks(template);
+            Files.createFile(template.resolve(READY_MARKER));
+            Path built = template;
+            withLock(() -> {
+                register(built);
+                publish(browser, built);
+                return null;
+            });
+            published = true;
+            System.out.println("[BrowserProfileManager] Built " + browser + " profile template in " + (System.nanoTime() - started) / 1_000_000 + " ms: " + template);
+            WORKERS.submit(BrowserProfileManager::collectTemplates);
+            return template;
+        } catch (Exception e) {
+            // A half-built version is never published; remove it rather than leave it for the next collection
+            if (template != null && !published) {
+                Path registration = USERS.resolve(template.getFileName().toString()).resolve(String.valueOf(PID));
+                REGISTERED.remove(registration);
+                deleteQuietly(registration.getParent());
+                deleteQuietly(template);
+            }
+            throw new IllegalStateException("could not build " + browser + " profile template: " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> T withLock(Callable<T> body) throws Exception {
+        synchronized (LOCK) {
+            Files.createDirectories(ROOT);
+            try (FileChannel channel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return body.call();
+            }
+        }
+    }
+
+    // Under the lock: the current template when it is ready and not expired, registered as used by this JVM
+    private static Path useCurrent(String browser, long maxAgeMs) throws IOException {
+        Path pointer = ROOT.resolve(browser + POINTER_SUFFIX);
+        if (!Files.exists(pointer)) return null;
+        String name = Files.readString(pointer, StandardCharsets.UTF_8).trim();
+        if (name.isEmpty() || name.contains("/") || name.contains("\\")) return null;
+        Path template = ROOT.resolve(name);
+        Path marker = template.resolve(READY_MARKER);
+        if (!Files.exists(marker) || System.currentTimeMillis() - Files.getLastModifiedTime(marker).toMillis() >= maxAgeMs) {
+            return null;
+        }
+        register(template);
+        return template;
+    }
+
+    private static void register(Path template) throws IOException {
+        Path registration = USERS.resolve(template.getFileName().toString()).resolve(String.valueOf(PID));
+        Files.createDirectories(registration.getParent());
+        if (!Files.exists(registration)) Files.createFile(registration);
+        REGISTERED.add(registration);
+    }
+
+    // Under the lock: point new sessions at the template; the pointer is replaced in one rename, never rewritten in place
+    private static void publish(String browser, Path template) throws IOException {
+        Path tmp = Files.createTempFile(ROOT, browser + POINTER_SUFFIX, ".tmp");
+        try {
+            Files.writeString(tmp, template.getFileName().toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, ROOT.resolve(browser + POINTER_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Delete templates that no pointer names and no live process uses, including unversioned templates of older
+     * releases and versions whose builder died before finishing. A version still being built (no ready marker,
+     * builder alive) is kept. Each one is renamed away under the lock and deleted after it.
+     */
+    private static void collectTemplates() {
+        if (!Files.isDirectory(ROOT)) return;
+        List<Path> trash = new ArrayList<>();
+        try {
+            withLock(() -> {
+                Set<String> current = new HashSet<>();
+                try (Stream<Path> entries = Files.list(ROOT)) {
+                    for (Path p : (Iterable<Path>) entries::iterator) {
+                        String name = p.getFileName().toString();
+                        if (name.endsWith(POINTER_SUFFIX)) current.add(Files.readString(p, StandardCharsets.UTF_8).trim());
+                        if (name.startsWith(TRASH_PREFIX)) trash.add(p);
+                    }
+                }
+                try (Stream<Path> entries = Files.list(ROOT)) {
+                    for (Path dir : (Iterable<Path>) entries::iterator) {
+                        String name = dir.getFileName().toString();
+                        if (!Files.isDirectory(dir) || name.startsWith(".") || !name.contains(TEMPLATE_INFIX) || current.contains(name)) continue;
+                        if (inUse(name)) continue;
+                        if (!Files.exists(dir.resolve(READY_MARKER)) && builderAlive(name)) continue;
+                        Path moved = ROOT.resolve(TRASH_PREFIX + name);
+                        deleteQuietly(moved);
+                        Files.move(dir, moved, StandardCopyOption.ATOMIC_MOVE);
+                        trash.add(moved);
+                        deleteQuietly(USERS.resolve(name));
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            System.out.println("[BrowserProfileManager] Could not collect old profile templates: " + e.getMessage());
+        }
+        for (Path dir : trash) deleteQuietly(dir);
+    }
+
+    private static boolean inUse(String template) throws IOException {
+        Path users = USERS.resolve(template);
+        if (!Files.isDirectory(users)) return false;
+        try (Stream<Path> pids = Files.list(users)) {
+            return pids.anyMatch(p -> {
+                try {
+                    long pid = Long.parseLong(p.getFileName().toString());
+                    return pid == PID || ProcessHandle.of(pid).isPresent();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    // Versioned names end in .<pid> of the JVM that built them
+    private static boolean builderAlive(String template) {
+        int dot = template.lastIndexOf('.');
+        if (dot < 0) return false;
+        try {
+            long pid = Long.parseLong(template.substring(dot + 1));
+            return pid == PID || ProcessHandle.of(pid).isPresent();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Chromium refuses to open a profile that still carries another instance's singleton lock
+    private static void removeLocks(Path profile) throws IOException {
+        try (Stream<Path> files = Files.list(profile)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                if (p.getFileName().toString().startsWith("Singleton")) Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static void copyTree(Path from, Path to) throws Exception {
+        if (!Boolean.FALSE.equals(reflink)) {
+            boolean ok = reflinkCopy(from, to);
+            if (reflink == null) {
+                reflink = ok;
+                System.out.println("[BrowserProfileManager] Copy-on-write clones " + (ok ? "supported" : "not supported; using parallel copy") + " under " + ROOT);
+            }
+            if (ok) return;
+            deleteQuietly(to);
+        }
+        parallelCopy(from, to);
+    }
+
+    private static boolean reflinkCopy(Path from, Path to) {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        List<String> cmd;
+        if (os.contains("linux")) {
+            cmd = List.of("cp", "-R", "--reflink=always", from.toString(), to.toString());
+        } else if (os.contains("mac")) {
+            cmd = List.of("cp", "-c", "-R", from.toString(), to.toString());
+        } else {
+            return false;
+        }
+        try {
+            Process p = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            return p.waitFor(60, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Directories are created on the caller, files are copied on the worker pool
+    private static void parallelCopy(Path from, Path to) throws Exception {
+        List<Future<?>> copies = new ArrayList<>();
+        Files.walkFileTree(from, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(to.resolve(from.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path target = to.resolve(from.relativize(file).toString());
+                copies.add(WORKERS.submit(() -> {
+                    Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+                    return null;
+                }));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        for (Future<?> f : copies) {
+            f.get();
+        }
+    }
+
+    // Clones named <browser>-<pid>-<n> whose JVM is gone
+    private static void sweepOrphans() {
+        if (!Files.isDirectory(ROOT)) return;
+        try (Stream<Path> dirs = Files.list(ROOT)) {
+            dirs.forEach(dir -> {
+                String[] parts = dir.getFileName().toString().split("-");
+                if (parts.length < 3) return;
+                try {
+                    long pid = Long.parseLong(parts[parts.length - 2]);
+                    if (pid != PID && ProcessHandle.of(pid).isEmpty()) deleteQuietly(dir);
+                } catch (NumberFormatException notAClone) {
+                    // template or unrelated directory
+                }
+            });
+        } catch (IOException ignored) { }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try { Files.deleteIfExists(p); } catch (IOException ignored) { }
+            });
+        } catch (IOException ignored) { }
+    }
+}
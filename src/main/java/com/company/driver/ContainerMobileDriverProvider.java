@@ -0,0 +1,37 @@
+package com.company.driver;
+
+import com.company.config.MobileCapabilityFactory;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.URL;
+
+/**
+ * Appium server running in a container next to the emulator.
+ */
+public class ContainerMobileDriverProvider implements DriverProvider {
+
+    private static final String APPIUM_URL = "http://docker-host:4723/wd/hub";
+
+    @Override
+    public String type() {
+        return "mobile";
+    }
+
+    @Override
+    public String environment() {
+        return "container";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) throws Exception {
+        DesiredCapabilities caps = MobileCapabilityFactory.getContainerCapabilities(request.platform(), "web");
+        return new AppiumDriver(new URL(APPIUM_URL), caps);
+    }
+
+    @Override
+    public void diagnose(DriverRequest request, Throwable failure) {
+        RemoteStatus.logAppium("[ContainerMobileDriverProvider]", APPIUM_URL.replaceFirst("/wd/hub/?$", ""), failure);
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+/**
+ * Remote WebDriver against a Selenium Grid / browser container (web.remote.url).
+ */
+public class ContainerWebDriverProvider implements DriverProvider {
+
+    @Override
+    public String type() {
+        return "web";
+    }
+
+    @Override
+    public String environment() {
+        return "container";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) throws Exception {
+        String remote = PropertyConfig.get("web.remote.url", "http://docker-host:4444/wd/hub");
+        DesiredCapabilities caps = new DesiredCapabilities();
+        caps.setCapability("browserName", request.browser());
+        String version = PropertyConfig.get("web.browserVersion", "");
+        if (version != null && !version.isEmpty()) caps.setCapability("browserVersion", version);
+        // Accept additional capabilities via properties if needed
+        return new RemoteWebDriver(new URL(remote), caps);
+    }
+
+    @Override
+    public void diagnose(DriverRequest request, Throwable failure) {
+        String remote = PropertyConfig.get("web.remote.url", "http://docker-host:4444/wd/hub");
+        System.out.println("[ContainerWebDriverProvider] Failed to create " + request.browser() + " session at " + remote + ": " + failure.getMessage());
+        System.out.println("[ContainerWebDriverProvider] Grid /status: " + RemoteStatus.fetch(RemoteStatus.resolve(remote.replaceFirst("/wd/hub/?$", ""), "status"), 2000));
+    }
+}
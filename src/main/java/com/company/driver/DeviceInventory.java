@@ -0,0 +1,179 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached view of the adb-connected Android devices and the Chrome version installed on each.
+ * Behavior:
+ *  - The first call scans synchronously; afterwards a daemon thread rescans every mobile.inventory.refreshSeconds and
+ *    readers only see the latest immutable snapshot, so session creation never waits on adb.
+ *  - The Chrome version of a device is queried once, when the device first shows up (or comes back after a disconnect).
+ *  - The adb binary is mobile.adb.path (default: adb on PATH), which also allows pointing tests at a fake adb script.
+ *  - Every adb call is bounded by mobile.adb.timeoutSeconds; a call that hangs is killed and treated as empty output.
+ */
+final class DeviceInventory {
+
+    static final class Device {
+        final String serial;
+        final String state;
+        final String chromeVersion;
+
+        Device(String serial, String state, String chromeVersion) {
+            this.serial = serial;
+            this.state = state;
+            this.chromeVersion = chromeVersion;
+        }
+
+        boolean isReady() {
+            return "device".equals(state);
+        }
+
+        String chromeMajor() {
+            return chromeVersion == null ? null : chromeVersion.split("\\.")[0];
+        }
+
+        @Override
+        public String toString() {
+            return serial + " (" + state + (chromeVersion != null ? ", Chrome " + chromeVersion : "") + ")";
+        }
+    }
+
+    private static volatile Map<String, Device> snapshot;
+    private static final Object SCAN_LOCK = new Object();
+    private static volatile ScheduledExecutorService refresher;
+
+    private DeviceInventory() { }
+
+    // Devices in the "device" state, in adb order
+    static List<Device> readyDevices() {
+        List<Device> ready = new ArrayList<>();
+        for (Device d : devices().values()) {
+            if (d.isReady()) ready.add(d);
+        }
+        return ready;
+    }
+
+    static Map<String, Device> devices() {
+        Map<String, Device> current = snapshot;
+        if (current == null) {
+            synchronized (SCAN_LOCK) {
+                if (snapshot == null) {
+                    refreshNow();
+                    startRefresher();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // Rescan immediately, e.g. after a session failed on a device that may have gone away
+    static Map<String, Device> refreshNow() {
+        synchronized (SCAN_LOCK) {
+            Map<String, Device> previous = snapshot == null ? Collections.emptyMap() : snapshot;
+            Map<String, Device> next = new LinkedHashMap<>();
+            for (String[] entry : listDevices()) {
+                String serial = entry[0];
+                String state = entry[1];
+                Device known = previous.get(serial);
+                String chrome = known != null && known.isReady() && known.chromeVersion != null ? known.chromeVersion
+                        : "device".equals(state) ? chromeVersion(serial) : null;
+                next.put(serial, new Device(serial, state, chrome));
+            }
+            if (!next.keySet().equals(previous.keySet()) || snapshot == null) {
+                System.out.println("[DeviceInventory] Devices: " + next.values());
+            }
+            snapshot = Collections.unmodifiableMap(next);
+            return snapshot;
+        }
+    }
+
+    private static void startRefresher() {
+        long seconds = PropertyConfig.getLong("mobile.inventory.refreshSeconds", 30);
+        if (seconds <= 0 || refresher != null) return;
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "device-inventory");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refreshNow();
+            } catch (Throwable t) {
+                System.out.println("[DeviceInventory] Refresh failed: " + t.getMessage());
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    // "adb devices": serial and state for every listed device
+    private static List<String[]> listDevices() {
+        List<String[]> out = new ArrayList<>();
+        List<String> lines = adb("devices");
+        boolean headerSkipped = false;
+        for (String line : lines) {
+            line = line.trim();
+            if (!headerSkipped) {
+                if (line.startsWith("List of devices")) headerSkipped = true;
+                continue;
+            }
+            if (line.isEmpty() || line.startsWith("*")) continue;
+            String[] parts = line.split("\\s+");
+            if (parts.length >= 2) out.add(new String[]{parts[0], parts[1]});
+        }
+        return out;
+    }
+
+    // Version of com.android.chrome on the device, or null
+    private static String chromeVersion(String serial) {
+        for (String line : adb("-s", serial, "shell", "dumpsys", "package", "com.android.chrome")) {
+            line = line.trim();
+            // Look for lines like "versionName=103.0.5060.70"
+            int idx = line.indexOf("versionName=");
+            if (idx >= 0) {
+                String v = line.substring(idx + "versionName=".length()).trim();
+                if (!v.isEmpty()) return v.split("\\s")[0];
+            }
+        }
+        return null;
+    }
+
+    // Output goes to a temp file rather than a pipe, so a hung adb cannot block the read: the timeout always applies
+    private static List<String> adb(String... args) {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(PropertyConfig.get("mobile.adb.path", "adb"));
+        Collections.addAll(cmd, args);
+        long timeoutSeconds = PropertyConfig.getLong("mobile.adb.timeoutSeconds", 10);
+        Path out = null;
+        try {
+            out = Files.createTempFile("adb", ".out");
+            Process p = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(out.toFile()).start();
+            if (!p.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                p.descendants().forEach(ProcessHandle::destroyForcibly);
+                p.destroyForcibly();
+                System.out.println("[DeviceInventory] Killed 'adb " + String.join(" ", args) + "' after " + timeoutSeconds + " s");
+                return new ArrayList<>();
+            }
+            return Files.readAllLines(out, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            // adb missing or failing: behave as if no devices are connected
+            return new ArrayList<>();
+        } finally {
+            if (out != null) {
+                try { Files.deleteIfExists(out); } catch (IOException ignored) { }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out exclusive use of the adb-connected devices to concurrent mobile sessions.
+ * Behavior:
+ *  - Every ready device from DeviceInventory can be leased by one session at a time; further sessions wait up to
+ *    mobile.pool.leaseTimeoutSeconds for a device to be released.
+ *  - Each device gets a stable slot number (in discovery order) that fixes its ports: systemPort = mobile.pool.systemPortBase + slot,
+ *    chromedriverPort = mobile.pool.chromedriverPortBase + slot, so parallel UiAutomator2/chromedriver instances never collide.
+ *  - Sessions go to the Appium servers in mobile.appium.servers (slot modulo count), or to appium.server when unset.
+ *  - A thread gets its previous device back when it is free, which keeps app and chromedriver state warm.
+ * Enabled with -Dmobile.pool.enabled=true (see mobile.properties).
+ */
+final class DevicePool {
+
+    static final class Lease {
+        final DeviceInventory.Device device;
+        final int systemPort;
+        final int chromedriverPort;
+        final String appiumUrl;
+
+        Lease(DeviceInventory.Device device, int slot) {
+            this.device = device;
+            this.systemPort = PropertyConfig.getInt("mobile.pool.systemPortBase", 8200) + slot;
+            this.chromedriverPort = PropertyConfig.getInt("mobile.pool.chromedriverPortBase", 9515) + slot;
+            this.appiumUrl = appiumServer(slot);
+        }
+
+        @Override
+        public String toString() {
+            return device.serial + " (systemPort=" + systemPort + ", chromedriverPort=" + chromedriverPort + ", appium=" + appiumUrl + ")";
+        }
+    }
+
+    private static final Object LOCK = new Object();
+    // Guarded by LOCK
+    private static final Map<String, Lease> LEASED = new HashMap<>();
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+    private static final Map<WebDriver, Lease> BY_DRIVER = new IdentityHashMap<>();
+    private static final ThreadLocal<String> LAST_DEVICE = new ThreadLocal<>();
+
+    private DevicePool() { }
+
+    static boolean isEnabled() {
+        return PropertyConfig.getBoolean("mobile.pool.enabled", false);
+    }
+
+    static Lease acquire() throws InterruptedException {
+        long timeoutMs = TimeUnit.SECONDS.toMillis(PropertyConfig.getLong("mobile.pool.leaseTimeoutSeconds", 300));
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        // The first inventory read scans adb synchronously; do it before taking LOCK so release()/describe() never
+        // wait on adb. Later reads only see the cached snapshot.
+        DeviceInventory.readyDevices();
+        synchronized (LOCK) {
+            while (true) {
+                Lease lease = tryAcquire();
+                if (lease != null) {
+                    LAST_DEVICE.set(lease.device.serial);
+                    return lease;
+                }
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    throw new IllegalStateException("Timed out after " + timeoutMs + " ms waiting for a free device; leased: "
+                            + LEASED.values() + ", ready: " + DeviceInventory.readyDevices());
+                }
+                // Woken by release(); the timeout also picks up devices connected in the meantime
+                LOCK.wait(Math.min(left, 1000));
+            }
+        }
+    }
+
+    // Tie the lease to the session so quitting the session frees the device
+    static void attach(WebDriver wd, Lease lease) {
+        synchronized (LOCK) {
+            BY_DRIVER.put(wd, lease);
+        }
+    }
+
+    static void release(WebDriver wd) {
+        synchronized (LOCK) {
+            Lease lease = BY_DRIVER.remove(wd);
+            if (lease != null) release(lease);
+        }
+    }
+
+    static void release(Lease lease) {
+        synchronized (LOCK) {
+            if (LEASED.remove(lease.device.serial, lease)) {
+                LOCK.notifyAll();
+            }
+        }
+    }
+
+    static String describe() {
+        List<DeviceInventory.Device> ready = DeviceInventory.readyDevices();
+        synchronized (LOCK) {
+            return "leased=" + LEASED.values() + ", ready=" + ready;
+        }
+    }
+
+    // Caller holds LOCK
+    private static Lease tryAcquire() {
+        List<DeviceInventory.Device> free = new ArrayList<>();
+        for (DeviceInventory.Device d : DeviceInventory.readyDevices()) {
+            if (!LEASED.containsKey(d.serial)) free.add(d);
+        }
+        if (free.isEmpty()) return null;
+        DeviceInventory.Device chosen = free.get(0);
+        String last = LAST_DEVICE.get();
+        for (DeviceInventory.Device d : free) {
+            if (d.serial.equals(last)) {
+                chosen = d;
+                break;
+            }
+        }
+        int slot = SLOTS.computeIfAbsent(chosen.serial, s -> SLOTS.size());
+        Lease lease = new Lease(chosen, slot);
+        LEASED.put(chosen.serial, lease);
+        return lease;
+    }
+
+    private static String appiumServer(int slot) {
+        String servers = PropertyConfig.get("mobile.appium.servers", "");
+        List<String> urls = new ArrayList<>();
+        if (servers != null) {
+            for (String s : servers.split(",")) {
+                if (!s.trim().isEmpty()) urls.add(s.trim());
+            }
+        }
+        if (urls.isEmpty()) {
+            return PropertyConfig.get("appium.server", "http://127.0.0.1:4723");
+        }
+        return urls.get(slot % urls.size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves local driver binaries (chromedriver, geckodriver, msedgedriver) once per browser/version and remembers them.
+ * Behavior:
+ *  - Within a JVM each browser/version pair is resolved at most once; later sessions only set the webdriver.*.driver property.
+ *  - Resolved paths are saved to a manifest (driver.manifest.path) so later JVMs skip WebDriverManager entirely.
+ *  - Manifest entries older than driver.manifest.maxAgeHours are re-resolved; when that fails (e.g. offline) the old
+ *    binary is used as long as it still exists.
+ *  - invalidate() drops an entry, e.g. when the browser was updated and the cached driver no longer starts a session.
+ */
+final class DriverBinaryResolver {
+
+    private static final Map<String, Path> RESOLVED = new ConcurrentHashMap<>();
+    private static final Object MANIFEST_LOCK = new Object();
+
+    private DriverBinaryResolver() { }
+
+    /**
+     * Make the driver binary for the browser available to Selenium and return its path.
+     *
+     * @param version browser version to match; empty for the installed browser
+     */
+    static Path resolve(String browser, String version) {
+        String b = normalize(browser);
+        String v = version == null ? "" : version.trim();
+        Path driver = RESOLVED.computeIfAbsent(b + "|" + v, key -> load(key, b, v));
+        System.setProperty(systemProperty(b), driver.toString());
+        return driver;
+    }
+
+    static void invalidate(String browser, String version) {
+        String key = normalize(browser) + "|" + (version == null ? "" : version.trim());
+        RESOLVED.remove(key);
+        synchronized (MANIFEST_LOCK) {
+            Properties manifest = readManifest();
+            if (manifest.remove(key + ".path") != null) {
+                manifest.remove(key + ".resolvedAt");
+                writeManifest(manifest);
+            }
+        }
+        System.out.println("[DriverBinaryResolver] Dropped cached driver for " + key);
+    }
+
+    // A hand-edited or torn manifest must not stop sessions from starting: unusable entries count as missing or stale
+    private static Path cachedPath(String value) {
+        if (value == null) return null;
+        try {
+            Path path = Paths.get(value.trim());
+            return Files.isExecutable(path) ? path : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static long resolvedAt(String value) {
+        if (value == null) return 0;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Path load(String key, String browser, String version) {
+        Properties manifest;
+        synchronized (MANIFEST_LOCK) {
+            manifest = readManifest();
+        }
+        Path cached = cachedPath(manifest.getProperty(key + ".path"));
+        long resolvedAt = resolvedAt(manifest.getProperty(key + ".resolvedAt"));
+        long maxAgeMs = TimeUnit.HOURS.toMillis(PropertyConfig.getLong("driver.manifest.maxAgeHours", 24));
+
+        if (cached != null && System.currentTimeMillis() - resolvedAt < maxAgeMs) {
+            System.out.println("[DriverBinaryResolver] Using " + cached + " for " + key + " from manifest");
+            return cached;
+        }
+        try {
+            long started = System.nanoTime();
+            Path resolved = resolveWithWebDriverManager(browser, version);
+            System.out.println("[DriverBinaryResolver] Resolved " + resolved + " for " + key + " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+            synchronized (MANIFEST_LOCK) {
+                // Re-read so entries written by other JVMs in the meantime are kept
+                Properties latest = readManifest();
+                latest.setProperty(key + ".path", resolved.toString());
+                latest.setProperty(key + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+                writeManifest(latest);
+            }
+            return resolved;
+        } catch (RuntimeException e) {
+            if (cached != null) {
+                System.out.println("[DriverBinaryResolver] Could not refresh " + key + " (" + e.getMessage() + "); using stale manifest entry " + cached);
+                return cached;
+            }
+            throw e;
+        }
+    }
+
+    private static Path resolveWithWebDriverManager(String browser, String version) {
+        WebDriverManager wdm = switch (browser) {
+            case "firefox" -> WebDriverManager.firefoxdriver();
+            case "edge" -> WebDriverManager.edgedriver();
+            default -> WebDriverManager.chromedriver();
+        };
+        if (!version.isEmpty()) wdm.browserVersion(version);
+        wdm.setup();
+        String path = wdm.getDownloadedDriverPath();
+        if (path == null || path.isEmpty()) {
+            throw new IllegalStateException("WebDriverManager did not report a driver path for " + browser);
+        }
+        return Paths.get(path).toAbsolutePath();
+    }
+
+    private static String normalize(String browser) {
+        String b = browser == null ? "" : browser.toLowerCase();
+        return b.equals("firefox") || b.equals("edge") ? b : "chrome";
+    }
+
+    private static String systemProperty(String browser) {
+        return switch (browser) {
+            case "firefox" -> "webdriver.gecko.driver";
+            case "edge" -> "webdriver.edge.driver";
+            default -> "webdriver.chrome.driver";
+        };
+    }
+
+    private static Path manifestPath() {
+        String configured = PropertyConfig.get("driver.manifest.path", "");
+        if (configured != null && !configured.isEmpty()) return Paths.get(configured);
+        return Paths.get(System.getProperty("user.home"), ".cache", "framework", "driver-manifest.properties");
+    }
+
+    private static Properties readManifest() {
+        Properties props = new Properties();
+        Path file = manifestPath();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.out.println("[DriverBinaryResolver] Ignoring unreadable manifest " + file + ": " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    // Temporary file plus atomic move, so a JVM reading concurrently never sees a half-written manifest
+    private static void writeManifest(Properties props) {
+        Path file = manifestPath();
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "driver-manifest", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "Resolved driver binaries (DriverBinaryResolver)");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("[DriverBinaryResolver] Could not write manifest " + file + ": " + e.getMessage());
+        }
+    }
+}
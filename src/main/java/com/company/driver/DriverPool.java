@@ -0,0 +1,232 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of pre-launched web sessions, keyed by environment/browser/headless.
+ * Behavior:
+ *  - The first lease for a key launches web.pool.size sessions in the background; scenarios lease them instead of starting a browser.
+ *  - On release a session is reset (extra windows closed, storage and cookies cleared, about:blank) off the scenario thread.
+ *  - Sessions failing the health check or the reset are quit and replaced in the background.
+ * Enabled with -Dweb.pool.enabled=true (see web.properties).
+ */
+public class DriverPool {
+
+    @FunctionalInterface
+    public interface SessionFactory {
+        WebDriver create() throws Exception;
+    }
+
+    private static final Map<String, KeyPool> POOLS = new ConcurrentHashMap<>();
+    // Identity map: Healenium wraps drivers in proxies whose equals/hashCode are not safe to rely on
+    private static final Map<WebDriver, KeyPool> LEASED = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "driver-pool-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown, "driver-pool-shutdown"));
+    }
+
+    private DriverPool() { }
+
+    public static boolean isEnabled() {
+        return PropertyConfig.getBoolean("web.pool.enabled", false);
+    }
+
+    /**
+     * Lease a healthy session for the key, waiting up to web.pool.leaseTimeoutSeconds when all sessions are in use.
+     */
+    public static WebDriver lease(String key, SessionFactory factory) throws Exception {
+        KeyPool pool = POOLS.computeIfAbsent(key, k -> {
+            KeyPool p = new KeyPool(k, factory, Math.max(1, PropertyConfig.getInt("web.pool.size", 2)));
+            p.prewarm();
+            return p;
+        });
+        long timeoutMs = TimeUnit.SECONDS.toMillis(PropertyConfig.getLong("web.pool.leaseTimeoutSeconds", 120));
+        long deadline = System.currentTimeMillis() + timeoutMs;
+
+        while (System.currentTimeMillis() < deadline) {
+            WebDriver wd = pool.idle.poll(250, TimeUnit.MILLISECONDS);
+            if (wd != null) {
+                if (isHealthy(wd)) {
+                    LEASED.put(wd, pool);
+                    return wd;
+                }
+                System.out.println("[DriverPool] Evicting unhealthy session for " + key);
+                pool.evict(wd);
+                continue;
+            }
+            // A background launch failed and freed its slot: create on the caller so the real error surfaces in the scenario
+            if (pool.tryReserve()) {
+                try {
+                    wd = factory.create();
+                } catch (Throwable t) {
+                    // Errors too (NoClassDefFoundError, ExceptionInInitializerError): a leaked slot would starve every later lease
+                    pool.live.decrementAndGet();
+                    throw t;
+                }
+                LEASED.put(wd, pool);
+                return wd;
+            }
+        }
+        throw new IllegalStateException("Timed out after " + timeoutMs + " ms waiting for a pooled session for " + key + " (web.pool.size=" + pool.capacity + ")");
+    }
+
+    /**
+     * Return a leased session to its pool. Returns false when the driver was not leased from a pool.
+     */
+    public static boolean release(WebDriver wd) {
+        KeyPool pool = LEASED.remove(wd);
+        if (pool == null) {
+            return false;
+        }
+        WORKERS.submit(() -> {
+            try {
+                reset(wd);
+                if (pool.closed) {
+                    DriverManager.quitSession(wd);
+                    return;
+                }
+                pool.idle.offer(wd);
+                // shutdown() may have drained idle between the check and the offer; nobody would quit the session then
+                if (pool.closed && pool.idle.removeIf(d -> d == wd)) {
+                    DriverManager.quitSession(wd);
+                }
+            } catch (Throwable t) {
+                System.out.println("[DriverPool] Reset failed, replacing session for " + pool.key + ": " + t.getMessage());
+                pool.evict(wd);
+            }
+        });
+        return true;
+    }
+
+    public static void shutdown() {
+        List<WebDriver> all = new ArrayList<>();
+        for (KeyPool pool : POOLS.values()) {
+            pool.closed = true;
+            pool.idle.drainTo(all);
+        }
+        synchronized (LEASED) {
+            all.addAll(LEASED.keySet());
+            LEASED.clear();
+        }
+        for (WebDriver wd : all) {
+            DriverManager.quitSession(wd);
+        }
+        POOLS.clear();
+    }
+
+    // Cheap round-trip that fails fast when the browser or the session has gone away
+    private static boolean isHealthy(WebDriver wd) {
+        try {
+            return wd.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Bring a session back to a clean state between leases
+    private static void reset(WebDriver wd) {
+        Set<String> handles = wd.getWindowHandles();
+        String keep = handles.iterator().next();
+        for (String handle : handles) {
+            if (!handle.equals(keep)) {
+                wd.switchTo().window(handle);
+                wd.close();
+            }
+        }
+        wd.switchTo().window(keep);
+
+        // Storage and cookies are scoped to the current origin, so clear them before navigating away
+        if (wd instanceof JavascriptExecutor) {
+            try {
+                ((JavascriptExecutor) wd).executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) { }");
+            } catch (Exception ignored) { }
+        }
+        wd.manage().deleteAllCookies();
+        if (wd instanceof ChromiumDriver) {
+            // Clears cookies for every origin the scenario visited, not just the current one
+            try {
+                ((ChromiumDriver) wd).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } catch (Exception ignored) { }
+        }
+        wd.get("about:blank");
+    }
+
+    private static final class KeyPool {
+        final String key;
+        final SessionFactory factory;
+        final int capacity;
+        final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+        // Sessions that exist or are being launched (idle + leased + launching)
+        final AtomicInteger live = new AtomicInteger();
+        volatile boolean closed;
+
+        KeyPool(String key, SessionFactory factory, int capacity) {
+            this.key = key;
+            this.factory = factory;
+            this.capacity = capacity;
+        }
+
+        boolean tryReserve() {
+            int n;
+            do {
+                n = live.get();
+                if (n >= capacity) return false;
+            } while (!live.compareAndSet(n, n + 1));
+            return true;
+        }
+
+        void prewarm() {
+            System.out.println("[DriverPool] Pre-launching " + capacity + " session(s) for " + key);
+            for (int i = 0; i < capacity; i++) {
+                launchInBackground();
+            }
+        }
+
+        void launchInBackground() {
+            if (closed || !tryReserve()) return;
+            WORKERS.submit(() -> {
+                try {
+                    WebDriver wd = factory.create();
+                    if (closed) {
+                        DriverManager.quitSession(wd);
+                        live.decrementAndGet();
+                        return;
+                    }
+                    idle.offer(wd);
+                } catch (Throwable t) {
+                    live.decrementAndGet();
+                    System.out.println("[DriverPool] Background launch failed for " + key + ": " + t.getMessage());
+                }
+            });
+        }
+
+        void evict(WebDriver wd) {
+            WORKERS.submit(() -> DriverManager.quitSession(wd));
+            live.decrementAndGet();
+            launchInBackground();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Creates sessions for one driver type ("web" or "mobile") in one environment ("local", "container", "saucelabs", ...).
+ * Implementations are discovered with ServiceLoader (META-INF/services/com.company.driver.DriverProvider), so a new
+ * environment is added by shipping a provider instead of editing DriverManager.
+ * Providers get everything session-specific from the DriverRequest, so they can be exercised on their own.
+ */
+public interface DriverProvider {
+
+    String type();
+
+    String environment();
+
+    WebDriver create(DriverRequest request) throws Exception;
+
+    /**
+     * One-time preparation that makes later create() calls cheaper (driver binaries, profile templates, ...).
+     * Runs on a background thread before the first session; must be safe to run concurrently with create().
+     */
+    default void prewarm(DriverRequest request) throws Exception { }
+
+    /**
+     * Log whatever helps explain why create() failed. Called only after a failure, never on the happy path.
+     */
+    default void diagnose(DriverRequest request, Throwable failure) { }
+}
@@ -0,0 +1,143 @@
+package com.company.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * ServiceLoader-backed registry of DriverProviders, keyed by type and environment.
+ * Wraps every create() with latency/failure metrics and runs the provider's diagnostics only when creation fails.
+ * Metrics are printed on JVM shutdown and available through {@link #metrics()}.
+ */
+final class DriverProviders {
+
+    private static final Map<String, DriverProvider> PROVIDERS = load();
+    private static final Map<DriverProvider, CreationMetrics> METRICS = new ConcurrentHashMap<>();
+    private static final Set<DriverProvider> PREWARMED = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Map.Entry<String, CreationMetrics> e : metrics().entrySet()) {
+                System.out.println("[DriverProviders] " + e.getKey() + ": " + e.getValue());
+            }
+        }, "driver-provider-metrics"));
+    }
+
+    private DriverProviders() { }
+
+    static DriverProvider get(DriverRequest request) {
+        DriverProvider provider = PROVIDERS.get(request.type() + "|" + request.environment());
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown " + request.type() + " environment: " + request.environment()
+                    + " (available: " + PROVIDERS.keySet() + ")");
+        }
+        return provider;
+    }
+
+    static WebDriver create(DriverRequest request) throws Exception {
+        DriverProvider provider = get(request);
+        CreationMetrics metrics = METRICS.computeIfAbsent(provider, p -> new CreationMetrics());
+        long started = System.nanoTime();
+        try {
+            WebDriver wd = provider.create(request);
+            metrics.success(System.nanoTime() - started);
+            return wd;
+        } catch (Throwable e) {
+            // Linkage errors from mismatched client libraries are session failures too
+            metrics.failure(System.nanoTime() - started);
+            try {
+                provider.diagnose(request, e);
+            } catch (Throwable ignored) { }
+            throw e;
+        }
+    }
+
+    // Start the provider's one-time preparation in the background; later calls for the same provider do nothing
+    static void prewarm(DriverRequest request) {
+        DriverProvider provider = get(request);
+        if (!PREWARMED.add(provider)) return;
+        Thread t = new Thread(() -> {
+            long started = System.nanoTime();
+            try {
+                provider.prewarm(request);
+                System.out.println("[DriverProviders] Pre-warmed " + request.type() + "/" + request.environment() + " in "
+                        + (System.nanoTime() - started) / 1_000_000 + " ms");
+            } catch (Throwable e) {
+                System.out.println("[DriverProviders] Pre-warm failed for " + request.type() + "/" + request.environment() + ": " + e.getMessage());
+            }
+        }, "driver-prewarm-" + request.type() + "-" + request.environment());
+        t.setDaemon(true);
+        t.start();
+    }
+
+    static Map<String, CreationMetrics> metrics() {
+        Map<String, CreationMetrics> out = new LinkedHashMap<>();
+        for (DriverProvider p : PROVIDERS.values()) {
+            CreationMetrics m = METRICS.get(p);
+            if (m != null) out.put(p.type() + "/" + p.environment(), m);
+        }
+        return out;
+    }
+
+    private static Map<String, DriverProvider> load() {
+        Map<String, DriverProvider> map = new LinkedHashMap<>();
+        for (DriverProvider p : ServiceLoader.load(DriverProvider.class, DriverProviders.class.getClassLoader())) {
+            DriverProvider previous = map.putIfAbsent(p.type().toLowerCase() + "|" + p.environment().toLowerCase(), p);
+            if (previous != null) {
+                System.out.println("[DriverProviders] Ignoring " + p.getClass().getName() + ": " + previous.getClass().getName()
+                        + " already handles " + p.type() + "/" + p.environment());
+            }
+        }
+        return map;
+    }
+
+    static final class CreationMetrics {
+        private final AtomicLong sessions = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void success(long nanos) {
+            sessions.incrementAndGet();
+            record(nanos);
+        }
+
+        void failure(long nanos) {
+            failures.incrementAndGet();
+            record(nanos);
+        }
+
+        private void record(long nanos) {
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        long sessions() {
+            return sessions.get();
+        }
+
+        long failures() {
+            return failures.get();
+        }
+
+        long averageMillis() {
+            long attempts = sessions.get() + failures.get();
+            return attempts == 0 ? 0 : totalNanos.get() / attempts / 1_000_000;
+        }
+
+        long maxMillis() {
+            return maxNanos.get() / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return sessions() + " session(s), " + failures() + " failure(s), avg " + averageMillis() + " ms, max " + maxMillis() + " ms";
+        }
+    }
+}
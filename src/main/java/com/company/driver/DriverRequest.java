@@ -0,0 +1,68 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+
+import java.util.Locale;
+
+/**
+ * What kind of session to create. Built from configuration by DriverManager, or directly when using a provider on its own.
+ */
+public final class DriverRequest {
+
+    private final String type;
+    private final String environment;
+    private final String browser;
+    private final boolean headless;
+    private final String platform;
+
+    public DriverRequest(String type, String environment, String browser, boolean headless, String platform) {
+        this.type = type.toLowerCase(Locale.ROOT);
+        this.environment = environment.toLowerCase(Locale.ROOT);
+        this.browser = browser;
+        this.headless = headless;
+        this.platform = platform;
+    }
+
+    /**
+     * Read the request for a driver type from the current PropertyConfig snapshot:
+     * web.environment, web.browserName, web.headless for web; appium.environment, mobile.platform for mobile.
+     */
+    public static DriverRequest fromConfig(String type) {
+        if ("mobile".equalsIgnoreCase(type)) {
+            return new DriverRequest("mobile", PropertyConfig.get("appium.environment", "local"), "", false,
+                    PropertyConfig.get("mobile.platform", "Android"));
+        }
+        return new DriverRequest("web", PropertyConfig.get("web.environment", "local"),
+                PropertyConfig.get("web.browserName", "chrome"), PropertyConfig.getBoolean("web.headless", false), "");
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public String environment() {
+        return environment;
+    }
+
+    public String browser() {
+        return browser;
+    }
+
+    public boolean headless() {
+        return headless;
+    }
+
+    public String platform() {
+        return platform;
+    }
+
+    // Identifies sessions that are interchangeable, e.g. for pooling
+    public String key() {
+        return type + "|" + environment + "|" + browser.toLowerCase(Locale.ROOT) + "|" + headless + "|" + platform.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+}
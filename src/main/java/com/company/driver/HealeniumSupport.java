@@ -0,0 +1,194 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide Healenium capability cache used by DriverManager.
+ * Behavior:
+ *  - The SelfHealingDriver factory is resolved by reflection once and kept as a MethodHandle; later wraps are a direct call.
+ *  - The backend health URL is probed once on first use. After healenium.probe.ttlSeconds the cached result is served
+ *    while a single background probe refreshes it, so scenarios never wait on the network after the first one.
+ *  - Circuit breaker: after healenium.breaker.failureThreshold consecutive wrap failures Healenium is skipped for
+ *    healenium.breaker.openSeconds; then one scenario tries again and a success closes the breaker.
+ */
+final class HealeniumSupport {
+
+    private static final String DRIVER_CLASS = "com.epam.healenium.SelfHealingDriver";
+
+    private static final long TTL_MS = TimeUnit.SECONDS.toMillis(PropertyConfig.getLong("healenium.probe.ttlSeconds", 60));
+    private static final int PROBE_TIMEOUT_MS = PropertyConfig.getInt("healenium.probe.timeoutMs", 2000);
+    private static final int FAILURE_THRESHOLD = PropertyConfig.getInt("healenium.breaker.failureThreshold", 3);
+    private static final long OPEN_MS = TimeUnit.SECONDS.toMillis(PropertyConfig.getLong("healenium.breaker.openSeconds", 120));
+
+    // Probe result and when it was taken; replaced as a unit so readers never see a torn pair
+    private static volatile Probe probe;
+    private static final Object FIRST_PROBE = new Object();
+    private static final AtomicBoolean REFRESHING = new AtomicBoolean();
+
+    private static final AtomicInteger CONSECUTIVE_FAILURES = new AtomicInteger();
+    private static volatile long openUntil;
+    private static final AtomicBoolean HALF_OPEN_TRIAL = new AtomicBoolean();
+
+    private HealeniumSupport() { }
+
+    static boolean isEnabled() {
+        return PropertyConfig.getBoolean("healenium.enabled", false);
+    }
+
+    /**
+     * Wrap the driver with SelfHealingDriver when Healenium is enabled, on the classpath, reachable and the breaker is
+     * closed; otherwise return it unchanged.
+     */
+    static WebDriver wrap(WebDriver wd) {
+        if (!isEnabled()) {
+            return wd;
+        }
+        MethodHandle factory = FactoryHolder.FACTORY;
+        if (factory == null || !isBackendAvailable()) {
+            return wd;
+        }
+
+        boolean trial = false;
+        if (openUntil != 0) {
+            if (System.currentTimeMillis() < openUntil || !HALF_OPEN_TRIAL.compareAndSet(false, true)) {
+                return wd;
+            }
+            trial = true;
+        }
+        try {
+            WebDriver healed = (WebDriver) factory.invokeExact(wd);
+            if (CONSECUTIVE_FAILURES.getAndSet(0) > 0 || trial) {
+                System.out.println("[HealeniumSupport] Healenium wrapper working again; circuit closed");
+            }
+            openUntil = 0;
+            return healed;
+        } catch (Throwable t) {
+            int failures = CONSECUTIVE_FAILURES.incrementAndGet();
+            if (trial || failures >= FAILURE_THRESHOLD) {
+                openUntil = System.currentTimeMillis() + OPEN_MS;
+                System.err.println("[HealeniumSupport] Healenium wrapper failed " + failures + " time(s) in a row (" + t
+                        + "); skipping Healenium for " + OPEN_MS / 1000 + " s");
+            } else {
+                System.err.println("[HealeniumSupport] Error while applying Healenium: " + t);
+            }
+            return wd;
+        } finally {
+            if (trial) HALF_OPEN_TRIAL.set(false);
+        }
+    }
+
+    private static boolean isBackendAvailable() {
+        String backendUrl = PropertyConfig.get("healenium.backend.url", "");
+        if (backendUrl == null || backendUrl.isEmpty()) {
+            return true;
+        }
+        Probe p = probe;
+        if (p == null || !p.url.equals(backendUrl)) {
+            // First use (or the URL changed): every caller needs an answer, so probe once on the caller
+            synchronized (FIRST_PROBE) {
+                p = probe;
+                if (p == null || !p.url.equals(backendUrl)) {
+                    p = publish(Probe.run(backendUrl));
+                }
+            }
+        } else if (System.currentTimeMillis() - p.checkedAt > TTL_MS && REFRESHING.compareAndSet(false, true)) {
+            Thread refresher = new Thread(() -> {
+                try {
+                    publish(Probe.run(backendUrl));
+                } finally {
+                    REFRESHING.set(false);
+                }
+            }, "healenium-probe");
+            refresher.setDaemon(true);
+            refresher.start();
+        }
+        return p.available;
+    }
+
+    // Log only when availability changes instead of once per scenario
+    private static Probe publish(Probe next) {
+        Probe previous = probe;
+        probe = next;
+        if (previous == null || previous.available != next.available) {
+            System.out.println("[HealeniumSupport] Healenium backend " + (next.available ? "reachable" : "not reachable (" + next.detail + "); skipping Healenium wrapper")
+                    + ". URL: " + next.url);
+        }
+        return next;
+    }
+
+    private static final class Probe {
+        final String url;
+        final boolean available;
+        final String detail;
+        final long checkedAt = System.currentTimeMillis();
+
+        private Probe(String url, boolean available, String detail) {
+            this.url = url;
+            this.available = available;
+            this.detail = detail;
+        }
+
+        static Probe run(String backendUrl) {
+            HttpURLConnection conn = null;
+            try {
+                conn = (HttpURLConnection) new URL(backendUrl).openConnection();
+                conn.setConnectTimeout(PROBE_TIMEOUT_MS);
+                conn.setReadTimeout(PROBE_TIMEOUT_MS);
+                conn.setRequestMethod("GET");
+                int code = conn.getResponseCode();
+                return new Probe(backendUrl, code >= 200 && code < 400, "status=" + code);
+            } catch (Exception e) {
+                return new Probe(backendUrl, false, e.getMessage());
+            } finally {
+                if (conn != null) conn.disconnect();
+            }
+        }
+    }
+
+    // Resolved on first use; null when Healenium is not on the classpath or offers no usable factory
+    private static final class FactoryHolder {
+        static final MethodHandle FACTORY = resolve();
+
+        private static MethodHandle resolve() {
+            MethodType wrapType = MethodType.methodType(WebDriver.class, WebDriver.class);
+            try {
+                Class<?> shClass = Class.forName(DRIVER_CLASS);
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                try {
+                    Method create = shClass.getMethod("create", WebDriver.class);
+                    if (Modifier.isStatic(create.getModifiers()) && WebDriver.class.isAssignableFrom(create.getReturnType())) {
+                        System.out.println("[HealeniumSupport] Using " + DRIVER_CLASS + ".create(WebDriver)");
+                        return lookup.unreflect(create).asType(wrapType);
+                    }
+                } catch (NoSuchMethodException ignore) {
+                }
+                for (Constructor<?> c : shClass.getConstructors()) {
+                    Class<?>[] params = c.getParameterTypes();
+                    if (params.length == 1 && params[0].isAssignableFrom(WebDriver.class) && WebDriver.class.isAssignableFrom(shClass)) {
+                        System.out.println("[HealeniumSupport] Using compatible constructor: " + c);
+                        return lookup.unreflectConstructor(c).asType(wrapType);
+                    }
+                }
+                System.out.println("[HealeniumSupport] Healenium present but no usable factory found; using raw driver");
+            } catch (ClassNotFoundException cnf) {
+                System.out.println("[HealeniumSupport] Healenium not found on classpath. To enable add Healenium dependency and set -Dhealenium.enabled=true");
+            } catch (Throwable t) {
+                System.err.println("[HealeniumSupport] Could not resolve Healenium factory: " + t.getMessage());
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.company.driver;
+
+import com.company.config.MobileCapabilityFactory;
+import com.company.config.PropertyConfig;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.File;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local Appium server (appium.server) with an adb-connected device or emulator.
+ * Device state and Chrome versions come from DeviceInventory's cached snapshot, and a chromedriver matching each Chrome
+ * major version is provisioned once per JVM, so no adb call happens on the session-creation path.
+ * Appium/adb/chromedriver diagnostics follow mobile.diagnostics: lazy (default) gathers them only after a failed
+ * session, eager also probes Appium before every session, off never collects them.
+ */
+public class LocalMobileDriverProvider implements DriverProvider {
+
+    // Chrome major version -> chromedriver to use (empty when none could be provisioned)
+    private static final Map<String, Optional<String>> CHROMEDRIVERS = new ConcurrentHashMap<>();
+    // Lease of the session that just failed on this thread; DriverProviders calls diagnose() right after, on the same thread
+    private static final ThreadLocal<DevicePool.Lease> FAILED_LEASE = new ThreadLocal<>();
+
+    @Override
+    public String type() {
+        return "mobile";
+    }
+
+    @Override
+    public String environment() {
+        return "local";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) throws Exception {
+        FAILED_LEASE.remove();
+        if (DevicePool.isEnabled()) {
+            return createOnLeasedDevice(request);
+        }
+        DesiredCapabilities caps = capabilities(request);
+        String appiumBase = PropertyConfig.get("appium.server", "http://127.0.0.1:4723");
+        if ("eager".equalsIgnoreCase(diagnosticsMode())) {
+            String status = RemoteStatus.probeAppiumStatus(appiumBase, 2000);
+            if (!"ready".equals(status)) {
+                System.out.println("[LocalMobileDriverProvider] Appium status: " + status + " (proceeding to attempt session)");
+            }
+        }
+        return new AppiumDriver(new URL(appiumBase), caps);
+    }
+
+    // Exclusive device, ports and Appium server for this session; freed when the session quits or fails to start
+    private WebDriver createOnLeasedDevice(DriverRequest request) throws Exception {
+        DevicePool.Lease lease = DevicePool.acquire();
+        try {
+            WebDriver wd = new AppiumDriver(new URL(lease.appiumUrl), capabilities(request, lease));
+            DevicePool.attach(wd, lease);
+            return wd;
+        } catch (Throwable e) {
+            // Errors too (e.g. a client/Selenium version mismatch): the device must not stay leased
+            System.out.println("[LocalMobileDriverProvider] Session failed on " + lease);
+            DevicePool.release(lease);
+            FAILED_LEASE.set(lease);
+            throw e;
+        }
+    }
+
+    @Override
+    public void prewarm(DriverRequest request) {
+        DesiredCapabilities caps = capabilities(request, false);
+        for (DeviceInventory.Device device : DeviceInventory.readyDevices()) {
+            chromedriverFor(device, caps);
+        }
+    }
+
+    @Override
+    public void diagnose(DriverRequest request, Throwable failure) {
+        DevicePool.Lease lease = FAILED_LEASE.get();
+        FAILED_LEASE.remove();
+        if ("off".equalsIgnoreCase(diagnosticsMode())) return;
+        // A pooled session went to its lease's Appium server (mobile.appium.servers), not necessarily appium.server
+        String appiumBase = lease != null ? lease.appiumUrl : PropertyConfig.get("appium.server", "http://127.0.0.1:4723");
+        DesiredCapabilities caps = lease != null ? capabilities(request, lease) : capabilities(request);
+        System.out.println("[LocalMobileDriverProvider] Appium server: " + appiumBase);
+        System.out.println("[LocalMobileDriverProvider] Capabilities: " + caps.asMap());
+
+        // Check chromedriverExecutable and directory contents so troubleshooting is easier
+        Object exe = capability(caps, "chromedriverExecutable");
+        Object exeDir = capability(caps, "chromedriverExecutableDir");
+        System.out.println("[LocalMobileDriverProvider] appium:chromedriverExecutable=" + exe);
+        System.out.println("[LocalMobileDriverProvider] appium:chromedriverExecutableDir=" + exeDir);
+        if (exe != null) {
+            File f = new File(exe.toString());
+            System.out.println("[LocalMobileDriverProvider] chromedriver file exists=" + f.exists() + ", path=" + f.getAbsolutePath() + ", size=" + (f.exists() ? f.length() : 0));
+        }
+        if (exeDir != null) {
+            File d = new File(exeDir.toString());
+            if (d.isDirectory()) {
+                System.out.println("[LocalMobileDriverProvider] Listing chromedriverExecutableDir (" + d.getAbsolutePath() + "): ");
+                File[] files = d.listFiles();
+                if (files != null) {
+                    for (File f : files) System.out.println("  - " + f.getName() + " (size=" + f.length() + ")");
+                }
+            } else {
+                System.out.println("[LocalMobileDriverProvider] chromedriverExecutableDir does not exist: " + d.getAbsolutePath());
+            }
+        }
+        // Fresh scan rather than the cached snapshot: the device may be the reason the session failed
+        System.out.println("[LocalMobileDriverProvider] adb devices: " + DeviceInventory.refreshNow().values());
+        if (DevicePool.isEnabled()) {
+            System.out.println("[LocalMobileDriverProvider] Device pool: " + DevicePool.describe());
+        }
+        RemoteStatus.logAppium("[LocalMobileDriverProvider]", appiumBase, failure);
+    }
+
+    private static DesiredCapabilities capabilities(DriverRequest request) {
+        return capabilities(request, true);
+    }
+
+    private static DesiredCapabilities capabilities(DriverRequest request, DevicePool.Lease lease) {
+        DesiredCapabilities caps = MobileCapabilityFactory.getLocalCapabilities(request.platform(), "web",
+                lease.device.serial, lease.systemPort, lease.chromedriverPort);
+        prepare(caps, lease.device);
+        return caps;
+    }
+
+    private static DesiredCapabilities capabilities(DriverRequest request, boolean withChromedriver) {
+        DesiredCapabilities caps = MobileCapabilityFactory.getLocalCapabilities(request.platform(), "web");
+        List<DeviceInventory.Device> devices = withChromedriver ? DeviceInventory.readyDevices() : List.of();
+        prepare(caps, devices.isEmpty() ? null : devices.get(0));
+        return caps;
+    }
+
+    // Ensure chromedriverExecutableDir exists so Appium can download chromedrivers into it, and point Appium at a
+    // chromedriver matching the device's Chrome unless one was configured explicitly
+    private static void prepare(DesiredCapabilities caps, DeviceInventory.Device device) {
+        Object dirObj = capability(caps, "chromedriverExecutableDir");
+        if (dirObj != null) {
+            File dir = new File(dirObj.toString());
+            if (!dir.exists() && !dir.mkdirs()) {
+                System.out.println("[LocalMobileDriverProvider] Warning: could not create chromedriver dir: " + dir.getAbsolutePath());
+            }
+        }
+        if (device != null && capability(caps, "chromedriverExecutable") == null) {
+            String exe = chromedriverFor(device, caps);
+            if (exe != null) {
+                caps.setCapability("appium:chromedriverExecutable", exe);
+                caps.setCapability("chromedriverExecutable", exe);
+            }
+        }
+    }
+
+    private static Object capability(DesiredCapabilities caps, String name) {
+        Object v = caps.getCapability("appium:" + name);
+        return v != null ? v : caps.getCapability(name);
+    }
+
+    private static String diagnosticsMode() {
+        return PropertyConfig.get("mobile.diagnostics", "lazy");
+    }
+
+    // Chromedriver matching the device's Chrome, provisioned locally once per Chrome major version
+    static String chromedriverFor(DeviceInventory.Device device, DesiredCapabilities caps) {
+        String major = device.chromeMajor();
+        if (major == null) {
+            return null;
+        }
+        return CHROMEDRIVERS.computeIfAbsent(major, m -> {
+            try {
+                return Optional.ofNullable(locateChromedriver(m, caps));
+            } catch (Throwable t) {
+                System.out.println("[LocalMobileDriverProvider] Error while attempting local chromedriver provisioning: " + t.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static String locateChromedriver(String major, DesiredCapabilities caps) {
+        System.out.println("[LocalMobileDriverProvider] Resolving chromedriver for device Chrome " + major);
+        File src;
+        try {
+            src = DriverBinaryResolver.resolve("chrome", major).toFile();
+        } catch (Throwable wdm) {
+            System.out.println("[LocalMobileDriverProvider] Failed to download local chromedriver via WebDriverManager: " + wdm.getMessage());
+            return null;
+        }
+        if (!src.exists()) {
+            System.out.println("[LocalMobileDriverProvider] Resolved chromedriver not found: " + src);
+            return null;
+        }
+        // If a chromedriverExecutableDir is set in caps, copy the binary there so Appium can use it
+        Object targetDirObj = capability(caps, "chromedriverExecutableDir");
+        if (targetDirObj != null) {
+            try {
+                // One sub-directory per Chrome major so devices on different Chrome versions do not overwrite each other
+                File targetDir = new File(targetDirObj.toString(), major);
+                if (!targetDir.exists()) targetDir.mkdirs();
+                File dest = new File(targetDir, src.getName());
+                if (!dest.exists()) {
+                    java.nio.file.Files.copy(src.toPath(), dest.toPath());
+                    dest.setExecutable(true);
+                }
+                System.out.println("[LocalMobileDriverProvider] Using chromedriver: " + dest.getAbsolutePath());
+                return dest.getAbsolutePath();
+            } catch (Throwable cpy) {
+                System.out.println("[LocalMobileDriverProvider] Failed to copy chromedriver to chromedriverExecutableDir: " + cpy.getMessage());
+            }
+        }
+        System.out.println("[LocalMobileDriverProvider] Using chromedriver: " + src.getAbsolutePath() + " (size=" + src.length() + ")");
+        return src.getAbsolutePath();
+    }
+}
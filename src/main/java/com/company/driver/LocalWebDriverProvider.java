@@ -0,0 +1,109 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+
+import java.nio.file.Path;
+
+/**
+ * Local Chrome/Edge/Firefox. Driver binaries come from DriverBinaryResolver and Chrome/Edge profiles from
+ * BrowserProfileManager; pre-warming resolves the binary and builds the profile template before the first scenario.
+ */
+public class LocalWebDriverProvider implements DriverProvider {
+
+    @Override
+    public String type() {
+        return "web";
+    }
+
+    @Override
+    public String environment() {
+        return "local";
+    }
+
+    // A session that cannot be created with a cached driver binary (typically after a browser update) gets the binary
+    // re-resolved and is retried once
+    @Override
+    public WebDriver create(DriverRequest request) {
+        String version = PropertyConfig.get("web.browserVersion", "");
+        try {
+            return start(request.browser(), request.headless(), version);
+        } catch (SessionNotCreatedException e) {
+            System.out.println("[LocalWebDriverProvider] Session not created with cached " + request.browser() + " driver: " + e.getRawMessage());
+            DriverBinaryResolver.invalidate(request.browser(), version);
+            return start(request.browser(), request.headless(), version);
+        }
+    }
+
+    @Override
+    public void prewarm(DriverRequest request) {
+        DriverBinaryResolver.resolve(request.browser(), PropertyConfig.get("web.browserVersion", ""));
+        String chromium = chromium(request.browser());
+        if (chromium != null) {
+            BrowserProfileManager.prepare(chromium, dir -> startChromium(chromium, true, dir));
+        }
+    }
+
+    private WebDriver start(String browser, boolean headless, String version) {
+        // Resolved once per JVM and remembered in the driver manifest; see DriverBinaryResolver
+        DriverBinaryResolver.resolve(browser, version);
+        String chromium = chromium(browser);
+        if (chromium == null) {
+            return new FirefoxDriver();
+        }
+        // Each session gets its own clone of a pre-initialized profile, deleted again when the session quits
+        Path profile = BrowserProfileManager.newProfile(chromium, dir -> startChromium(chromium, true, dir));
+        try {
+            WebDriver wd = startChromium(chromium, headless, profile);
+            BrowserProfileManager.attach(wd, profile);
+            return wd;
+        } catch (RuntimeException e) {
+            BrowserProfileManager.discard(profile);
+            throw e;
+        }
+    }
+
+    // "chrome" or "edge", or null for Firefox; unknown names fall back to Chrome
+    private static String chromium(String browser) {
+        String b = browser.toLowerCase();
+        if ("firefox".equals(b)) return null;
+        return "edge".equals(b) ? "edge" : "chrome";
+    }
+
+    private static WebDriver startChromium(String browser, boolean headless, Path profile) {
+        if ("edge".equals(browser)) {
+            EdgeOptions edgeOptions = new EdgeOptions();
+            configureChromium(edgeOptions, headless, profile);
+            return new EdgeDriver(edgeOptions);
+        }
+        ChromeOptions chromeOptions = new ChromeOptions();
+        configureChromium(chromeOptions, headless, profile);
+        return new ChromeDriver(chromeOptions);
+    }
+
+    // Options shared by Chrome and Edge
+    private static void configureChromium(ChromiumOptions<?> options, boolean headless, Path profile) {
+        if (headless) options.addArguments("--headless=new");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+
+        // Let Chrome pick an ephemeral remote debugging port to avoid port conflicts
+        options.addArguments("--remote-debugging-port=0");
+
+        // Disable background throttling which can cause renderer to pause and trigger unexpected disconnects
+        options.addArguments("--disable-background-timer-throttling");
+        options.addArguments("--disable-renderer-backgrounding");
+        options.addArguments("--disable-backgrounding-occluded-windows");
+
+        // Reduce automation banner and potential interference
+        options.setExperimentalOption("excludeSwitches", java.util.Arrays.asList("enable-automation"));
+    }
+}
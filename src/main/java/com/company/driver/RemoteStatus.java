@@ -0,0 +1,55 @@
+package com.company.driver;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Small HTTP probes against Grid/Appium endpoints, used for failure diagnostics.
+ */
+final class RemoteStatus {
+
+    private RemoteStatus() { }
+
+    static String resolve(String baseUrl, String path) {
+        return baseUrl.endsWith("/") ? baseUrl + path : baseUrl + "/" + path;
+    }
+
+    // Returns "HTTP <code> -> <body>" (body truncated) or an error string
+    static String fetch(String url, int timeoutMs) {
+        try {
+            HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+            conn.setConnectTimeout(timeoutMs);
+            conn.setReadTimeout(timeoutMs);
+            conn.setRequestMethod("GET");
+            int code = conn.getResponseCode();
+            try (java.io.InputStream in = code < 400 ? conn.getInputStream() : conn.getErrorStream();
+                 java.util.Scanner s = new java.util.Scanner(in, "UTF-8").useDelimiter("\\A")) {
+                String body = s.hasNext() ? s.next() : "";
+                return "HTTP " + code + " -> " + (body.length() > 1000 ? body.substring(0, 1000) + "..." : body);
+            }
+        } catch (Throwable t) {
+            return "error: " + t.getMessage();
+        }
+    }
+
+    // Probe Appium /status endpoint. Returns "ready" when OK or an error description.
+    static String probeAppiumStatus(String baseUrl, int timeoutMs) {
+        String result = fetch(resolve(baseUrl, "status"), timeoutMs);
+        if (result.startsWith("HTTP 2") || result.startsWith("HTTP 3")) {
+            String body = result.substring(result.indexOf("->") + 2);
+            if (body.contains("\"ready\":true") || body.contains("\"status\":0") || body.toLowerCase().contains("\"ready\": true")) {
+                return "ready";
+            }
+            return "unready: " + (body.length() > 200 ? body.substring(0, 200) + "..." : body);
+        }
+        return result;
+    }
+
+    // Appium state after a failed session: /status, /sessions and hints for the usual chromedriver problems
+    static void logAppium(String prefix, String baseUrl, Throwable failure) {
+        System.out.println(prefix + " Failed to create Appium session: " + failure.getClass().getName() + ": " + failure.getMessage());
+        System.out.println(prefix + " Appium /status: " + probeAppiumStatus(baseUrl, 2000));
+        System.out.println(prefix + " Appium /sessions response: " + fetch(resolve(baseUrl, "sessions"), 2000));
+        System.out.println(prefix + " Diagnostic hints: \n  - Verify Appium server logs for chromedriver download/match errors.\n  - Ensure Appium has network & write permission to chromedriverExecutableDir.\n  - If using Appium 2.x, ensure the appium-chromedriver driver/plugin is installed and enabled.\n  - As a fallback, pre-download a chromedriver matching device Chrome and set appium:chromedriverExecutable capability.\n");
+    }
+}
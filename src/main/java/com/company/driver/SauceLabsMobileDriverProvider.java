@@ -0,0 +1,30 @@
+package com.company.driver;
+
+import com.company.config.MobileCapabilityFactory;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.net.URL;
+
+/**
+ * Appium on Sauce Labs real devices / emulators.
+ */
+public class SauceLabsMobileDriverProvider implements DriverProvider {
+
+    @Override
+    public String type() {
+        return "mobile";
+    }
+
+    @Override
+    public String environment() {
+        return "saucelabs";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) throws Exception {
+        DesiredCapabilities caps = MobileCapabilityFactory.getSauceLabsCapabilities(request.platform(), "web");
+        return new AppiumDriver(new URL("https://ondemand.saucelabs.com/wd/hub"), caps);
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URL;
+
+/**
+ * Remote WebDriver on Sauce Labs; credentials from sauce.properties or SAUCE_USERNAME/SAUCE_ACCESS_KEY.
+ */
+public class SauceLabsWebDriverProvider implements DriverProvider {
+
+    @Override
+    public String type() {
+        return "web";
+    }
+
+    @Override
+    public String environment() {
+        return "saucelabs";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) throws Exception {
+        // Prefer properties (sauce.properties via PropertyConfig), fall back to environment variables
+        String user = PropertyConfig.get("sauce.username", "");
+        if (user == null || user.isEmpty()) user = System.getenv("SAUCE_USERNAME");
+
+        String key = PropertyConfig.get("sauce.accessKey", "");
+        if (key == null || key.isEmpty()) key = System.getenv("SAUCE_ACCESS_KEY");
+
+        if (user == null || user.isEmpty() || key == null || key.isEmpty()) {
+            throw new IllegalStateException("Sauce credentials not configured (sauce.username / sauce.accessKey). Provide them via src/test/resources/properties/sauce.properties or environment variables SAUCE_USERNAME/SAUCE_ACCESS_KEY.");
+        }
+
+        DesiredCapabilities caps = new DesiredCapabilities();
+        caps.setCapability("browserName", request.browser());
+        caps.setCapability("username", user);
+        caps.setCapability("accessKey", key);
+        caps.setCapability("platformName", PropertyConfig.get("sauce.platformName", "Windows 10"));
+        caps.setCapability("browserVersion", PropertyConfig.get("sauce.browserVersion", "latest"));
+
+        // Optional Sauce-specific capabilities
+        String build = PropertyConfig.get("sauce.build", "");
+        if (build != null && !build.isEmpty()) caps.setCapability("build", build);
+        String name = PropertyConfig.get("sauce.name", "");
+        if (name != null && !name.isEmpty()) caps.setCapability("name", name);
+
+        String sauceUrl = PropertyConfig.get("sauce.url", "https://ondemand.saucelabs.com/wd/hub");
+        return new RemoteWebDriver(new URL(sauceUrl), caps);
+    }
+}
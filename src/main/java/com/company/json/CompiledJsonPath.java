@@ -0,0 +1,147 @@
+package com.company.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A GPath-style expression ("title", "data.items[0].id", "items.name", "items[-1]", "items.size()") compiled once into
+ * a list of steps and evaluated against a Gson tree.
+ * Semantics follow RestAssured's jsonPath() for this subset: a field step applied to an array collects that field from
+ * every element, a negative index counts from the end, and a missing field yields null. JsonBody lists the few
+ * places where results differ on purpose.
+ * Expressions outside the subset (closures, filters, quoted keys, wildcards) are not compiled: compile() returns null
+ * and callers fall back to jsonPath().
+ *
+ * Compiled expressions are immutable and cached for the lifetime of the JVM, so each expression is parsed once.
+ */
+public final class CompiledJsonPath {
+
+    // Unsupported expressions are cached too, so they are not re-parsed before every fallback
+    private static final CompiledJsonPath UNSUPPORTED = new CompiledJsonPath("", new Step[0]);
+    private static final Map<String, CompiledJsonPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+    private final Step[] steps;
+
+    private CompiledJsonPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+    }
+
+    /**
+     * Compiled form of the expression, or null when it uses syntax this class does not support.
+     */
+    public static CompiledJsonPath compile(String expression) {
+        CompiledJsonPath compiled = CACHE.computeIfAbsent(expression, CompiledJsonPath::parse);
+        return compiled == UNSUPPORTED ? null : compiled;
+    }
+
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Value at this path, or null when any step is missing.
+     */
+    public JsonElement read(JsonElement root) {
+        JsonElement current = root;
+        for (Step step : steps) {
+            if (current == null || current.isJsonNull()) return null;
+            current = step.apply(current);
+        }
+        return current;
+    }
+
+    private static CompiledJsonPath parse(String expression) {
+        String path = expression.trim();
+        if (path.startsWith("$.")) path = path.substring(2);
+        else if (path.equals("$")) path = "";
+        List<Step> steps = new ArrayList<>();
+        if (!path.isEmpty()) {
+            for (String segment : path.split("\\.", -1)) {
+                if (!parseSegment(segment, steps)) return UNSUPPORTED;
+            }
+        }
+        return new CompiledJsonPath(expression, steps.toArray(new Step[0]));
+    }
+
+    // name, name[1], name[-1][0], [2] or size()
+    private static boolean parseSegment(String segment, List<Step> steps) {
+        if (segment.isEmpty()) return false;
+        if (segment.equals("size()")) {
+            steps.add(CompiledJsonPath::size);
+            return true;
+        }
+        int bracket = segment.indexOf('[');
+        String name = bracket < 0 ? segment : segment.substring(0, bracket);
+        if (!name.isEmpty()) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '@') return false;
+            }
+            steps.add(element -> field(element, name));
+        }
+        int pos = bracket;
+        while (pos >= 0 && pos < segment.length()) {
+            int close = segment.indexOf(']', pos);
+            if (segment.charAt(pos) != '[' || close < 0) return false;
+            int index;
+            try {
+                index = Integer.parseInt(segment.substring(pos + 1, close).trim());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            steps.add(element -> index(element, index));
+            pos = close + 1;
+        }
+        return true;
+    }
+
+    private static JsonElement field(JsonElement element, String name) {
+        if (element.isJsonObject()) {
+            return ((JsonObject) element).get(name);
+        }
+        if (element.isJsonArray()) {
+            // GPath spread: "items.name" is the list of every item's name
+            JsonArray out = new JsonArray();
+            for (JsonElement item : (JsonArray) element) {
+                JsonElement v = item.isJsonNull() ? null : field(item, name);
+                out.add(v == null ? JsonNull.INSTANCE : v);
+            }
+            return out;
+        }
+        return null;
+    }
+
+    private static JsonElement index(JsonElement element, int index) {
+        if (!element.isJsonArray()) return null;
+        JsonArray array = (JsonArray) element;
+        int i = index < 0 ? array.size() + index : index;
+        return i >= 0 && i < array.size() ? array.get(i) : null;
+    }
+
+    private static JsonElement size(JsonElement element) {
+        if (element.isJsonArray()) return new JsonPrimitive(((JsonArray) element).size());
+        if (element.isJsonObject()) return new JsonPrimitive(((JsonObject) element).size());
+        if (element.isJsonPrimitive() && ((JsonPrimitive) element).isString()) return new JsonPrimitive(element.getAsString().length());
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        JsonElement apply(JsonElement element);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.json;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * A response body parsed once into a Gson tree, for any number of path assertions.
+ * Paths are compiled through CompiledJsonPath (and cached there); supports() tells callers when an expression needs
+ * another evaluator instead.
+ *
+ * For supported paths values match response.jsonPath(), except where this class is deliberately stricter or plainer:
+ *  - getString returns objects and arrays as compact JSON ({"a":1}), where jsonPath() returns Groovy's [a:1] text.
+ *  - getInt and getLong throw on fractions (1.5) and on values out of range; jsonPath() throws on fractions too but
+ *    silently wraps 12345678901 to a negative int.
+ *  - A negative index past the start (items[-5] of two items) is missing (null); jsonPath() throws.
+ *  - A negative index on a top-level array ([-1].id) counts from the end; jsonPath() returns an empty list.
+ */
+public final class JsonBody {
+
+    private final JsonElement root;
+
+    private JsonBody(JsonElement root) {
+        this.root = root;
+    }
+
+    public static JsonBody parse(String json) {
+        return new JsonBody(JsonParser.parseString(json));
+    }
+
+    public static boolean supports(String path) {
+        return CompiledJsonPath.compile(path) != null;
+    }
+
+    public JsonElement root() {
+        return root;
+    }
+
+    /**
+     * Value at the path, or null when it is missing or JSON null.
+     */
+    public JsonElement get(String path) {
+        CompiledJsonPath compiled = CompiledJsonPath.compile(path);
+        if (compiled == null) {
+            throw new IllegalArgumentException("Unsupported JSON path expression: " + path);
+        }
+        JsonElement value = compiled.read(root);
+        return value == null || value.isJsonNull() ? null : value;
+    }
+
+    /**
+     * Scalars as their text (numbers as written in the body), objects and arrays as compact JSON, missing as null.
+     */
+    public String getString(String path) {
+        JsonElement value = get(path);
+        if (value == null) return null;
+        return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+    }
+
+    public int getInt(String path) {
+        JsonElement value = required(path);
+        try {
+            return value.getAsBigDecimal().intValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("No int value at JSON path '" + path + "' (found " + value + ")", e);
+        }
+    }
+
+    public long getLong(String path) {
+        JsonElement value = required(path);
+        try {
+            return value.getAsBigDecimal().longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("No long value at JSON path '" + path + "' (found " + value + ")", e);
+        }
+    }
+
+    public double getDouble(String path) {
+        return required(path).getAsDouble();
+    }
+
+    public boolean getBoolean(String path) {
+        return required(path).getAsBoolean();
+    }
+
+    private JsonElement required(String path) {
+        JsonElement value = get(path);
+        if (value == null || !value.isJsonPrimitive()) {
+            throw new IllegalArgumentException("No scalar value at JSON path '" + path + "'" + (value == null ? "" : " (found " + value + ")"));
+        }
+        return value;
+    }
+}
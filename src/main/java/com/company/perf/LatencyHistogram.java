@@ -0,0 +1,124 @@
+package com.company.perf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free latency histogram with log-linear buckets (values in microseconds).
+ * Values below 128 us are counted exactly; larger values land in buckets 1/64 of their power-of-two range wide, so
+ * reported percentiles are within ~1.6% of the recorded value. Memory stays constant no matter how many samples are
+ * recorded, and any number of threads can record concurrently.
+ *
+ * Percentiles report the upper bound of the bucket they fall in (never optimistic), capped at the recorded maximum.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+    private static final int BUCKETS = SUB_COUNT + (64 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(v));
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Add every sample of the other histogram to this one.
+     */
+    public void merge(LatencyHistogram other) {
+        if (other.count.get() == 0) return;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long minMicros() {
+        return count.get() == 0 ? 0 : min.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Value at the given percentile (0-100) in microseconds; 0 when nothing was recorded.
+     */
+    public long percentileMicros(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Summary in milliseconds (count, min, mean, p50, p90, p95, p99, max), in insertion order for JSON output.
+     */
+    public Map<String, Object> summaryMillis() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", count());
+        m.put("minMs", millis(minMicros()));
+        m.put("meanMs", Math.round(meanMicros() / 10.0) / 100.0);
+        m.put("p50Ms", millis(percentileMicros(50)));
+        m.put("p90Ms", millis(percentileMicros(90)));
+        m.put("p95Ms", millis(percentileMicros(95)));
+        m.put("p99Ms", millis(percentileMicros(99)));
+        m.put("maxMs", millis(maxMicros()));
+        return m;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        // Keep the top SUB_BITS-1 significant bits below the leading one
+        int shift = (63 - Long.numberOfLeadingZeros(v)) - (SUB_BITS - 1);
+        int top = (int) (v >>> shift);
+        return SUB_COUNT + (shift - 1) * HALF + (top - HALF);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long top = (index - SUB_COUNT) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.perf;
+
+import com.company.config.PropertyConfig;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Run-wide timing of where suite time goes, split into phases (driver acquire, step, hook, HTTP request, report flush).
+ * Behavior:
+ *  - Each thread records into its own set of LatencyHistograms, so recording threads never contend; a thread allocates
+ *    a phase's histogram on its first timing of that phase and nothing after that.
+ *  - Call sites bracket the work with start()/stop(); with perf.enabled=false start() returns 0 and stop() does nothing.
+ *  - Step and scenario timings also feed the top-N (perf.topN) slowest steps and scenarios.
+ *  - writeReport() merges the threads and writes target/perf/perf-report.json.
+ * Threads beyond perf.maxThreadRecorders (e.g. thousands of load-mode virtual threads) share one recorder.
+ */
+public final class PhaseTimer {
+
+    public enum Phase {
+        DRIVER_ACQUIRE("driverAcquire"),
+        STEP("step"),
+        HOOK("hook"),
+        HTTP_REQUEST("httpRequest"),
+        REPORT_FLUSH("reportFlush");
+
+        private final String jsonName;
+
+        Phase(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final boolean ENABLED = PropertyConfig.getBoolean("perf.enabled", true);
+    private static final int MAX_RECORDERS = PropertyConfig.getInt("perf.maxThreadRecorders", 256);
+    private static final Path REPORT = Paths.get(PropertyConfig.get("perf.dir", "target/perf"), "perf-report.json");
+
+    private static final List<Recorder> RECORDERS = new CopyOnWriteArrayList<>();
+    private static final Recorder SHARED = new Recorder("(shared)");
+    private static final ThreadLocal<Recorder> CURRENT = ThreadLocal.withInitial(PhaseTimer::register);
+    private static final SlowestN SLOWEST_STEPS = new SlowestN(PropertyConfig.getInt("perf.topN", 10), "step", "scenario");
+    private static final SlowestN SLOWEST_SCENARIOS = new SlowestN(PropertyConfig.getInt("perf.topN", 10), "scenario", "status");
+
+    private PhaseTimer() { }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start of a timed section: pass the result to stop(). 0 when timing is disabled.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase phase, long startNanos) {
+        if (startNanos != 0L) {
+            record(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void record(Phase phase, long nanos) {
+        if (ENABLED) {
+            CURRENT.get().histogram(phase).recordNanos(nanos);
+        }
+    }
+
+    /**
+     * A finished Cucumber step (Phase.STEP); uri and line locate the step in its feature file.
+     */
+    public static void recordStep(long nanos, String step, String scenario, Object uri, int line) {
+        if (!ENABLED) return;
+        record(Phase.STEP, nanos);
+        SLOWEST_STEPS.offer(nanos, step, scenario, uri, line);
+    }
+
+    /**
+     * A finished scenario. Scenario time is the sum of its steps and hooks, so it only feeds the slowest-scenarios list.
+     */
+    public static void recordScenario(long nanos, String scenario, String status, Object uri, int line) {
+        if (ENABLED) {
+            SLOWEST_SCENARIOS.offer(nanos, scenario, status, uri, line);
+        }
+    }
+
+    /**
+     * Every phase merged across threads, per-thread totals, and the slowest steps and scenarios.
+     */
+    public static Map<String, Object> report() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (Phase phase : PHASES) {
+            LatencyHistogram merged = new LatencyHistogram();
+            for (Recorder r : RECORDERS) {
+                LatencyHistogram h = r.histograms.get(phase.ordinal());
+                if (h != null) merged.merge(h);
+            }
+            phases.put(phase.jsonName, merged.summaryMillis());
+        }
+        Map<String, Object> byThread = new LinkedHashMap<>();
+        for (Recorder r : RECORDERS) {
+            Map<String, Object> totals = new LinkedHashMap<>();
+            for (Phase phase : PHASES) {
+                LatencyHistogram h = r.histograms.get(phase.ordinal());
+                if (h != null && h.count() > 0) {
+                    totals.put(phase.jsonName + "TotalMs", Math.round(h.meanMicros() * h.count() / 10.0) / 100.0);
+                }
+            }
+            if (totals.isEmpty()) continue;
+            // Thread names are not unique (pool threads get reused names, virtual threads have none)
+            String name = r.thread.isEmpty() ? "(unnamed)" : r.thread;
+            for (int n = 2; byThread.containsKey(name); n++) name = r.thread + " #" + n;
+            byThread.put(name, totals);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("phases", phases);
+        report.put("slowestScenarios", SLOWEST_SCENARIOS.toList());
+        report.put("slowestSteps", SLOWEST_STEPS.toList());
+        report.put("threads", byThread);
+        return report;
+    }
+
+    /**
+     * Write report() to target/perf/perf-report.json (perf.dir). Returns the file, or null when timing is disabled,
+     * nothing was recorded, or the file could not be written.
+     */
+    public static Path writeReport() {
+        if (!ENABLED || RECORDERS.isEmpty()) return null;
+        try {
+            Files.createDirectories(REPORT.getParent());
+            Path tmp = REPORT.resolveSibling(REPORT.getFileName() + ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(report(), w);
+            }
+            Files.move(tmp, REPORT, StandardCopyOption.REPLACE_EXISTING);
+            return REPORT;
+        } catch (IOException e) {
+            System.out.println("[PhaseTimer] Could not write " + REPORT + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static synchronized Recorder register() {
+        Recorder r;
+        if (RECORDERS.size() < MAX_RECORDERS) {
+            r = new Recorder(Thread.currentThread().getName());
+        } else {
+            r = SHARED;
+            if (RECORDERS.contains(SHARED)) return r;
+        }
+        RECORDERS.add(r);
+        return r;
+    }
+
+    private static final class Recorder {
+        final String thread;
+        // Written by the recording thread(s), read by writeReport() on another thread
+        final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(PHASES.length);
+
+        Recorder(String thread) {
+            this.thread = thread;
+        }
+
+        LatencyHistogram histogram(Phase phase) {
+            LatencyHistogram h = histograms.get(phase.ordinal());
+            if (h == null) {
+                // Only SHARED can race here; the loser uses the winner's histogram
+                histograms.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+                h = histograms.get(phase.ordinal());
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.company.perf;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The N longest timings seen so far, with what they belong to. Offers shorter than the shortest kept entry are rejected
+ * by a single volatile read, so the common case neither locks nor allocates; labels are only built for entries that
+ * make the list.
+ */
+final class SlowestN {
+
+    private final int capacity;
+    private final String nameKey;
+    private final String contextKey;
+    private final PriorityQueue<Entry> heap;
+    // Shortest kept timing once the list is full; 0 until then
+    private volatile long threshold;
+
+    SlowestN(int capacity, String nameKey, String contextKey) {
+        this.capacity = Math.max(1, capacity);
+        this.nameKey = nameKey;
+        this.contextKey = contextKey;
+        this.heap = new PriorityQueue<>(this.capacity + 1, (a, b) -> Long.compare(a.nanos, b.nanos));
+    }
+
+    void offer(long nanos, String name, String context, Object uri, int line) {
+        if (nanos <= threshold) return;
+        synchronized (this) {
+            if (heap.size() >= capacity && nanos <= heap.peek().nanos) return;
+            heap.add(new Entry(nanos, name, context, uri == null ? null : location(uri) + ":" + line));
+            if (heap.size() > capacity) heap.poll();
+            if (heap.size() >= capacity) threshold = heap.peek().nanos;
+        }
+    }
+
+    // Feature files as project-relative paths ("src/test/resources/features/api/api.feature") rather than file: URIs
+    private static String location(Object uri) {
+        String s = uri.toString();
+        String cwd = Paths.get("").toAbsolutePath().toUri().toString();
+        return s.startsWith(cwd) ? s.substring(cwd.length()) : s;
+    }
+
+    /**
+     * Kept entries, longest first.
+     */
+    synchronized List<Map<String, Object>> toList() {
+        List<Entry> sorted = new ArrayList<>(heap);
+        sorted.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+        List<Map<String, Object>> out = new ArrayList<>(sorted.size());
+        for (Entry e : sorted) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put(nameKey, e.name);
+            m.put(contextKey, e.context);
+            m.put("location", e.location);
+            m.put("ms", Math.round(e.nanos / 10_000.0) / 100.0);
+            out.add(m);
+        }
+        return out;
+    }
+
+    private static final class Entry {
+        final long nanos;
+        final String name;
+        final String context;
+        final String location;
+
+        Entry(long nanos, String name, String context, String location) {
+            this.nanos = nanos;
+            this.name = name;
+            this.context = context;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.analytics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * FlakyIndex folds in only the complete lines appended since the last update, and starts over whenever the log or the
+ * index cannot be trusted. Every test compares the index with a full parse of the same log.
+ */
+public class FlakyIndexTest {
+
+    private Path log;
+    private Path index;
+
+    @BeforeMethod
+    public void createLog() throws IOException {
+        Path dir = Files.createTempDirectory("flaky-index");
+        log = dir.resolve("flaky.jsonl");
+        index = dir.resolve("flaky-index.bin");
+        append(lines(0, 40));
+    }
+
+    @Test
+    public void appendedLinesAreMergedIncrementally() throws IOException {
+        FlakyIndex first = FlakyIndex.update(log, index);
+        assertEquals(first.consumedOffset(), Files.size(log));
+        assertMatchesFullParse(first);
+
+        // Nothing appended: nothing is parsed again, so nothing is counted twice
+        assertMatchesFullParse(FlakyIndex.update(log, index));
+
+        long before = Files.size(log);
+        append(lines(40, 75));
+        FlakyIndex second = FlakyIndex.update(log, index);
+        assertEquals(second.consumedOffset(), Files.size(log));
+        assertMatchesFullParse(second);
+        assertEquals(total(second.aggregates()) - total(first.aggregates()), 35, "only the lines after offset " + before);
+    }
+
+    @Test
+    public void partialLineWaitsForItsNewline() throws IOException {
+        long complete = FlakyIndex.update(log, index).consumedOffset();
+        String next = line(40);
+        append(next.substring(0, 30));
+
+        FlakyIndex pending = FlakyIndex.update(log, index);
+        assertEquals(pending.consumedOffset(), complete);
+        assertEquals(total(pending.aggregates()), 40);
+
+        append(next.substring(30) + "\n");
+        FlakyIndex done = FlakyIndex.update(log, index);
+        assertEquals(done.consumedOffset(), Files.size(log));
+        assertEquals(total(done.aggregates()), 41);
+        assertMatchesFullParse(done);
+    }
+
+    @Test
+    public void truncatedLogIsRebuilt() throws IOException {
+        FlakyIndex.update(log, index);
+        Files.delete(log);
+        append(lines(100, 110));
+
+        FlakyIndex rebuilt = FlakyIndex.update(log, index);
+        assertEquals(total(rebuilt.aggregates()), 10);
+        assertMatchesFullParse(rebuilt);
+    }
+
+    @Test
+    public void replacedLogOfTheSameSizeIsRebuilt() throws IOException {
+        FlakyIndex.update(log, index);
+        // Same length, different first bytes: only the fingerprint tells the logs apart
+        byte[] bytes = Files.readAllBytes(log);
+        String replaced = new String(bytes, StandardCharsets.UTF_8).replace("Scenario ", "Scenariu ");
+        assertEquals(replaced.getBytes(StandardCharsets.UTF_8).length, bytes.length);
+        Files.writeString(log, replaced, StandardCharsets.UTF_8);
+        append(lines(40, 45));
+
+        FlakyIndex rebuilt = FlakyIndex.update(log, index);
+        assertEquals(total(rebuilt.aggregates()), 45);
+        assertMatchesFullParse(rebuilt);
+    }
+
+    @Test
+    public void unknownIndexFormatIsRebuilt() throws IOException {
+        FlakyIndex.update(log, index);
+        Files.write(index, "not an index".getBytes(StandardCharsets.UTF_8));
+        assertNull(FlakyIndex.load(index));
+        assertMatchesFullParse(FlakyIndex.update(log, index));
+
+        // Right magic, other version
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(index))) {
+            out.writeInt(0x464C5849);
+            out.writeInt(1);
+            out.writeLong(Files.size(log));
+        }
+        assertNull(FlakyIndex.load(index));
+        assertMatchesFullParse(FlakyIndex.update(log, index));
+        assertNotNull(FlakyIndex.load(index));
+    }
+
+    @Test
+    public void runIdsSurviveSaveAndLoad() throws IOException {
+        FlakyIndex saved = FlakyIndex.update(log, index);
+        FlakyIndex loaded = FlakyIndex.load(index);
+        assertNotNull(loaded);
+        assertEquals(loaded.consumedOffset(), saved.consumedOffset());
+
+        List<RunRegistry.Run> before = saved.runs().runs();
+        List<RunRegistry.Run> after = loaded.runs().runs();
+        assertEquals(after.size(), before.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(after.get(i).id, before.get(i).id);
+            assertEquals(after.get(i).name, before.get(i).name);
+            assertEquals(after.get(i).start.get(), before.get(i).start.get());
+        }
+        assertEquals(loaded.aggregates().keySet(), saved.aggregates().keySet());
+        for (Map.Entry<String, FlakyAnalytics.Aggregate> e : saved.aggregates().entrySet()) {
+            assertEquals(slots(loaded.aggregates().get(e.getKey()).history), slots(e.getValue().history), e.getKey());
+        }
+
+        // Runs appended after the reload keep resolving to the ids the loaded histories use
+        append(lines(40, 50));
+        assertMatchesFullParse(FlakyIndex.update(log, index));
+    }
+
+    private void assertMatchesFullParse(FlakyIndex actual) throws IOException {
+        RunRegistry runs = new RunRegistry();
+        Map<String, FlakyAnalytics.Aggregate> expected = FlakyAnalytics.parse(log, 0, actual.consumedOffset(), runs);
+        assertEquals(actual.aggregates().keySet(), expected.keySet());
+        for (Map.Entry<String, FlakyAnalytics.Aggregate> e : expected.entrySet()) {
+            FlakyAnalytics.Aggregate a = actual.aggregates().get(e.getKey());
+            assertEquals(a.count, e.getValue().count, e.getKey());
+            assertEquals(a.maxAttempt, e.getValue().maxAttempt, e.getKey());
+            assertEquals(a.lastSeen, e.getValue().lastSeen, e.getKey());
+            assertEquals(names(a.history, actual.runs()), names(e.getValue().history, runs), e.getKey());
+        }
+    }
+
+    // Run names of the history slots, so indexes built with different run ids compare equal
+    private static List<String> names(RunHistory h, RunRegistry runs) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < h.size(); i++) out.add(runs.get(h.runId(i)).name + "@" + h.time(i) + "#" + h.attempt(i));
+        return out;
+    }
+
+    private static List<String> slots(RunHistory h) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < h.size(); i++) out.add(h.runId(i) + "@" + h.time(i) + "#" + h.attempt(i));
+        return out;
+    }
+
+    private static int total(Map<String, FlakyAnalytics.Aggregate> aggregates) {
+        int n = 0;
+        for (FlakyAnalytics.Aggregate a : aggregates.values()) n += a.count;
+        return n;
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(log, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String lines(int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) sb.append(line(i)).append('\n');
+        return sb.toString();
+    }
+
+    private static String line(int i) {
+        return "{\"timestamp\":\"" + Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i * 600L) + "\",\"runId\":\"run-" + i / 10 + "\","
+                + "\"testClass\":\"com.company.runner.APITestNGRunner\",\"testMethod\":\"runScenario\","
+                + "\"scenario\":\"Scenario " + (i % 7) + "\",\"attempt\":" + (1 + i % 3) + ",\"status\":\"RETRY\"}";
+    }
+}
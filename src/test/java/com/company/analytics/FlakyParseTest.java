@@ -0,0 +1,94 @@
+package com.company.analytics;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Lines that straddle a mapped region must parse exactly as in a single mapping. The shipped region is 1 GB, so the
+ * tests shrink it through the package-private parseRange overload instead of generating a multi-GB log.
+ */
+public class FlakyParseTest {
+
+    @Test
+    public void linesStraddlingRegionsParseLikeOneMapping() throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            log.append(line(i)).append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) log.append('\n');
+        }
+        // trailing line without a newline, which must be parsed from the last region too
+        log.append(line(300));
+        Path file = write(log.toString());
+
+        Map<String, FlakyAnalytics.Aggregate> expected = parse(file, FlakyAnalytics.MAX_CHUNK_BYTES);
+        assertEquals(total(expected), 301);
+        // Every line is shorter than these regions, and each size puts the region ends at different points within lines
+        for (long regionBytes : new long[] {400, 401, 997, 4096}) {
+            Map<String, FlakyAnalytics.Aggregate> actual = parse(file, regionBytes);
+            assertEquals(actual.keySet(), expected.keySet(), "regionBytes=" + regionBytes);
+            for (Map.Entry<String, FlakyAnalytics.Aggregate> e : expected.entrySet()) {
+                FlakyAnalytics.Aggregate a = actual.get(e.getKey());
+                assertEquals(a.count, e.getValue().count, "regionBytes=" + regionBytes + " " + e.getKey());
+                assertEquals(a.maxAttempt, e.getValue().maxAttempt);
+                assertEquals(a.lastSeen, e.getValue().lastSeen);
+                assertEquals(a.history.size(), e.getValue().history.size());
+            }
+        }
+    }
+
+    @Test
+    public void lineLongerThanARegionFails() throws Exception {
+        Path file = write(line(0) + "\n" + line(1) + "\n");
+        int lineBytes = line(0).getBytes(StandardCharsets.UTF_8).length;
+        IOException e = expectThrows(IOException.class, () -> parse(file, lineBytes / 2));
+        assertTrue(e.getMessage().startsWith("Line longer than " + lineBytes / 2 + " bytes"), e.getMessage());
+    }
+
+    @Test
+    public void regionSizeIsBounded() {
+        assertThrows(IllegalArgumentException.class, () -> parse(write("x\n"), 0));
+        assertThrows(IllegalArgumentException.class, () -> parse(write("x\n"), FlakyAnalytics.MAX_CHUNK_BYTES + 1));
+    }
+
+    private static Map<String, FlakyAnalytics.Aggregate> parse(Path file, long regionBytes) throws IOException {
+        Map<String, FlakyAnalytics.Aggregate> into = new HashMap<>();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            FlakyAnalytics.parseRange(ch, 0, ch.size(), into, new RunRegistry(), regionBytes);
+        }
+        return into;
+    }
+
+    private static int total(Map<String, FlakyAnalytics.Aggregate> aggregates) {
+        int n = 0;
+        for (FlakyAnalytics.Aggregate a : aggregates.values()) n += a.count;
+        return n;
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("flaky-parse", ".jsonl");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // Lines vary in length (scenario names and attempts differ) so line ends fall at different region offsets
+    private static String line(int i) {
+        return "{\"timestamp\":\"" + Instant.parse("2026-01-01T00:00:00Z").plusSeconds(i * 60L) + "\",\"runId\":\"run-" + i / 30 + "\","
+                + "\"testClass\":\"com.company.runner.APITestNGRunner\",\"testMethod\":\"runScenario\","
+                + "\"scenario\":\"Scenario " + (i % 13) + "x".repeat(i % 11) + "\",\"attempt\":" + (1 + i % 3) + ",\"status\":\"RETRY\"}";
+    }
+}
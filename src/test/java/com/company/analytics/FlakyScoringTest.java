@@ -0,0 +1,117 @@
+package com.company.analytics;
+
+import com.company.config.PropertyConfig;
+import org.testng.annotations.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Per-run rates must be taken over every suite run, including the ones in which nothing retried.
+ */
+public class FlakyScoringTest {
+
+    private static final long NOW = Instant.parse("2026-01-10T12:00:00Z").toEpochMilli();
+
+    @Test
+    public void runStartMarkersCountCleanRuns() throws Exception {
+        Map<String, FlakyAnalytics.Aggregate> aggregates = new HashMap<>();
+        RunRegistry runs = new RunRegistry();
+        for (int i = 0; i < 10; i++) {
+            FlakyAnalytics.accumulate(runStart("b" + i, i), aggregates, runs);
+        }
+        FlakyAnalytics.accumulate(retry("b9", 9), aggregates, runs);
+
+        assertEquals(runs.size(), 10);
+        assertEquals(aggregates.size(), 1, "markers must not create test entries");
+        FlakyAnalytics.Recommendation r = score(aggregates, runs);
+        assertEquals(r.recentRunRate, 0.1, 1e-9);
+        assertTrue(r.last7DaysRate <= 0.1 + 1e-9, "last7DaysRate=" + r.last7DaysRate);
+    }
+
+    @Test
+    public void recentWindowIsTheLastRunsByStartTime() throws Exception {
+        Map<String, FlakyAnalytics.Aggregate> aggregates = new HashMap<>();
+        RunRegistry runs = new RunRegistry();
+        // 30 runs, retries only in the 10 oldest: none of them is among the 20 most recent runs
+        for (int i = 0; i < 30; i++) {
+            FlakyAnalytics.accumulate(runStart("b" + i, i), aggregates, runs);
+            if (i < 10) FlakyAnalytics.accumulate(retry("b" + i, i), aggregates, runs);
+        }
+        assertEquals(score(aggregates, runs).recentRunRate, 0.0, 1e-9);
+    }
+
+    @Test
+    public void logsWithoutMarkersStillScore() throws Exception {
+        Map<String, FlakyAnalytics.Aggregate> aggregates = new HashMap<>();
+        RunRegistry runs = new RunRegistry();
+        FlakyAnalytics.accumulate(retry("b1", 1), aggregates, runs);
+        // Without markers the only known run is the one that retried
+        assertEquals(score(aggregates, runs).recentRunRate, 1.0, 1e-9);
+    }
+
+    @Test
+    public void interleavedRetriesOfOneRunCountOnce() throws Exception {
+        Map<String, FlakyAnalytics.Aggregate> aggregates = new HashMap<>();
+        RunRegistry runs = new RunRegistry();
+        FlakyAnalytics.accumulate(runStart("a", 1), aggregates, runs);
+        for (int i = 0; i < 10; i++) {
+            FlakyAnalytics.accumulate(runStart("b" + i, 30 + i), aggregates, runs);
+        }
+        // Run b9's retries arrive split by one from run a, which is older than the 10 recent runs
+        FlakyAnalytics.accumulate(retry("b9", 39), aggregates, runs);
+        FlakyAnalytics.accumulate(retry("a", 1), aggregates, runs);
+        FlakyAnalytics.accumulate(retry("b9", 39), aggregates, runs);
+        FlakyAnalytics.Aggregate a = aggregates.values().iterator().next();
+        assertEquals(a.history.size(), 2, "one slot per run id");
+
+        PropertyConfig.set("flaky.score.recentRuns", "10");
+        try {
+            FlakyAnalytics.Recommendation r = score(aggregates, runs);
+            assertEquals(r.recentRunRate, 1 / 10.0, 1e-9);
+            assertEquals(r.last7DaysRate, Math.round(2 / 11.0 * 1000) / 1000.0, 1e-9);
+            assertTrue(r.decayedScore < 2.0, "decayedScore=" + r.decayedScore);
+        } finally {
+            PropertyConfig.set("flaky.score.recentRuns", null);
+        }
+    }
+
+    @Test
+    public void runSplitAcrossChunksMergesIntoOneSlot() {
+        RunHistory earlier = new RunHistory(8);
+        earlier.add(1, 1_000, 1);
+        earlier.add(2, 2_000, 1);
+        RunHistory later = new RunHistory(8);
+        later.add(1, 3_000, 2);
+        later.add(3, 4_000, 1);
+        earlier.appendAll(later);
+        assertEquals(earlier.size(), 3);
+        assertEquals(earlier.runId(0), 1);
+        assertEquals(earlier.attempt(0), 2);
+        assertEquals(earlier.time(0), 1_000);
+    }
+
+    private static FlakyAnalytics.Recommendation score(Map<String, FlakyAnalytics.Aggregate> aggregates, RunRegistry runs) {
+        FlakyAnalytics.Recommendation r = new FlakyAnalytics.Recommendation();
+        FlakyAnalytics.ScoringWindow.of(runs, NOW).score(aggregates.values().iterator().next().history, r);
+        return r;
+    }
+
+    // Runs an hour apart, the last one just before NOW
+    private static String timestamp(int run) {
+        return Instant.ofEpochMilli(NOW - (40 - run) * 3_600_000L).toString();
+    }
+
+    private static String runStart(String runId, int run) {
+        return "{\"event\":\"runStart\",\"runId\":\"" + runId + "\",\"timestamp\":\"" + timestamp(run) + "\"}";
+    }
+
+    private static String retry(String runId, int run) {
+        return "{\"timestamp\":\"" + timestamp(run) + "\",\"runId\":\"" + runId + "\",\"testClass\":\"com.company.runner.APITestNGRunner\","
+                + "\"testMethod\":\"runScenario\",\"scenario\":\"Get a post\",\"attempt\":1,\"status\":\"RETRY\"}";
+    }
+}
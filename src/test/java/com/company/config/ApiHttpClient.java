@@ -0,0 +1,220 @@
+package com.company.config;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import com.company.perf.PhaseTimer;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide HTTP layer for the API suite.
+ * Behavior:
+ *  - One keep-alive connection pool (api.pool.maxTotal / api.pool.maxPerRoute) behind a single reused HttpClient, so
+ *    scenarios share TCP/TLS connections instead of opening new ones.
+ *  - TLS trust is configured once here (api.tls.relaxed); nothing calls RestAssured.useRelaxedHTTPSValidation() per scenario.
+ *  - The base request/response specifications are built once; scenarios get copies from newRequestSpec()/newResponseSpec().
+ *  - Connection leases and newly opened connections are counted; hits are leases served by a pooled connection.
+ * The base URI comes from ApiStubServer (api.mode: live, stub or record). Settings live in api.properties.
+ * RestAssured 5 drives requests through HttpClient 4's AbstractHttpClient, so the client is built from the legacy
+ * (deprecated) DefaultHttpClient / SchemeRegistry / PoolingClientConnectionManager API; deprecation warnings are
+ * suppressed on exactly the members that build it.
+ */
+public final class ApiHttpClient {
+
+    private static final AtomicLong LEASES = new AtomicLong();
+    // Times every request sent through a spec from newRequestSpec() (PhaseTimer HTTP request phase)
+    private static final Filter TIMING = (request, response, ctx) -> {
+        long started = PhaseTimer.start();
+        try {
+            return ctx.next(request, response);
+        } finally {
+            PhaseTimer.stop(PhaseTimer.Phase.HTTP_REQUEST, started);
+        }
+    };
+    private static final AtomicLong OPENED = new AtomicLong();
+
+    private ApiHttpClient() { }
+
+    // Initialized on first use, i.e. when the first API scenario builds its specs
+    @SuppressWarnings("deprecation") // DefaultHttpClient: RestAssured requires an AbstractHttpClient
+    private static final class Holder {
+        static final CountingConnectionManager MANAGER = newConnectionManager();
+        static final DefaultHttpClient CLIENT = newClient(MANAGER);
+        static final RestAssuredConfig CONFIG = RestAssuredConfig.config().httpClient(
+                HttpClientConfig.httpClientConfig().reuseHttpClientInstance().httpClientFactory(() -> CLIENT));
+        static final RequestSpecification BASE_REQUEST = new RequestSpecBuilder()
+                .setConfig(CONFIG)
+                .addFilter(TIMING)
+                .setBaseUri(ApiStubServer.resolveBaseUri())
+                .setContentType(PropertyConfig.get("api.contentType", "application/json; charset=UTF-8"))
+                .build();
+        static final ResponseSpecification BASE_RESPONSE = new ResponseSpecBuilder()
+                .expectContentType(ContentType.JSON)
+                .build();
+
+        static {
+            // Requests that do not go through a spec (RestAssured.get(...)) use the same pooled client
+            RestAssured.config = CONFIG;
+            startIdleReaper(MANAGER);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println("[ApiHttpClient] " + describe());
+                MANAGER.shutdown();
+            }, "api-http-shutdown"));
+            System.out.println("[ApiHttpClient] Pool ready: maxTotal=" + MANAGER.getMaxTotal() + ", maxPerRoute=" + MANAGER.getDefaultMaxPerRoute()
+                    + ", relaxedTls=" + relaxedTls());
+        }
+    }
+
+    /**
+     * Fresh request specification for one scenario, copied from the shared base (base URI, content type, pooled client).
+     */
+    public static RequestSpecification newRequestSpec() {
+        return new RequestSpecBuilder().addRequestSpecification(Holder.BASE_REQUEST).build();
+    }
+
+    /**
+     * Fresh copy of the common response expectations (JSON content type).
+     */
+    public static ResponseSpecification newResponseSpec() {
+        return new ResponseSpecBuilder().addResponseSpecification(Holder.BASE_RESPONSE).build();
+    }
+
+    /**
+     * Common response expectations plus the expected status code.
+     */
+    public static ResponseSpecification newResponseSpec(int expectedStatusCode) {
+        return new ResponseSpecBuilder().addResponseSpecification(Holder.BASE_RESPONSE).expectStatusCode(expectedStatusCode).build();
+    }
+
+    // Connections handed to requests
+    public static long leases() {
+        return LEASES.get();
+    }
+
+    // Leases that needed a new TCP (and TLS) connection
+    public static long misses() {
+        return OPENED.get();
+    }
+
+    // Leases served by a kept-alive pooled connection
+    public static long hits() {
+        return Math.max(0, LEASES.get() - OPENED.get());
+    }
+
+    public static String describe() {
+        long leases = leases();
+        String rate = leases == 0 ? "n/a" : String.format("%.1f%%", 100.0 * hits() / leases);
+        PoolStats pool = Holder.MANAGER.getTotalStats();
+        return "Connection leases: " + leases + ", pool hits: " + hits() + ", misses: " + misses() + " (hit rate " + rate + ")"
+                + "; leased=" + pool.getLeased() + ", idle=" + pool.getAvailable() + ", pending=" + pool.getPending();
+    }
+
+    private static boolean relaxedTls() {
+        return PropertyConfig.getBoolean("api.tls.relaxed", true);
+    }
+
+    @SuppressWarnings("deprecation") // HttpClient 4 legacy connection API, see class comment
+    private static CountingConnectionManager newConnectionManager() {
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+        SSLSocketFactory tls;
+        if (relaxedTls()) {
+            try {
+                tls = new SSLSocketFactory((chain, authType) -> true, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not initialize relaxed TLS for the API client", e);
+            }
+        } else {
+            tls = SSLSocketFactory.getSocketFactory();
+        }
+        schemes.register(new Scheme("https", 443, tls));
+
+        CountingConnectionManager manager = new CountingConnectionManager(schemes,
+                PropertyConfig.getLong("api.pool.ttlSeconds", 300));
+        manager.setMaxTotal(PropertyConfig.getInt("api.pool.maxTotal", 50));
+        manager.setDefaultMaxPerRoute(PropertyConfig.getInt("api.pool.maxPerRoute", 20));
+        return manager;
+    }
+
+    @SuppressWarnings("deprecation") // HttpClient 4 legacy connection API, see class comment
+    private static DefaultHttpClient newClient(CountingConnectionManager manager) {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, PropertyConfig.getInt("api.timeout.connectMs", 10000));
+        HttpConnectionParams.setSoTimeout(params, PropertyConfig.getInt("api.timeout.readMs", 30000));
+        // Pooled connections may have been closed by the server while idle
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        HttpConnectionParams.setTcpNoDelay(params, true);
+        return new DefaultHttpClient(manager, params);
+    }
+
+    // Drop connections the server is likely to have closed so a lease does not pick a dead socket
+    private static void startIdleReaper(CountingConnectionManager manager) {
+        long idleSeconds = PropertyConfig.getLong("api.pool.idleSeconds", 30);
+        ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "api-http-idle-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+        }, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+    }
+
+    // Pooling manager that counts every lease, and every connection it has to open for one
+    @SuppressWarnings("deprecation") // HttpClient 4 legacy connection API, see class comment
+    private static final class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        CountingConnectionManager(SchemeRegistry schemes, long ttlSeconds) {
+            super(schemes, ttlSeconds, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            LEASES.incrementAndGet();
+            return super.requestConnection(route, state);
+        }
+
+        // Called from the superclass constructor, so it must not rely on instance fields
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+            return new DefaultClientConnectionOperator(schemes) {
+                @Override
+                public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local, HttpContext context, HttpParams params)
+                        throws IOException {
+                    OPENED.incrementAndGet();
+                    super.openConnection(conn, target, local, context, params);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.company.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process HTTP server standing in for the API under test, selected with api.mode:
+ *  - live:   no server; scenarios call api.baseUri directly (default).
+ *  - stub:   opt-in (-Dapi.mode=stub or the ci profile); responses are served from the fixtures in api.fixtures.dir, loaded into memory once. No network is needed.
+ *  - record: requests are forwarded to api.baseUri and each response is saved as a fixture, then returned.
+ * Fixtures are JSON files: method, path (including any query string), optional requestBody (only a request with that
+ * exact body matches), status, headers and body. Requests without a fixture get a 501 naming the missing fixture.
+ */
+public final class ApiStubServer {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final Set<String> FORWARDED_HEADERS = Set.of("content-type", "accept", "authorization");
+
+    private final HttpServer server;
+    private final Path fixturesDir;
+    private final boolean recording;
+    private final URI upstream;
+    private final HttpClient upstreamClient;
+    // "METHOD /path?query" -> fixtures for that request, body-specific ones first
+    private final Map<String, List<Fixture>> fixtures = new ConcurrentHashMap<>();
+
+    // Package-private for tests; scenarios get the shared instance through resolveBaseUri()
+    ApiStubServer(Path fixturesDir, boolean recording, URI upstream) throws IOException {
+        this.fixturesDir = fixturesDir;
+        this.recording = recording;
+        this.upstream = upstream;
+        this.upstreamClient = recording ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build() : null;
+        if (!recording) loadFixtures();
+
+        // Without TCP_NODELAY small responses can wait for the client's delayed ACK (~40 ms) before they are sent
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        AtomicInteger n = new AtomicInteger();
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "api-stub-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }));
+        // The dispatcher thread inherits the daemon flag of the thread that starts the server; a non-daemon dispatcher
+        // would keep the JVM alive after the suite (the shutdown hook that stops it would never run)
+        Thread starter = new Thread(server::start, "api-stub-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Started on first use, i.e. when the API specs are built in stub or record mode
+    private static final class Holder {
+        static final ApiStubServer INSTANCE = start();
+
+        private static ApiStubServer start() {
+            String mode = mode();
+            Path dir = Paths.get(PropertyConfig.get("api.fixtures.dir", "src/test/resources/fixtures/api"));
+            try {
+                ApiStubServer stub = new ApiStubServer(dir, "record".equals(mode), URI.create(liveBaseUri()));
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> stub.server.stop(0), "api-stub-shutdown"));
+                System.out.println("[ApiStubServer] " + ("record".equals(mode) ? "Recording " + liveBaseUri() + " into " + dir : "Serving "
+                        + stub.fixtureCount() + " fixture(s) from " + dir + "; " + liveBaseUri() + " is not called") + " on " + stub.baseUri());
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start the API stub server (api.mode=" + mode + ")", e);
+            }
+        }
+    }
+
+    /**
+     * live | stub | record (api.mode).
+     */
+    public static String mode() {
+        String mode = PropertyConfig.get("api.mode", "live").trim().toLowerCase(Locale.ROOT);
+        if (!mode.equals("live") && !mode.equals("stub") && !mode.equals("record")) {
+            throw new IllegalArgumentException("Unsupported api.mode '" + mode + "'; use live, stub or record");
+        }
+        return mode;
+    }
+
+    /**
+     * Base URI the API scenarios should call: api.baseUri in live mode, the in-process server otherwise.
+     */
+    public static String resolveBaseUri() {
+        return "live".equals(mode()) ? liveBaseUri() : Holder.INSTANCE.baseUri();
+    }
+
+    private static String liveBaseUri() {
+        return PropertyConfig.get("api.baseUri", "https://jsonplaceholder.typicode.com");
+    }
+
+    public String baseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private int fixtureCount() {
+        int n = 0;
+        for (List<Fixture> list : fixtures.values()) n += list.size();
+        return n;
+    }
+
+    private void loadFixtures() throws IOException {
+        if (!Files.isDirectory(fixturesDir)) {
+            System.out.println("[ApiStubServer] Fixture directory " + fixturesDir + " does not exist; every request will get a 501");
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(fixturesDir, "*.json")) {
+            for (Path file : files) {
+                try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    add(Fixture.from(JsonParser.parseReader(r).getAsJsonObject()));
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid fixture " + file + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void add(Fixture f) {
+        fixtures.compute(f.key(), (k, list) -> {
+            List<Fixture> updated = list == null ? new ArrayList<>() : new ArrayList<>(list);
+            updated.removeIf(existing -> existing.sameRequest(f));
+            // Body-specific fixtures are tried before catch-all ones
+            if (f.requestBody != null) updated.add(0, f);
+            else updated.add(f);
+            return updated;
+        });
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            String path = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : "");
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            Fixture fixture = recording ? record(exchange, method, path, body) : match(method, path, body);
+            if (fixture == null) {
+                String missing = "{\"error\":\"No fixture for " + method + " " + path.replace("\"", "\\\"") + " in " + fixturesDir
+                        + "; run once with -Dapi.mode=record to capture it\"}";
+                fixture = new Fixture(method, path, null, 501, Map.of("Content-Type", "application/json"), missing.getBytes(StandardCharsets.UTF_8));
+            }
+            fixture.headers.forEach((k, v) -> exchange.getResponseHeaders().set(k, v));
+            exchange.sendResponseHeaders(fixture.status, fixture.body.length == 0 ? -1 : fixture.body.length);
+            if (fixture.body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(fixture.body);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("[ApiStubServer] Failed to handle " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Fixture match(String method, String path, String body) {
+        List<Fixture> candidates = fixtures.get(method + " " + path);
+        if (candidates == null) return null;
+        String normalized = normalize(body);
+        for (Fixture f : candidates) {
+            if (f.requestBody == null || f.requestBody.equals(normalized)) return f;
+        }
+        return null;
+    }
+
+    private Fixture record(HttpExchange exchange, String method, String path, String body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upstream.toString().replaceAll("/+$", "") + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (FORWARDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) values.forEach(v -> request.header(name, v));
+        });
+        HttpResponse<byte[]> response;
+        try {
+            response = upstreamClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + method + " " + path, e);
+        }
+
+        String contentType = response.headers().firstValue("Content-Type").orElse("application/json");
+        Fixture f = new Fixture(method, path, body.isEmpty() ? null : normalize(body), response.statusCode(),
+                Map.of("Content-Type", contentType), response.body());
+        Path file = fixturesDir.resolve(f.fileName());
+        Files.createDirectories(fixturesDir);
+        Path tmp = Files.createTempFile(fixturesDir, ".recording", ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(f.toJson(), w);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("[ApiStubServer] Recorded " + method + " " + path + " -> " + response.statusCode() + " into " + file.getFileName());
+        return f;
+    }
+
+    // JSON bodies compare by content, not formatting; anything else compares trimmed
+    private static String normalize(String body) {
+        if (body == null) return null;
+        String trimmed = body.trim();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            try {
+                return JsonParser.parseString(trimmed).toString();
+            } catch (JsonSyntaxException ignored) { }
+        }
+        return trimmed;
+    }
+
+    private static final class Fixture {
+        final String method;
+        final String path;
+        final String requestBody;
+        final int status;
+        final Map<String, String> headers;
+        final byte[] body;
+
+        Fixture(String method, String path, String requestBody, int status, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.path = path;
+            this.requestBody = requestBody;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static Fixture from(JsonObject json) {
+            String method = json.get("method").getAsString().toUpperCase(Locale.ROOT);
+            String path = json.get("path").getAsString();
+            JsonElement requestBody = json.get("requestBody");
+            Map<String, String> headers = new ConcurrentHashMap<>();
+            if (json.has("headers")) {
+                json.getAsJsonObject("headers").entrySet().forEach(e -> headers.put(e.getKey(), e.getValue().getAsString()));
+            }
+            headers.putIfAbsent("Content-Type", "application/json; charset=utf-8");
+            // The response body is serialized once here, so serving it is a plain byte copy
+            JsonElement body = json.get("body");
+            byte[] bytes = body == null || body.isJsonNull() ? new byte[0]
+                    : (body.isJsonPrimitive() && body.getAsJsonPrimitive().isString() ? body.getAsString() : body.toString()).getBytes(StandardCharsets.UTF_8);
+            return new Fixture(method, path,
+                    requestBody == null || requestBody.isJsonNull() ? null
+                            : normalize(requestBody.isJsonPrimitive() ? requestBody.getAsString() : requestBody.toString()),
+                    json.has("status") ? json.get("status").getAsInt() : 200, headers, bytes);
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("method", method);
+            json.addProperty("path", path);
+            if (requestBody != null) json.add("requestBody", parseOrString(requestBody));
+            json.addProperty("status", status);
+            JsonObject h = new JsonObject();
+            headers.forEach(h::addProperty);
+            json.add("headers", h);
+            json.add("body", parseOrString(new String(body, StandardCharsets.UTF_8)));
+            return json;
+        }
+
+        String key() {
+            return method + " " + path;
+        }
+
+        boolean sameRequest(Fixture other) {
+            return key().equals(other.key()) && (requestBody == null ? other.requestBody == null : requestBody.equals(other.requestBody));
+        }
+
+        // GET_posts_1.json, POST_posts-1a2b3c4d.json (request bodies get a hash suffix so variants do not overwrite each other)
+        String fileName() {
+            String name = method + "_" + path.replaceAll("^/+", "").replaceAll("[^A-Za-z0-9._-]+", "_");
+            if (requestBody != null) name += "-" + String.format("%08x", requestBody.hashCode());
+            return name + ".json";
+        }
+
+        // Keep JSON bodies as JSON in the fixture file so they stay readable and editable
+        private static JsonElement parseOrString(String text) {
+            String normalized = normalize(text);
+            if (normalized.startsWith("{") || normalized.startsWith("[")) {
+                try {
+                    return JsonParser.parseString(normalized);
+                } catch (JsonSyntaxException ignored) { }
+            }
+            return new JsonPrimitive(text);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.company.config;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Fixture matching in stub mode and the fixture files record mode writes. Each test runs its own server on a
+ * temporary fixture directory, so none of them touch src/test/resources/fixtures/api or the network.
+ */
+public class ApiStubServerTest {
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    @Test
+    public void bodySpecificFixtureWinsOverCatchAll() throws Exception {
+        Path dir = Files.createTempDirectory("api-fixtures");
+        // The catch-all is written first, so the order files are listed in cannot decide the match
+        fixture(dir, "POST_posts.json", "POST", "/posts", null, 201, "{\"id\":101}");
+        fixture(dir, "POST_posts-special.json", "POST", "/posts", "{\"title\":\"special\",\"userId\":1}", 201, "{\"id\":7}");
+        ApiStubServer stub = new ApiStubServer(dir, false, URI.create("http://127.0.0.1:9"));
+        try {
+            // The same JSON with other whitespace still matches the body-specific fixture
+            assertEquals(send(stub, "POST", "/posts", "{ \"title\": \"special\",\n  \"userId\": 1 }").body(), "{\"id\":7}");
+            assertEquals(send(stub, "POST", "/posts", "{\"title\":\"other\",\"userId\":1}").body(), "{\"id\":101}");
+            assertEquals(send(stub, "POST", "/posts", "").statusCode(), 201);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void missingFixtureGets501NamingIt() throws Exception {
+        Path dir = Files.createTempDirectory("api-fixtures");
+        fixture(dir, "GET_posts_1.json", "GET", "/posts/1", null, 200, "{\"id\":1}");
+        ApiStubServer stub = new ApiStubServer(dir, false, URI.create("http://127.0.0.1:9"));
+        try {
+            assertEquals(send(stub, "GET", "/posts/1", "").statusCode(), 200);
+            HttpResponse<String> missing = send(stub, "GET", "/posts/2?full=true", "");
+            assertEquals(missing.statusCode(), 501);
+            String error = JsonParser.parseString(missing.body()).getAsJsonObject().get("error").getAsString();
+            assertTrue(error.startsWith("No fixture for GET /posts/2?full=true in " + dir), error);
+            assertTrue(error.contains("-Dapi.mode=record"), error);
+            // The method is part of the key
+            assertEquals(send(stub, "DELETE", "/posts/1", "").statusCode(), 501);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void recordingsAreNamedAfterMethodPathAndBodyHash() throws Exception {
+        Path upstreamDir = Files.createTempDirectory("api-fixtures");
+        fixture(upstreamDir, "GET_posts_1.json", "GET", "/posts/1", null, 200, "{\"id\":1}");
+        fixture(upstreamDir, "POST_posts.json", "POST", "/posts", null, 201, "{\"id\":101}");
+        fixture(upstreamDir, "GET_comments.json", "GET", "/comments?postId=1", null, 200, "[]");
+        ApiStubServer upstream = new ApiStubServer(upstreamDir, false, URI.create("http://127.0.0.1:9"));
+        Path dir = Files.createTempDirectory("api-recordings");
+        ApiStubServer recorder = new ApiStubServer(dir, true, URI.create(upstream.baseUri()));
+        try {
+            assertEquals(send(recorder, "GET", "/posts/1", "").body(), "{\"id\":1}");
+            assertEquals(send(recorder, "GET", "/comments?postId=1", "").statusCode(), 200);
+            send(recorder, "POST", "/posts", "{\"title\":\"a\"}");
+            send(recorder, "POST", "/posts", "{\"title\":\"b\"}");
+            // A reformatted body is the same request and overwrites its recording
+            send(recorder, "POST", "/posts", "{ \"title\" : \"a\" }");
+        } finally {
+            recorder.stop();
+            upstream.stop();
+        }
+
+        List<String> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+        assertEquals(files, List.of("GET_comments_postId_1.json", "GET_posts_1.json",
+                "POST_posts-" + String.format("%08x", "{\"title\":\"a\"}".hashCode()) + ".json",
+                "POST_posts-" + String.format("%08x", "{\"title\":\"b\"}".hashCode()) + ".json"));
+
+        JsonObject recorded = JsonParser.parseString(Files.readString(dir.resolve("GET_posts_1.json"))).getAsJsonObject();
+        assertEquals(recorded.get("method").getAsString(), "GET");
+        assertEquals(recorded.get("path").getAsString(), "/posts/1");
+        assertEquals(recorded.get("status").getAsInt(), 200);
+        assertTrue(!recorded.has("requestBody"));
+
+        // A recording replays as a fixture
+        ApiStubServer stub = new ApiStubServer(dir, false, URI.create("http://127.0.0.1:9"));
+        try {
+            assertEquals(send(stub, "GET", "/posts/1", "").body(), "{\"id\":1}");
+            assertEquals(send(stub, "POST", "/posts", "{\"title\":\"b\"}").body(), "{\"id\":101}");
+            assertEquals(send(stub, "POST", "/posts", "{\"title\":\"c\"}").statusCode(), 501);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private static HttpResponse<String> send(ApiStubServer stub, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(stub.baseUri() + path))
+                .header("Content-Type", "application/json")
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void fixture(Path dir, String file, String method, String path, String requestBody, int status, String body) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("method", method);
+        json.addProperty("path", path);
+        if (requestBody != null) json.add("requestBody", JsonParser.parseString(requestBody));
+        json.addProperty("status", status);
+        json.add("body", JsonParser.parseString(body));
+        Files.writeString(dir.resolve(file), json.toString(), StandardCharsets.UTF_8);
+    }
+}
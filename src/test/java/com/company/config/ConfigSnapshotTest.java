@@ -0,0 +1,102 @@
+package com.company.config;
+
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Typed reads of one snapshot: parsing, blank values treated as unset, errors that name the key, and secret masking.
+ */
+public class ConfigSnapshotTest {
+
+    private static ConfigSnapshot snapshot(String... keyValues) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) values.put(keyValues[i], keyValues[i + 1]);
+        return new ConfigSnapshot(values, Map.of(), 1);
+    }
+
+    @Test
+    public void typedValuesParse() throws Exception {
+        ConfigSnapshot c = snapshot("b1", "yes", "b2", " OFF ", "b3", "1", "i", " 42 ", "l", "12345678901", "d", "0.25",
+                "u", "http://localhost:4723/wd/hub", "t1", "500ms", "t2", "PT30S", "t3", "90", "t4", "2h");
+        assertTrue(c.getBoolean("b1", false));
+        assertFalse(c.getBoolean("b2", true));
+        assertTrue(c.getBoolean("b3", false));
+        assertEquals(c.getInt("i", 0), 42);
+        assertEquals(c.getLong("l", 0), 12345678901L);
+        assertEquals(c.getDouble("d", 0), 0.25);
+        assertEquals(c.getUrl("u", null), new URL("http://localhost:4723/wd/hub"));
+        assertEquals(c.getDuration("t1", null, ChronoUnit.SECONDS), Duration.ofMillis(500));
+        assertEquals(c.getDuration("t2", null, ChronoUnit.SECONDS), Duration.ofSeconds(30));
+        // A bare number is read in the unit of the call, and memoized per unit
+        assertEquals(c.getDuration("t3", null, ChronoUnit.SECONDS), Duration.ofSeconds(90));
+        assertEquals(c.getDuration("t3", null, ChronoUnit.MILLIS), Duration.ofMillis(90));
+        assertEquals(c.getDuration("t4", null, ChronoUnit.SECONDS), Duration.ofHours(2));
+    }
+
+    @Test
+    public void typedValuesAreParsedOnce() {
+        ConfigSnapshot c = snapshot("l", "12345678901", "t", "5m");
+        assertSame(c.getDuration("t", null, ChronoUnit.SECONDS), c.getDuration("t", null, ChronoUnit.SECONDS));
+        // The same key read as another type is parsed for that type, not served from the first one's memo
+        assertEquals(c.getLong("l", 0), 12345678901L);
+        expectThrows(IllegalArgumentException.class, () -> c.getInt("l", 0));
+    }
+
+    @Test
+    public void blankIsUnset() {
+        ConfigSnapshot c = snapshot("s", "", "b", "  ", "i", "", "t", " ", "u", "");
+        assertEquals(c.get("s", "fallback"), "fallback");
+        assertEquals(c.get("missing", "fallback"), "fallback");
+        assertTrue(c.getBoolean("b", true));
+        assertEquals(c.getInt("i", 7), 7);
+        assertEquals(c.getDuration("t", Duration.ofSeconds(3), ChronoUnit.SECONDS), Duration.ofSeconds(3));
+        assertNull(c.getUrl("u", ""));
+        assertTrue(c.validate(Map.of("b", ConfigSnapshot.Type.BOOLEAN, "i", ConfigSnapshot.Type.INT,
+                "t", ConfigSnapshot.Type.DURATION)).isEmpty());
+    }
+
+    @Test
+    public void invalidValuesNameTheKey() {
+        ConfigSnapshot c = snapshot("web.pool.size", "four", "web.headless", "maybe", "api.timeout", "10 weeks",
+                "appium.url", "http://bad host");
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> c.getInt("web.pool.size", 1));
+        assertTrue(e.getMessage().startsWith("web.pool.size='four' is not a valid int"), e.getMessage());
+        e = expectThrows(IllegalArgumentException.class, () -> c.getBoolean("web.headless", false));
+        assertTrue(e.getMessage().startsWith("web.headless='maybe' is not a valid boolean"), e.getMessage());
+        e = expectThrows(IllegalArgumentException.class, () -> c.getDuration("api.timeout", null, ChronoUnit.SECONDS));
+        assertTrue(e.getMessage().startsWith("api.timeout='10 weeks' is not a valid duration"), e.getMessage());
+
+        List<String> errors = c.validate(Map.of("web.pool.size", ConfigSnapshot.Type.INT, "web.headless", ConfigSnapshot.Type.BOOLEAN,
+                "api.timeout", ConfigSnapshot.Type.DURATION, "appium.url", ConfigSnapshot.Type.URL, "absent", ConfigSnapshot.Type.INT));
+        assertEquals(errors.size(), 4, errors.toString());
+        for (String key : List.of("web.pool.size", "web.headless", "api.timeout", "appium.url")) {
+            assertTrue(errors.stream().anyMatch(m -> m.startsWith(key + "=")), key + " in " + errors);
+        }
+    }
+
+    @Test
+    public void secretsAreMasked() {
+        for (String key : List.of("db.password", "DB_PASSWD", "api.token", "client-secret", "aws.accessKey", "AWS_ACCESS_KEY",
+                "service.apiKey", "git.credentials", "ssh.private-key")) {
+            assertEquals(ConfigSnapshot.printable(key, "hunter2"), "****", key);
+        }
+        assertEquals(ConfigSnapshot.printable("api.baseUri", "https://example.com"), "https://example.com");
+        assertEquals(ConfigSnapshot.printable("web.headless", "true"), "true");
+        // Nothing to hide in an empty value
+        assertEquals(ConfigSnapshot.printable("db.password", ""), "");
+        assertNull(ConfigSnapshot.printable("db.password", null));
+    }
+}
@@ -0,0 +1,182 @@
+package com.company.config;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * How PropertyConfig merges its layers. Snapshots are built from a temporary classpath directory, checkout directory,
+ * environment and system properties, so the JVM-wide configuration other tests read is not touched (except by the
+ * set()/reload() tests, which restore it).
+ */
+public class PropertyConfigTest {
+
+    private Path root;
+    private Path classpath;
+    private Path checkout;
+    private URLClassLoader loader;
+
+    @BeforeMethod
+    public void createLayers() throws IOException {
+        root = Files.createTempDirectory("property-config");
+        classpath = root.resolve("classes");
+        checkout = root.resolve("checkout").resolve("properties");
+        Files.createDirectories(classpath.resolve("properties"));
+        Files.createDirectories(checkout);
+        // No parent: only the temporary directory is on this classpath
+        loader = new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeLoader() throws IOException {
+        loader.close();
+    }
+
+    @Test
+    public void checkoutFileReplacesTheClasspathCopy() throws IOException {
+        write(classpath.resolve("properties/web.properties"), "web.browserName=chrome", "web.pool.size=2");
+        write(classpath.resolve("properties/api.properties"), "api.mode=live");
+        write(checkout.resolve("web.properties"), "web.browserName=firefox");
+
+        ConfigSnapshot c = build(List.of(), Map.of(), new Properties());
+        assertEquals(c.get("web.browserName", null), "firefox");
+        assertEquals(c.origin("web.browserName"), checkout.resolve("web.properties").toString());
+        // The whole classpath file is replaced, not merged key by key
+        assertNull(c.get("web.pool.size", null));
+        assertEquals(c.get("api.mode", null), "live");
+        assertEquals(c.origin("api.mode"), classpath.resolve("properties/api.properties").toString());
+    }
+
+    @Test
+    public void laterFileNameWinsWithinALayer() throws IOException {
+        // Written in reverse order, so the directory listing order cannot be what decides
+        write(classpath.resolve("properties/b.properties"), "shared=b");
+        write(classpath.resolve("properties/a.properties"), "shared=a", "onlyA=1");
+
+        ConfigSnapshot c = build(List.of(), Map.of(), new Properties());
+        assertEquals(c.get("shared", null), "b");
+        assertEquals(c.origin("shared"), classpath.resolve("properties/b.properties").toString());
+        assertEquals(c.get("onlyA", null), "1");
+    }
+
+    @Test
+    public void laterProfilesOverrideEarlierOnes() throws IOException {
+        write(classpath.resolve("properties/web.properties"), "web.headless=false", "web.browserName=chrome", "web.pool.size=1");
+        write(classpath.resolve("properties/ci/ci.properties"), "web.headless=true", "web.pool.size=4");
+        write(classpath.resolve("properties/docker/docker.properties"), "web.pool.size=8");
+
+        ConfigSnapshot c = build(List.of("ci", "docker"), Map.of(), new Properties());
+        assertEquals(c.get("web.browserName", null), "chrome");
+        assertEquals(c.get("web.headless", null), "true");
+        assertEquals(c.get("web.pool.size", null), "8");
+        assertEquals(c.origin("web.pool.size"), classpath.resolve("properties/docker/docker.properties").toString());
+
+        assertEquals(build(List.of("docker", "ci"), Map.of(), new Properties()).get("web.pool.size", null), "4");
+        // A profile without files changes nothing
+        assertEquals(build(List.of("absent"), Map.of(), new Properties()).get("web.pool.size", null), "1");
+    }
+
+    @Test
+    public void environmentBindsRelaxedNamesOfKnownKeys() throws IOException {
+        write(classpath.resolve("properties/web.properties"), "web.pool.size=2", "sauce.accessKey=file", "web.browserName=chrome");
+
+        ConfigSnapshot c = build(List.of(), Map.of("WEB_POOL_SIZE", "6", "SAUCE_ACCESS_KEY", "from-env", "PATH", "/usr/bin",
+                "SHARD_TOTAL", "3", "WEB_BROWSERNAME", " "), new Properties());
+        assertEquals(c.get("web.pool.size", null), "6");
+        assertEquals(c.origin("web.pool.size"), "env WEB_POOL_SIZE");
+        assertEquals(c.get("sauce.accessKey", null), "from-env");
+        // Keys only the schema knows bind too; unrelated variables never enter the configuration
+        assertEquals(c.get("shard.total", null), "3");
+        assertFalse(c.asMap().containsKey("PATH") || c.asMap().containsKey("path"));
+        // A blank variable is "not set": the file's value stays
+        assertEquals(c.get("web.browserName", null), "chrome");
+        assertEquals(c.origin("web.browserName"), classpath.resolve("properties/web.properties").toString());
+    }
+
+    @Test
+    public void systemPropertiesOverrideEnvironmentUnlessBlank() throws IOException {
+        write(classpath.resolve("properties/web.properties"), "web.pool.size=2", "web.browserName=chrome");
+        Properties system = new Properties();
+        system.setProperty("web.pool.size", "9");
+        system.setProperty("web.browserName", "");
+
+        ConfigSnapshot c = build(List.of(), Map.of("WEB_POOL_SIZE", "6", "WEB_BROWSER_NAME", "edge"), system);
+        assertEquals(c.get("web.pool.size", null), "9");
+        assertEquals(c.origin("web.pool.size"), "system property");
+        // -Dweb.browserName= falls through to the environment
+        assertEquals(c.get("web.browserName", null), "edge");
+        assertEquals(c.origin("web.browserName"), "env WEB_BROWSER_NAME");
+    }
+
+    @Test
+    public void describeShowsOriginsAndMasksSecrets() throws IOException {
+        write(classpath.resolve("properties/web.properties"), "web.pool.size=2", "sauce.accessKey=abc123");
+        Properties system = new Properties();
+        system.setProperty("java.version", "17");
+        system.setProperty("web.headless", "true");
+
+        String described = PropertyConfig.describe(build(List.of("ci"), Map.of(), system), List.of("ci"));
+        assertTrue(described.startsWith("[PropertyConfig] Effective configuration (version 1, profile ci):"), described);
+        assertTrue(described.contains("web.pool.size = 2  (" + classpath.resolve("properties/web.properties") + ")"), described);
+        assertTrue(described.contains("web.headless = true  (system property)"), described);
+        assertTrue(described.contains("sauce.accessKey = ****"), described);
+        assertFalse(described.contains("abc123"), described);
+        // JVM properties are left out
+        assertFalse(described.contains("java.version"), described);
+    }
+
+    @Test
+    public void setRejectsAnInvalidValue() {
+        ConfigSnapshot before = PropertyConfig.snapshot();
+        assertFalse(PropertyConfig.set("web.pool.size", "four"));
+        assertTrue(PropertyConfig.snapshot() == before, "snapshot replaced");
+
+        assertTrue(PropertyConfig.set("web.pool.size", "3"));
+        try {
+            assertEquals(PropertyConfig.getInt("web.pool.size", 0), 3);
+            assertEquals(PropertyConfig.snapshot().origin("web.pool.size"), "set()");
+            // A rejected value leaves the previous override in place
+            assertFalse(PropertyConfig.set("web.pool.size", "-"));
+            assertEquals(PropertyConfig.getInt("web.pool.size", 0), 3);
+        } finally {
+            PropertyConfig.set("web.pool.size", null);
+        }
+    }
+
+    @Test
+    public void reloadRejectsAnInvalidSnapshot() {
+        ConfigSnapshot before = PropertyConfig.snapshot();
+        System.setProperty("web.headless", "maybe");
+        try {
+            assertFalse(PropertyConfig.reload());
+            assertTrue(PropertyConfig.snapshot() == before, "snapshot replaced");
+        } finally {
+            System.clearProperty("web.headless");
+        }
+        assertTrue(PropertyConfig.reload());
+    }
+
+    private ConfigSnapshot build(List<String> profiles, Map<String, String> env, Properties system) {
+        return PropertyConfig.build(1, false, loader, checkout, profiles, env, system, Map.of());
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+    }
+}
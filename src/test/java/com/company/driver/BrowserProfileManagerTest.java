@@ -0,0 +1,58 @@
+package com.company.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * A browser whose template cannot be built is launched once per JVM, not once per session, and leaves no partial
+ * template directory behind.
+ */
+public class BrowserProfileManagerTest {
+
+    @Test
+    public void failedTemplateIsNotRebuiltForEverySession() throws Exception {
+        String browser = "failing" + System.nanoTime();
+        List<Path> launches = new ArrayList<>();
+        Function<Path, WebDriver> launcher = dir -> {
+            launches.add(dir);
+            throw new IllegalStateException("browser did not start");
+        };
+
+        BrowserProfileManager.prepare(browser, launcher);
+        Path first = BrowserProfileManager.newProfile(browser, launcher);
+        Path second = BrowserProfileManager.newProfile(browser, launcher);
+        try {
+            assertEquals(launches.size(), 1, "launches: " + launches);
+            Path partial = launches.get(0);
+            assertTrue(partial.getFileName().toString().startsWith(browser + "-template-"), partial.toString());
+            assertFalse(Files.exists(partial), "partial template left behind: " + partial);
+            try (Stream<Path> users = Files.list(partial.getParent().resolve(".template-users"))) {
+                assertFalse(users.anyMatch(p -> p.getFileName().toString().equals(partial.getFileName().toString())));
+            } catch (NoSuchFileException noUsersYet) {
+                // nothing was ever registered under this root
+            }
+
+            // Sessions still get their own empty profile
+            assertTrue(Files.isDirectory(first) && Files.isDirectory(second));
+            assertFalse(first.equals(second));
+            try (Stream<Path> files = Files.list(first)) {
+                assertEquals(files.count(), 0L);
+            }
+        } finally {
+            BrowserProfileManager.discard(first);
+            BrowserProfileManager.discard(second);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * DeviceInventory against the fake adb script: parsing of "adb devices" and dumpsys output, and the once-per-device
+ * Chrome version lookup, and the timeout on a hung adb.
+ */
+public class DeviceInventoryTest {
+
+    private FakeAdb adb;
+
+    @BeforeClass
+    public void installFakeAdb() throws Exception {
+        // No background rescans: every test decides when the inventory scans
+        PropertyConfig.set("mobile.inventory.refreshSeconds", "0");
+        adb = FakeAdb.install();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void uninstallFakeAdb() {
+        FakeAdb.uninstall();
+        PropertyConfig.set("mobile.inventory.refreshSeconds", null);
+    }
+
+    @Test
+    public void parsesDevicesAndStates() throws Exception {
+        adb.devicesOutput("* daemon not running; starting now at tcp:5037\n"
+                + "* daemon started successfully\n"
+                + "List of devices attached\n"
+                + "emulator-5554\tdevice\n"
+                + "R58M123ABC\tunauthorized\n"
+                + "0123456789ABCDEF\toffline\n"
+                + "192.168.1.20:5555\tdevice product:panther model:Pixel_7 device:panther transport_id:3\n"
+                + "\n")
+                .chrome("emulator-5554", "120.0.6099.43");
+
+        Map<String, DeviceInventory.Device> devices = DeviceInventory.refreshNow();
+
+        assertEquals(List.copyOf(devices.keySet()), List.of("emulator-5554", "R58M123ABC", "0123456789ABCDEF", "192.168.1.20:5555"));
+        assertEquals(devices.get("R58M123ABC").state, "unauthorized");
+        assertEquals(devices.get("0123456789ABCDEF").state, "offline");
+        assertEquals(serials(DeviceInventory.readyDevices()), List.of("emulator-5554", "192.168.1.20:5555"));
+
+        DeviceInventory.Device emulator = devices.get("emulator-5554");
+        assertEquals(emulator.chromeVersion, "120.0.6099.43");
+        assertEquals(emulator.chromeMajor(), "120");
+        // Ready device without Chrome, and devices adb cannot talk to (never queried)
+        assertNull(devices.get("192.168.1.20:5555").chromeVersion);
+        assertNull(devices.get("R58M123ABC").chromeVersion);
+        assertEquals(adb.callsStartingWith("-s R58M123ABC"), 0);
+        assertEquals(adb.callsStartingWith("-s 0123456789ABCDEF"), 0);
+    }
+
+    @Test
+    public void chromeVersionIsQueriedOncePerConnection() throws Exception {
+        adb.devices("emulator-5556 device").chrome("emulator-5556", "119.0.6045.66");
+        DeviceInventory.refreshNow();
+        DeviceInventory.refreshNow();
+        assertEquals(adb.callsStartingWith("-s emulator-5556 shell dumpsys package com.android.chrome"), 1);
+
+        // Disconnected and back with an updated Chrome: looked up again
+        adb.devices();
+        assertTrue(DeviceInventory.refreshNow().isEmpty());
+        adb.devices("emulator-5556 device").chrome("emulator-5556", "121.0.6167.101");
+        assertEquals(DeviceInventory.refreshNow().get("emulator-5556").chromeMajor(), "121");
+        assertEquals(adb.callsStartingWith("-s emulator-5556 shell dumpsys package com.android.chrome"), 2);
+    }
+
+    @Test
+    public void missingAdbMeansNoDevices() throws Exception {
+        PropertyConfig.set("mobile.adb.path", "/nonexistent/adb");
+        try {
+            assertTrue(DeviceInventory.refreshNow().isEmpty());
+            assertTrue(DeviceInventory.readyDevices().isEmpty());
+        } finally {
+            adb = FakeAdb.install();
+        }
+    }
+
+    @Test
+    public void hungAdbIsKilledAfterTheTimeout() throws Exception {
+        adb.devices("emulator-5558 device").hang(60);
+        PropertyConfig.set("mobile.adb.timeoutSeconds", "1");
+        try {
+            long started = System.nanoTime();
+            assertTrue(DeviceInventory.refreshNow().isEmpty());
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            assertTrue(elapsedMs < 5_000, "refresh took " + elapsedMs + " ms with a 1 s adb timeout");
+        } finally {
+            adb.hang(0);
+            PropertyConfig.set("mobile.adb.timeoutSeconds", null);
+        }
+        assertEquals(List.copyOf(DeviceInventory.refreshNow().keySet()), List.of("emulator-5558"));
+    }
+
+    private static List<String> serials(List<DeviceInventory.Device> devices) {
+        return devices.stream().map(d -> d.serial).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * DevicePool over two fake adb devices: exclusive leases, per-slot ports and Appium servers, and diagnostics of a
+ * pooled session that failed against a fake Appium server.
+ */
+public class DevicePoolTest {
+
+    private static final String[] KEYS = {"mobile.pool.enabled", "mobile.pool.leaseTimeoutSeconds", "mobile.appium.servers",
+            "appium.server", "appium.chromedriver.path", "mobile.inventory.refreshSeconds"};
+
+    private final List<DevicePool.Lease> held = new ArrayList<>();
+
+    @BeforeClass
+    public void twoDevices() throws Exception {
+        PropertyConfig.set("mobile.inventory.refreshSeconds", "0");
+        PropertyConfig.set("mobile.pool.enabled", "true");
+        // Explicit chromedriver, so nothing is provisioned for the devices' Chrome
+        PropertyConfig.set("appium.chromedriver.path", "/nonexistent/chromedriver");
+        FakeAdb.install().devices("pool-a device", "pool-b device", "pool-c offline")
+                .chrome("pool-a", "120.0.6099.43").chrome("pool-b", "120.0.6099.43");
+        DeviceInventory.refreshNow();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restore() {
+        FakeAdb.uninstall();
+        for (String key : KEYS) PropertyConfig.set(key, null);
+    }
+
+    @BeforeMethod
+    public void shortTimeout() {
+        PropertyConfig.set("mobile.pool.leaseTimeoutSeconds", "1");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseAll() {
+        for (DevicePool.Lease lease : held) DevicePool.release(lease);
+        held.clear();
+        PropertyConfig.set("mobile.appium.servers", null);
+    }
+
+    @Test
+    public void leasesAreExclusiveWithPortsFromTheDeviceSlot() throws Exception {
+        DevicePool.Lease first = acquire();
+        DevicePool.Lease second = acquire();
+
+        assertNotEquals(first.device.serial, second.device.serial);
+        assertTrue(Set.of("pool-a", "pool-b").contains(first.device.serial) && Set.of("pool-a", "pool-b").contains(second.device.serial),
+                "offline devices are never leased");
+        int firstSlot = slot(first);
+        int secondSlot = slot(second);
+        assertNotEquals(firstSlot, secondSlot);
+        assertEquals(first.chromedriverPort, PropertyConfig.getInt("mobile.pool.chromedriverPortBase", 9515) + firstSlot);
+        assertEquals(second.chromedriverPort, PropertyConfig.getInt("mobile.pool.chromedriverPortBase", 9515) + secondSlot);
+
+        // Both devices leased: the next session times out (leaseTimeoutSeconds=1)
+        IllegalStateException e = expectTimeout();
+        assertTrue(e.getMessage().contains("waiting for a free device"), e.getMessage());
+
+        // A device keeps its slot, and so its ports, across leases
+        DevicePool.release(first);
+        held.remove(first);
+        DevicePool.Lease again = acquire();
+        assertEquals(again.device.serial, first.device.serial);
+        assertEquals(again.systemPort, first.systemPort);
+    }
+
+    @Test
+    public void concurrentSessionsNeverShareADevice() throws Exception {
+        PropertyConfig.set("mobile.pool.leaseTimeoutSeconds", "30");
+        Set<String> inUse = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        DevicePool.Lease lease = DevicePool.acquire();
+                        try {
+                            if (!inUse.add(lease.device.serial)) fail(lease.device.serial + " leased twice");
+                            Thread.sleep(1);
+                            inUse.remove(lease.device.serial);
+                        } finally {
+                            DevicePool.release(lease);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : results) f.get(1, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(DevicePool.describe().startsWith("leased=[]"), DevicePool.describe());
+    }
+
+    @Test
+    public void appiumServerFollowsTheSlot() throws Exception {
+        PropertyConfig.set("mobile.appium.servers", "http://appium-0:4723, http://appium-1:4723");
+        DevicePool.Lease first = acquire();
+        DevicePool.Lease second = acquire();
+        assertEquals(first.appiumUrl, "http://appium-" + slot(first) % 2 + ":4723");
+        assertEquals(second.appiumUrl, "http://appium-" + slot(second) % 2 + ":4723");
+        assertNotEquals(first.appiumUrl, second.appiumUrl);
+    }
+
+    @Test
+    public void failedPooledSessionIsDiagnosedOnItsOwnServer() throws Exception {
+        try (FakeAppiumServer fallback = new FakeAppiumServer(); FakeAppiumServer leased = new FakeAppiumServer()) {
+            PropertyConfig.set("appium.server", fallback.url());
+            PropertyConfig.set("mobile.appium.servers", leased.url());
+            DriverRequest request = new DriverRequest("mobile", "local", "", false, "Android");
+
+            // SessionNotCreatedException from the fake server, or a linkage error when the Appium client does not match
+            // the Selenium version on the classpath; diagnostics run either way
+            assertThrows(Throwable.class, () -> DriverProviders.create(request));
+
+            assertTrue(leased.requests().contains("GET /status"), "diagnostics must probe the lease's server: " + leased.requests());
+            assertTrue(fallback.requests().isEmpty(), "appium.server was not used by the session: " + fallback.requests());
+            // The failed session gave its device back
+            assertTrue(DevicePool.describe().startsWith("leased=[]"), DevicePool.describe());
+        }
+    }
+
+    private DevicePool.Lease acquire() throws InterruptedException {
+        DevicePool.Lease lease = DevicePool.acquire();
+        held.add(lease);
+        return lease;
+    }
+
+    private static IllegalStateException expectTimeout() {
+        try {
+            DevicePool.acquire();
+        } catch (IllegalStateException e) {
+            return e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new AssertionError("expected the lease to time out");
+    }
+
+    private static int slot(DevicePool.Lease lease) {
+        return lease.systemPort - PropertyConfig.getInt("mobile.pool.systemPortBase", 8200);
+    }
+}
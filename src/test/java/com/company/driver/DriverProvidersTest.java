@@ -0,0 +1,85 @@
+package com.company.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Provider selection through ServiceLoader, and the metrics/diagnostics wrapper around create(), exercised with the
+ * built-in providers (selection only, nothing is launched) and FakeDriverProvider from the test classpath.
+ */
+public class DriverProvidersTest {
+
+    @Test
+    public void builtInProvidersAreSelectedByTypeAndEnvironment() {
+        assertProvider("web", "local", LocalWebDriverProvider.class);
+        assertProvider("web", "container", ContainerWebDriverProvider.class);
+        assertProvider("web", "saucelabs", SauceLabsWebDriverProvider.class);
+        assertProvider("mobile", "local", LocalMobileDriverProvider.class);
+        assertProvider("mobile", "container", ContainerMobileDriverProvider.class);
+        assertProvider("mobile", "saucelabs", SauceLabsMobileDriverProvider.class);
+    }
+
+    @Test
+    public void selectionIgnoresCase() {
+        assertTrue(DriverProviders.get(new DriverRequest("WEB", "SauceLabs", "chrome", true, "")) instanceof SauceLabsWebDriverProvider);
+    }
+
+    @Test
+    public void unknownEnvironmentListsTheAvailableProviders() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+                () -> DriverProviders.get(new DriverRequest("web", "nowhere", "chrome", true, "")));
+        assertTrue(e.getMessage().contains("nowhere") && e.getMessage().contains("web|local") && e.getMessage().contains("web|fake"), e.getMessage());
+    }
+
+    @Test
+    public void providerOnTheClasspathCreatesSessions() throws Exception {
+        DriverRequest request = new DriverRequest("web", "fake", "chrome", true, "");
+        long before = sessions();
+        WebDriver wd = DriverProviders.create(request);
+        assertEquals(wd.toString(), "FakeDriver(" + request + ")");
+        assertEquals(sessions(), before + 1);
+    }
+
+    @Test
+    public void failedCreationIsDiagnosedAndCounted() {
+        DriverRequest request = new DriverRequest("web", "fake", "broken", true, "");
+        long before = failures();
+        assertThrows(IllegalStateException.class, () -> DriverProviders.create(request));
+        assertSame(FakeDriverProvider.DIAGNOSED.get(), request);
+        assertEquals(failures(), before + 1);
+    }
+
+    @Test
+    public void prewarmRunsOncePerProvider() throws Exception {
+        DriverRequest request = new DriverRequest("web", "fake", "chrome", true, "");
+        DriverProviders.prewarm(request);
+        DriverProviders.prewarm(request);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (FakeDriverProvider.PREWARMS.get() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        Thread.sleep(100);
+        assertEquals(FakeDriverProvider.PREWARMS.get(), 1);
+    }
+
+    private static void assertProvider(String type, String environment, Class<? extends DriverProvider> expected) {
+        DriverProvider p = DriverProviders.get(new DriverRequest(type, environment, "chrome", true, "Android"));
+        assertEquals(p.getClass(), expected, type + "/" + environment);
+        assertEquals(p.type(), type);
+        assertEquals(p.environment(), environment);
+    }
+
+    private static long sessions() {
+        DriverProviders.CreationMetrics m = DriverProviders.metrics().get("web/fake");
+        return m == null ? 0 : m.sessions();
+    }
+
+    private static long failures() {
+        DriverProviders.CreationMetrics m = DriverProviders.metrics().get("web/fake");
+        return m == null ? 0 : m.failures();
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * DriverRequest.fromConfig reads the PropertyConfig snapshot, so overrides, typed booleans and blank values behave as
+ * they do for every other key.
+ */
+public class DriverRequestTest {
+
+    @AfterMethod(alwaysRun = true)
+    public void clearOverrides() {
+        System.clearProperty("web.browserName");
+        PropertyConfig.set("web.browserName", null);
+        PropertyConfig.set("web.headless", null);
+        PropertyConfig.set("web.environment", null);
+    }
+
+    @Test
+    public void overridesAreReadFromTheSnapshot() {
+        PropertyConfig.set("web.browserName", "firefox");
+        PropertyConfig.set("web.headless", "yes");
+        PropertyConfig.set("web.environment", "SauceLabs");
+        DriverRequest request = DriverRequest.fromConfig("web");
+        assertEquals(request.browser(), "firefox");
+        assertTrue(request.headless());
+        assertEquals(request.environment(), "saucelabs");
+    }
+
+    @Test
+    public void blankValuesFallBackToTheDefault() {
+        PropertyConfig.set("web.browserName", " ");
+        PropertyConfig.set("web.headless", "");
+        PropertyConfig.set("web.environment", "");
+        DriverRequest request = DriverRequest.fromConfig("web");
+        assertEquals(request.browser(), "chrome");
+        assertFalse(request.headless());
+        assertEquals(request.environment(), "local");
+    }
+
+    @Test
+    public void blankSystemPropertyKeepsTheFileValue() {
+        String fromFiles = PropertyConfig.get("web.browserName", "chrome");
+        System.setProperty("web.browserName", "");
+        PropertyConfig.reload();
+        assertEquals(DriverRequest.fromConfig("web").browser(), fromFiles);
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.driver;
+
+import com.company.config.PropertyConfig;
+import org.testng.SkipException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * A copy of the fixtures/adb/adb script in a temporary directory, installed as mobile.adb.path. Tests stage what
+ * "adb devices" and "dumpsys package" print, and read back the calls that were made.
+ */
+final class FakeAdb {
+
+    private final Path dir;
+
+    private FakeAdb(Path dir) {
+        this.dir = dir;
+    }
+
+    static FakeAdb install() throws IOException {
+        if (File.separatorChar == '\\') {
+            throw new SkipException("the fake adb is a POSIX shell script");
+        }
+        Path dir = Files.createTempDirectory("fake-adb");
+        Path script = dir.resolve("adb");
+        try (InputStream in = FakeAdb.class.getResourceAsStream("/fixtures/adb/adb")) {
+            Files.copy(in, script, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (!script.toFile().setExecutable(true)) {
+            throw new IOException("could not make " + script + " executable");
+        }
+        PropertyConfig.set("mobile.adb.path", script.toString());
+        return new FakeAdb(dir);
+    }
+
+    static void uninstall() {
+        PropertyConfig.set("mobile.adb.path", null);
+    }
+
+    // "adb devices" output: one "<serial> <state>" entry per device, below the usual header
+    FakeAdb devices(String... serialAndState) throws IOException {
+        StringBuilder sb = new StringBuilder("List of devices attached\n");
+        for (String entry : serialAndState) {
+            sb.append(entry.replace(' ', '\t')).append('\n');
+        }
+        return devicesOutput(sb.append('\n').toString());
+    }
+
+    FakeAdb devicesOutput(String output) throws IOException {
+        Files.writeString(dir.resolve("devices.txt"), output, StandardCharsets.UTF_8);
+        return this;
+    }
+
+    // "dumpsys package com.android.chrome" output of a device with that Chrome version installed
+    FakeAdb chrome(String serial, String version) throws IOException {
+        Files.writeString(dir.resolve("dumpsys-" + serial + ".txt"), "Packages:\n"
+                + "  Package [com.android.chrome] (5c1d2a0):\n"
+                + "    versionCode=609904333 minSdk=29 targetSdk=33\n"
+                + "    versionName=" + version + "\n"
+                + "    splits=[base]\n", StandardCharsets.UTF_8);
+        return this;
+    }
+
+    // Every call sleeps this long before answering, like an adb whose daemon or device stopped responding; 0 to stop
+    FakeAdb hang(int seconds) throws IOException {
+        Path hang = dir.resolve("hang.txt");
+        if (seconds <= 0) {
+            Files.deleteIfExists(hang);
+        } else {
+            Files.writeString(hang, String.valueOf(seconds), StandardCharsets.UTF_8);
+        }
+        return this;
+    }
+
+    List<String> calls() throws IOException {
+        Path log = dir.resolve("calls.log");
+        return Files.exists(log) ? Files.readAllLines(log, StandardCharsets.UTF_8) : List.of();
+    }
+
+    long callsStartingWith(String prefix) throws IOException {
+        return calls().stream().filter(c -> c.startsWith(prefix)).count();
+    }
+}
@@ -0,0 +1,62 @@
+package com.company.driver;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Loopback stand-in for an Appium server that refuses every new session with a W3C "session not created" error and
+ * answers /status and /sessions. Records "METHOD /path" of every request it receives.
+ */
+final class FakeAppiumServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    FakeAppiumServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.add(exchange.getRequestMethod() + " " + path);
+            exchange.getRequestBody().readAllBytes();
+            int status;
+            String body;
+            if ("POST".equals(exchange.getRequestMethod()) && path.endsWith("/session")) {
+                status = 500;
+                body = "{\"value\":{\"error\":\"session not created\",\"message\":\"fake Appium refuses sessions\",\"stacktrace\":\"\"}}";
+            } else if (path.endsWith("/status")) {
+                status = 200;
+                body = "{\"value\":{\"ready\":true,\"message\":\"fake Appium\"}}";
+            } else {
+                status = 200;
+                body = "{\"value\":[]}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    List<String> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
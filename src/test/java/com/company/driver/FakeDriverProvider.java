@@ -0,0 +1,59 @@
+package com.company.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test provider for web sessions in the "fake" environment, registered through the test classpath's
+ * META-INF/services/com.company.driver.DriverProvider like any third-party provider would be.
+ * Sessions are inert WebDriver proxies; browser "broken" makes create() fail.
+ */
+public class FakeDriverProvider implements DriverProvider {
+
+    static final AtomicInteger PREWARMS = new AtomicInteger();
+    static final AtomicReference<DriverRequest> DIAGNOSED = new AtomicReference<>();
+
+    @Override
+    public String type() {
+        return "web";
+    }
+
+    @Override
+    public String environment() {
+        return "fake";
+    }
+
+    @Override
+    public WebDriver create(DriverRequest request) {
+        if ("broken".equals(request.browser())) {
+            throw new IllegalStateException("fake session refused");
+        }
+        return fakeDriver(request.toString());
+    }
+
+    @Override
+    public void prewarm(DriverRequest request) {
+        PREWARMS.incrementAndGet();
+    }
+
+    @Override
+    public void diagnose(DriverRequest request, Throwable failure) {
+        DIAGNOSED.set(request);
+    }
+
+    // A WebDriver that answers toString() with its name and ignores everything else (quit() included)
+    static WebDriver fakeDriver(String name) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString": return "FakeDriver(" + name + ")";
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return null;
+                    }
+                });
+    }
+}
@@ -4,12 +4,10 @@ import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.spring.ScenarioScope;
 import org.springframework.beans.factory.annotation.Autowired;
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
-import io.restassured.RestAssured;
 import com.company.config.APIRequestFactory;
+import com.company.config.ApiHttpClient;
 
 @ScenarioScope
 public class APIHooks {
@@ -36,12 +34,8 @@ public class APIHooks {
         requestSpec.set(apiFactory.createRequestSpec());
 
         // Common response expectations (content-type JSON). Status codes vary per test so not set here.
-        ResponseSpecBuilder respBuilder = new ResponseSpecBuilder();
-        respBuilder.expectContentType(ContentType.JSON);
-        commonResponseSpec.set(respBuilder.build());
-
-        // Optional global RestAssured settings (also set in factory to be safe)
-        RestAssured.useRelaxedHTTPSValidation();
+        // TLS and connection pooling are configured once by ApiHttpClient, not per scenario.
+        commonResponseSpec.set(ApiHttpClient.newResponseSpec());
     }
 
     @After
@@ -53,9 +47,6 @@ public class APIHooks {
 
     // Helper to create a response spec for a specific expected status code
     public static ResponseSpecification responseSpecFor(int expectedStatusCode) {
-        ResponseSpecBuilder builder = new ResponseSpecBuilder();
-        builder.expectStatusCode(expectedStatusCode);
-        builder.expectContentType(ContentType.JSON);
-        return builder.build();
+        return ApiHttpClient.newResponseSpec(expectedStatusCode);
     }
 }
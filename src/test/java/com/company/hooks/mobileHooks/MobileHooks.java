@@ -1,10 +1,18 @@
 package com.company.hooks.mobileHooks;
 
+import com.company.driver.DriverManager;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
 
 public class MobileHooks {
 
+    // Once per run: prepare driver binaries/profiles in the background so the first scenario does not pay for it
+    @BeforeAll
+    public static void prewarmDrivers() {
+        DriverManager.prewarm("mobile");
+    }
+
     @Before
     public void beforeScenario() {
         // Code to execute before each scenario
@@ -0,0 +1,111 @@
+package com.company.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.path.json.JsonPath;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Every path form CompiledJsonPath supports is evaluated by JsonBody and by response.jsonPath() on the same body, and
+ * must give the same value. The divergences JsonBody keeps on purpose are pinned separately, so a RestAssured upgrade
+ * that changes them shows up here.
+ */
+public class JsonBodyTest {
+
+    private static final String OBJECT = "{\"title\":\"abc\",\"price\":1.5,\"big\":12345678901,"
+            + "\"data\":{\"count\":2,\"deleted\":null,\"flags\":{\"on\":true}},"
+            + "\"items\":[{\"sku\":\"a\",\"price\":10},{\"sku\":\"b\",\"price\":2.25,\"tags\":[\"x\",\"y\"]}]}";
+    private static final String ARRAY = "[{\"sku\":\"a\",\"qty\":1},{\"sku\":\"b\",\"qty\":2},{\"sku\":\"c\"}]";
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    @DataProvider
+    public Object[][] supportedPaths() {
+        return new Object[][] {
+                // fields and nesting
+                {OBJECT, "title"}, {OBJECT, "price"}, {OBJECT, "data.count"}, {OBJECT, "data.flags.on"}, {OBJECT, "data"},
+                // indexes, negative from the end, past the end
+                {OBJECT, "items[0].sku"}, {OBJECT, "items[-1].sku"}, {OBJECT, "items[1].tags[-1]"}, {OBJECT, "items[5]"},
+                // spread over an array, including elements without the field
+                {OBJECT, "items.sku"}, {OBJECT, "items.price"}, {OBJECT, "items.tags"}, {OBJECT, "items.nope"},
+                // size() of arrays, objects and strings
+                {OBJECT, "items.size()"}, {OBJECT, "data.size()"}, {OBJECT, "title.size()"}, {OBJECT, "items[1].tags.size()"},
+                // missing fields and JSON null
+                {OBJECT, "nope"}, {OBJECT, "data.nope"}, {OBJECT, "data.nope.deeper"}, {OBJECT, "data.deleted"}, {OBJECT, "data.deleted.x"},
+                // top-level array
+                {ARRAY, "sku"}, {ARRAY, "qty"}, {ARRAY, "[0].sku"}, {ARRAY, "[1]"}, {ARRAY, "size()"}, {ARRAY, "[2].qty"},
+        };
+    }
+
+    @Test(dataProvider = "supportedPaths")
+    public void sameValueAsJsonPath(String body, String path) {
+        assertTrue(JsonBody.supports(path), path);
+        Object expected = jsonPath(body).get(path);
+        JsonElement actual = JsonBody.parse(body).get(path);
+        if (expected == null) {
+            assertNull(actual, path);
+        } else {
+            // Groovy maps, lists and numbers compared as JSON trees, so 2.25f and 2.25 are the same value
+            assertEquals(actual, JsonParser.parseString(GSON.toJson(expected)), path);
+        }
+    }
+
+    @Test(dataProvider = "supportedPaths")
+    public void sameScalarStringAsJsonPath(String body, String path) {
+        JsonElement value = JsonBody.parse(body).get(path);
+        if (value != null && !value.isJsonPrimitive()) return;
+        assertEquals(JsonBody.parse(body).getString(path), jsonPath(body).getString(path), path);
+    }
+
+    @Test
+    public void sameIntsAsJsonPath() {
+        assertEquals(JsonBody.parse(OBJECT).getInt("data.count"), jsonPath(OBJECT).getInt("data.count"));
+        assertEquals(JsonBody.parse(OBJECT).getInt("items.size()"), jsonPath(OBJECT).getInt("items.size()"));
+        assertEquals(JsonBody.parse(OBJECT).getLong("big"), jsonPath(OBJECT).getLong("big"));
+        assertEquals(JsonBody.parse(OBJECT).getBoolean("data.flags.on"), jsonPath(OBJECT).getBoolean("data.flags.on"));
+    }
+
+    @Test
+    public void objectsAndArraysAreCompactJson() {
+        JsonBody json = JsonBody.parse(OBJECT);
+        assertEquals(json.getString("data.flags"), "{\"on\":true}");
+        assertEquals(jsonPath(OBJECT).getString("data.flags"), "[on:true]");
+        assertEquals(json.getString("items.sku"), "[\"a\",\"b\"]");
+        assertEquals(jsonPath(OBJECT).getString("items.sku"), "[a, b]");
+    }
+
+    @Test
+    public void fractionsAndOverflowAreNotInts() {
+        JsonBody json = JsonBody.parse(OBJECT);
+        assertThrows(IllegalArgumentException.class, () -> json.getInt("price"));
+        assertThrows(NumberFormatException.class, () -> jsonPath(OBJECT).getInt("price"));
+        // jsonPath() wraps the overflow instead
+        assertThrows(IllegalArgumentException.class, () -> json.getInt("big"));
+        assertEquals(jsonPath(OBJECT).getInt("big"), (int) 12345678901L);
+        assertThrows(IllegalArgumentException.class, () -> json.getInt("data"));
+        assertThrows(IllegalArgumentException.class, () -> json.getInt("nope"));
+    }
+
+    @Test
+    public void negativeIndexDivergences() {
+        // Before the first element: missing here, an exception in jsonPath()
+        assertNull(JsonBody.parse(OBJECT).get("items[-5]"));
+        assertThrows(IllegalArgumentException.class, () -> jsonPath(OBJECT).get("items[-5]"));
+        // On a top-level array jsonPath() yields an empty list; here it counts from the end as on nested arrays
+        assertEquals(JsonBody.parse(ARRAY).getString("[-1].sku"), "c");
+        assertEquals(jsonPath(ARRAY).getList("[-1].sku").size(), 0);
+    }
+
+    // What response.jsonPath() returns for a JSON response with this body
+    private static JsonPath jsonPath(String body) {
+        return new ResponseBuilder().setBody(body).setStatusCode(200).setContentType("application/json").build().jsonPath();
+    }
+}
@@ -0,0 +1,200 @@
+package com.company.listeners;
+
+import com.company.perf.PhaseTimer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends lines to a file from a single background thread.
+ * Callers only enqueue into a bounded queue (lines are dropped and counted when it is full) so test threads never wait on disk I/O.
+ * The writer keeps the file open and writes every batchSize lines or flushIntervalMs, one append write per batch, and
+ * drains the queue on JVM shutdown.
+ * An offer racing with close() is either refused (and counted as dropped) or written: close() waits for offers in flight
+ * and writes whatever reached the queue after the writer thread stopped.
+ */
+class AsyncLineWriter {
+
+    private final Path file;
+    private final BlockingQueue<String> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Thread writer;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // offer() calls between their running check and their enqueue; close() waits for these before the final drain
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    AsyncLineWriter(Path file, int capacity, int batchSize, long flushIntervalMs, String threadName) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.writer = new Thread(this::run, threadName);
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, threadName + "-shutdown"));
+    }
+
+    boolean offer(String line) {
+        inFlight.incrementAndGet();
+        try {
+            if (running && queue.offer(line)) {
+                queued.incrementAndGet();
+                return true;
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    // Like offer(String), but waits up to timeoutMs for queue space instead of dropping the line straight away
+    boolean offer(String line, long timeoutMs) {
+        inFlight.incrementAndGet();
+        try {
+            if (running && queue.offer(line, timeoutMs, TimeUnit.MILLISECONDS)) {
+                queued.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    long getQueuedCount() {
+        return queued.get();
+    }
+
+    long getWrittenCount() {
+        return written.get();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Stop accepting lines, drain what is queued and close the file. Safe to call more than once.
+    synchronized void close() {
+        running = false;
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        try {
+            // Offers that saw running=true finish enqueueing (or give up) before the final drain
+            while (inFlight.get() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            return;
+        }
+        // The writer may have seen an empty queue and exited just before a racing offer landed
+        List<String> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (rest.isEmpty()) {
+            return;
+        }
+        try (FileChannel out = openAppend(file)) {
+            append(out, rest);
+            written.addAndGet(rest.size());
+        } catch (IOException e) {
+            dropped.addAndGet(rest.size());
+        }
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(batchSize);
+        FileChannel out = null;
+        long lastWrite = System.currentTimeMillis();
+        try {
+            while (running || !queue.isEmpty()) {
+                String first;
+                try {
+                    first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    first = null;
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                long now = System.currentTimeMillis();
+                if (!batch.isEmpty() && (batch.size() >= batchSize || now - lastWrite >= flushIntervalMs || !running)) {
+                    out = write(out, batch);
+                    lastWrite = now;
+                }
+            }
+        } finally {
+            if (!batch.isEmpty()) {
+                out = write(out, batch);
+            }
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    // Write the batch and clear it; returns the channel, opened on first use
+    private FileChannel write(FileChannel out, List<String> batch) {
+        long started = PhaseTimer.start();
+        try {
+            if (out == null) out = openAppend(file);
+            append(out, batch);
+            PhaseTimer.stop(PhaseTimer.Phase.REPORT_FLUSH, started);
+            written.addAndGet(batch.size());
+        } catch (IOException e) {
+            // don't fail tests if logging fails; the lines are lost
+            dropped.addAndGet(batch.size());
+        }
+        batch.clear();
+        return out;
+    }
+
+    static FileChannel openAppend(Path file) throws IOException {
+        Path dir = file.getParent();
+        if (dir != null && !Files.exists(dir)) {
+            Files.createDirectories(dir);
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Append the lines with a single write on an APPEND channel. The kernel places each write at the end of the file,
+     * so JVMs sharing the log (parallel jobs on one agent) never interleave inside a line, whatever the batch size.
+     */
+    static void append(FileChannel out, List<String> lines) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.company.listeners;
+
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Every line offer() accepted must reach the file whole: even when the offer races with close(), and when several
+ * writers append to one file.
+ */
+public class AsyncLineWriterTest {
+
+    @Test
+    public void acceptedLinesSurviveAConcurrentClose() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path file = Files.createTempDirectory("async-writer").resolve("lines.log");
+            AsyncLineWriter writer = new AsyncLineWriter(file, 10_000, 64, 5, "async-writer-test");
+            Set<String> accepted = ConcurrentHashMap.newKeySet();
+            CountDownLatch go = new CountDownLatch(1);
+            Thread[] producers = new Thread[4];
+            for (int t = 0; t < producers.length; t++) {
+                int id = t;
+                producers[t] = new Thread(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 2_000; i++) {
+                        String line = id + ":" + i;
+                        if (writer.offer(line)) accepted.add(line);
+                    }
+                });
+                producers[t].start();
+            }
+            go.countDown();
+            Thread.sleep(round % 3);
+            writer.close();
+            for (Thread producer : producers) producer.join();
+
+            List<String> lines = Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : List.of();
+            Set<String> onDisk = new HashSet<>(lines);
+            assertEquals(lines.size(), onDisk.size(), "no line may be written twice");
+            assertTrue(onDisk.containsAll(accepted), "round " + round + ": " + (accepted.size() - onDisk.size()) + " accepted line(s) never written");
+            assertEquals(writer.getWrittenCount(), writer.getQueuedCount());
+            assertEquals(writer.getQueuedCount() + writer.getDroppedCount(), 4 * 2_000L);
+        }
+    }
+
+    @Test
+    public void writersSharingAFileNeverTearLines() throws Exception {
+        Path file = Files.createTempDirectory("async-writer").resolve("shared.log");
+        // Lines of about 3 KB: a batch is far larger than a BufferedWriter's 8 KB buffer
+        String pad = "x".repeat(3_000);
+        AsyncLineWriter a = new AsyncLineWriter(file, 10_000, 64, 5, "async-writer-a");
+        AsyncLineWriter b = new AsyncLineWriter(file, 10_000, 64, 5, "async-writer-b");
+        Thread ta = new Thread(() -> { for (int i = 0; i < 500; i++) a.offer("a" + i + pad + "a" + i); });
+        Thread tb = new Thread(() -> { for (int i = 0; i < 500; i++) b.offer("b" + i + pad + "b" + i); });
+        ta.start();
+        tb.start();
+        ta.join();
+        tb.join();
+        a.close();
+        b.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(lines.size(), (int) (a.getWrittenCount() + b.getWrittenCount()));
+        for (String line : lines) {
+            String id = line.substring(0, line.indexOf('x'));
+            assertEquals(line, id + pad + id, "torn line");
+        }
+    }
+}
@@ -4,19 +4,24 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 
 public class ExtentManager {
-    private static ExtentReports extent;
 
     private ExtentManager() { }
 
-    public static synchronized ExtentReports getInstance() {
-        if (extent == null) {
-            ExtentSparkReporter spark = new ExtentSparkReporter("target/extent-report.html");
-            spark.config().setReportName("Automation Test Report");
-            extent = new ExtentReports();
-            extent.attachReporter(spark);
-            extent.setSystemInfo("Framework", "Cucumber+TestNG+Selenium+Appium");
-        }
+    // Initialization-on-demand holder: created once on first use, no lock on later calls
+    private static final class Holder {
+        static final ExtentReports INSTANCE = create();
+    }
+
+    public static ExtentReports getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static ExtentReports create() {
+        ExtentSparkReporter spark = new ExtentSparkReporter("target/extent-report.html");
+        spark.config().setReportName("Automation Test Report");
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(spark);
+        extent.setSystemInfo("Framework", "Cucumber+TestNG+Selenium+Appium");
         return extent;
     }
 }
-
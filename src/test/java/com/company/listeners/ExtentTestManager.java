@@ -1,20 +1,165 @@
 package com.company.listeners;
 
+import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Per-thread recording of test-node events for the Extent report.
+ * Test threads only append to their own buffers; the records are turned into ExtentTests and flushed by
+ * ExtentTestNGListener.onFinish, so nothing on the test threads touches the shared ExtentReports instance.
+ * With report.mode=stream finished tests go to ReportEventLog instead and are not kept in memory.
+ */
 public class ExtentTestManager {
-    private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    private static final ThreadLocal<TestRecord> extentTest = new ThreadLocal<>();
+
+    // One buffer per thread that has finished a test; registered once, when the thread first uses its buffer
+    private static final Queue<Queue<TestRecord>> BUFFERS = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Queue<TestRecord>> finished = ThreadLocal.withInitial(() -> {
+        Queue<TestRecord> buffer = new ConcurrentLinkedQueue<>();
+        BUFFERS.add(buffer);
+        return buffer;
+    });
 
-    public static synchronized void setExtentTest(ExtentTest test) {
+    public static TestRecord startTest(String name) {
+        TestRecord test = new TestRecord(name);
         extentTest.set(test);
+        return test;
     }
 
-    public static synchronized ExtentTest getExtentTest() {
+    public static TestRecord getExtentTest() {
         return extentTest.get();
     }
 
-    public static synchronized void removeExtentTest() {
+    // Close the current thread's test and hand it over for the next report merge
+    public static void endTest() {
+        TestRecord test = extentTest.get();
+        if (test != null) {
+            test.end = System.currentTimeMillis();
+            if (ReportEventLog.isEnabled()) {
+                ReportEventLog.append(test);
+            } else {
+                finished.get().offer(test);
+            }
+        }
         extentTest.remove();
     }
-}
 
+    // Take every finished test recorded so far, in start order
+    static List<TestRecord> drain() {
+        List<TestRecord> all = new ArrayList<>();
+        for (Queue<TestRecord> buffer : BUFFERS) {
+            TestRecord test;
+            while ((test = buffer.poll()) != null) {
+                all.add(test);
+            }
+        }
+        all.sort((a, b) -> Long.compare(a.start, b.start));
+        return all;
+    }
+
+    /**
+     * Events of one test, confined to the thread running it until endTest() publishes it.
+     */
+    public static final class TestRecord {
+        private final String name;
+        private final long start = System.currentTimeMillis();
+        private long end;
+        private final List<Event> events = new ArrayList<>();
+
+        private TestRecord(String name) {
+            this.name = name;
+        }
+
+        String name() {
+            return name;
+        }
+
+        long start() {
+            return start;
+        }
+
+        long end() {
+            return end;
+        }
+
+        // Worst outcome logged for the test
+        Status status() {
+            Status worst = Status.PASS;
+            for (Event e : events) {
+                if (e.status == Status.FAIL) return Status.FAIL;
+                if (e.status == Status.SKIP) worst = Status.SKIP;
+            }
+            return worst;
+        }
+
+        void forEachEvent(EventVisitor visitor) {
+            for (Event e : events) {
+                visitor.visit(e.time, e.status, e.details, e.throwable);
+            }
+        }
+
+        public TestRecord log(Status status, String details) {
+            events.add(new Event(status, details, null));
+            return this;
+        }
+
+        public TestRecord info(String details) {
+            return log(Status.INFO, details);
+        }
+
+        public TestRecord pass(String details) {
+            return log(Status.PASS, details);
+        }
+
+        public TestRecord skip(String details) {
+            return log(Status.SKIP, details);
+        }
+
+        public TestRecord fail(Throwable t) {
+            events.add(new Event(Status.FAIL, null, t));
+            return this;
+        }
+
+        // Replay into the report, keeping the times at which things actually happened
+        void writeTo(ExtentReports extent) {
+            ExtentTest test = extent.createTest(name);
+            test.getModel().setStartTime(new Date(start));
+            for (Event e : events) {
+                if (e.throwable != null) {
+                    test.log(e.status, e.throwable);
+                } else {
+                    test.log(e.status, e.details);
+                }
+                List<Log> logs = test.getModel().getLogs();
+                logs.get(logs.size() - 1).setTimestamp(new Date(e.time));
+            }
+            test.getModel().setEndTime(new Date(end > 0 ? end : System.currentTimeMillis()));
+        }
+    }
+
+    @FunctionalInterface
+    interface EventVisitor {
+        void visit(long time, Status status, String details, Throwable throwable);
+    }
+
+    private static final class Event {
+        final Status status;
+        final String details;
+        final Throwable throwable;
+        final long time = System.currentTimeMillis();
+
+        Event(Status status, String details, Throwable throwable) {
+            this.status = status;
+            this.details = details;
+            this.throwable = throwable;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.company.listeners;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
+import com.company.perf.PhaseTimer;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
@@ -17,32 +17,42 @@ public class ExtentTestNGListener implements ITestListener {
 
     @Override
     public void onFinish(ITestContext context) {
+        if (ReportEventLog.isEnabled()) {
+            // Streaming mode: results are already in the event file and are rendered by ReportRenderer
+            ReportEventLog.finish();
+            return;
+        }
+        // Merge what the test threads recorded, then write the report once
+        long started = PhaseTimer.start();
+        for (ExtentTestManager.TestRecord test : ExtentTestManager.drain()) {
+            test.writeTo(extent);
+        }
         extent.flush();
+        PhaseTimer.stop(PhaseTimer.Phase.REPORT_FLUSH, started);
     }
 
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
-        ExtentTest test = extent.createTest(testName);
-        ExtentTestManager.setExtentTest(test);
+        ExtentTestManager.startTest(testName);
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         ExtentTestManager.getExtentTest().pass("Test passed");
-        ExtentTestManager.removeExtentTest();
+        ExtentTestManager.endTest();
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
         ExtentTestManager.getExtentTest().fail(result.getThrowable());
-        ExtentTestManager.removeExtentTest();
+        ExtentTestManager.endTest();
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
         ExtentTestManager.getExtentTest().skip("Test skipped");
-        ExtentTestManager.removeExtentTest();
+        ExtentTestManager.endTest();
     }
 
     @Override
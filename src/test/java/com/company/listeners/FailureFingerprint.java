@@ -0,0 +1,111 @@
+package com.company.listeners;
+
+import com.company.config.PropertyConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, comparable description of a failure: exception class, a hash of the message with volatile parts
+ * (numbers, ids, whitespace) normalized away, the top application frames, and a hash of the whole stack.
+ * Computing it only walks StackTraceElements; the full trace is rendered to text only the first time a stack hash is seen.
+ */
+final class FailureFingerprint {
+
+    private static final int MAX_FRAMES = PropertyConfig.getInt("retry.fingerprint.frames", 5);
+    private static final String[] APP_PACKAGES = Arrays.stream(PropertyConfig.get("retry.fingerprint.packages", "com.company.").split(","))
+            .map(String::trim).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    private static final int MAX_MESSAGE_CHARS = 300;
+
+    final String exceptionClass;
+    final String message;
+    final String messageHash;
+    final List<String> frames;
+    final String stackHash;
+
+    private FailureFingerprint(String exceptionClass, String message, String messageHash, List<String> frames, String stackHash) {
+        this.exceptionClass = exceptionClass;
+        this.message = message;
+        this.messageHash = messageHash;
+        this.frames = frames;
+        this.stackHash = stackHash;
+    }
+
+    static FailureFingerprint of(Throwable t) {
+        String msg = t.getMessage();
+        String shortMsg = msg == null ? null : (msg.length() > MAX_MESSAGE_CHARS ? msg.substring(0, MAX_MESSAGE_CHARS) + "..." : msg);
+
+        StackTraceElement[] trace = t.getStackTrace();
+        List<String> appFrames = new ArrayList<>(MAX_FRAMES);
+        for (StackTraceElement e : trace) {
+            if (appFrames.size() >= MAX_FRAMES) break;
+            if (isAppFrame(e.getClassName())) appFrames.add(frame(e));
+        }
+        if (appFrames.isEmpty()) {
+            // No application frames (e.g. failure inside a library thread): fall back to the top of the stack
+            for (int i = 0; i < trace.length && i < MAX_FRAMES; i++) appFrames.add(frame(trace[i]));
+        }
+
+        // Hash the exception types and frames of the whole causal chain
+        long h = FNV_OFFSET;
+        int depth = 0;
+        for (Throwable c = t; c != null && depth < 10; c = c.getCause(), depth++) {
+            h = fnv(h, c.getClass().getName());
+            for (StackTraceElement e : c == t ? trace : c.getStackTrace()) {
+                h = fnv(h, e.getClassName());
+                h = fnv(h, e.getMethodName());
+                h = (h ^ e.getLineNumber()) * FNV_PRIME;
+            }
+        }
+
+        return new FailureFingerprint(t.getClass().getName(), shortMsg, Long.toHexString(fnv(FNV_OFFSET, normalize(msg))), appFrames, Long.toHexString(h));
+    }
+
+    // Replace digit runs with '#' and collapse whitespace so "timed out after 1503 ms" and "... 2210 ms" hash alike
+    static String normalize(String msg) {
+        if (msg == null) return "";
+        StringBuilder sb = new StringBuilder(Math.min(msg.length(), 1024));
+        boolean lastDigit = false;
+        boolean lastSpace = false;
+        for (int i = 0; i < msg.length() && sb.length() < 1024; i++) {
+            char ch = msg.charAt(i);
+            if (Character.isDigit(ch)) {
+                if (!lastDigit) sb.append('#');
+                lastDigit = true;
+                lastSpace = false;
+            } else if (Character.isWhitespace(ch)) {
+                if (!lastSpace) sb.append(' ');
+                lastSpace = true;
+                lastDigit = false;
+            } else {
+                sb.append(ch);
+                lastDigit = false;
+                lastSpace = false;
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    private static boolean isAppFrame(String className) {
+        for (String p : APP_PACKAGES) {
+            if (className.startsWith(p)) return true;
+        }
+        return false;
+    }
+
+    private static String frame(StackTraceElement e) {
+        return e.getClassName() + "." + e.getMethodName() + ":" + e.getLineNumber();
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static long fnv(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+}
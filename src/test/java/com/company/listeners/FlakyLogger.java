@@ -1,43 +1,165 @@
 package com.company.listeners;
 
+import com.company.analytics.FlakyHistory;
+import com.company.config.PropertyConfig;
+import com.company.perf.PhaseTimer;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FlakyLogger {
-    private static final Path FLAKY_LOG = Paths.get("target", "flaky", "flaky.jsonl");
+    // Outside target/ by default (see FlakyHistory.dir()), so FlakyAnalytics sees every build, not just the last one
+    private static final Path LOG_DIR = FlakyHistory.dir();
+    private static final Path FLAKY_LOG = LOG_DIR.resolve("flaky.jsonl");
+    // Side table with one full stack trace per stack hash; flaky.jsonl entries only reference the hash
+    private static final Path STACK_LOG = LOG_DIR.resolve("flaky-stacks.jsonl");
     private static final Gson GSON = new GsonBuilder().create();
+    // Identifies this suite run in the flaky log so FlakyAnalytics can compute per-run rates (Jenkins BUILD_TAG when available)
+    private static final String RUN_ID = System.getenv("BUILD_TAG") != null ? System.getenv("BUILD_TAG") : "local-" + Instant.now().toString();
+    private static final AtomicBoolean RUN_STARTED = new AtomicBoolean();
 
-    public static synchronized void log(Map<String, Object> entry) {
+    // Async mode (default) hands lines to a single writer thread; -Dflaky.log.async=false restores synchronous appends
+    private static final boolean ASYNC = PropertyConfig.getBoolean("flaky.log.async", true);
+    private static final AsyncLineWriter WRITER = ASYNC ? newWriter(FLAKY_LOG, "flaky-log-writer") : null;
+    private static final AsyncLineWriter STACK_WRITER = ASYNC ? newWriter(STACK_LOG, "flaky-stack-writer") : null;
+
+    private static final AtomicLong SYNC_WRITTEN = new AtomicLong();
+
+    private static final Set<String> KNOWN_STACKS = ConcurrentHashMap.newKeySet();
+    private static volatile boolean knownStacksLoaded;
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Log the start of this suite run, once per JVM. The marker makes runs without any retry count in the per-run
+     * rates; without it a test that retried once would look like it retries in every run.
+     */
+    public static void logRunStart() {
+        if (!RUN_STARTED.compareAndSet(false, true)) return;
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("event", "runStart");
+        entry.put("runId", RUN_ID);
+        entry.put("timestamp", Instant.now().toString());
+        log(entry);
+    }
+
+    public static void log(Map<String, Object> entry) {
+        try {
+            // Serialize on the caller: Gson is thread-safe and this keeps the writer thread on I/O only
+            String json = GSON.toJson(entry);
+            if (WRITER != null) {
+                WRITER.offer(json);
+            } else {
+                logSync(FLAKY_LOG, json);
+                SYNC_WRITTEN.incrementAndGet();
+            }
+        } catch (Exception ignored) {
+            // don't fail tests if logging fails
+        }
+    }
+
+    /**
+     * Store the full stack trace for a stack hash in the side table, unless that hash was already recorded
+     * (in this run or a previous one). Only the first occurrence pays for rendering the trace to text.
+     */
+    public static void logStackOnce(String stackHash, Throwable t) {
         try {
-            ensureDirExists(FLAKY_LOG.getParent());
+            loadKnownStacks();
+            if (!KNOWN_STACKS.add(stackHash)) {
+                return;
+            }
+            StringWriter sw = new StringWriter();
+            t.printStackTrace(new PrintWriter(sw));
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("stackHash", stackHash);
+            entry.put("exceptionClass", t.getClass().getName());
+            entry.put("stackTrace", sw.toString());
             String json = GSON.toJson(entry);
-            appendLine(FLAKY_LOG.toFile(), json);
+            if (STACK_WRITER != null) {
+                STACK_WRITER.offer(json);
+            } else {
+                logSync(STACK_LOG, json);
+            }
         } catch (Exception ignored) {
             // don't fail tests if logging fails
         }
     }
 
-    private static void ensureDirExists(Path dir) throws IOException {
-        if (dir != null && !Files.exists(dir)) {
-            Files.createDirectories(dir);
+    public static long getQueuedCount() {
+        return WRITER != null ? WRITER.getQueuedCount() : SYNC_WRITTEN.get();
+    }
+
+    public static long getWrittenCount() {
+        return WRITER != null ? WRITER.getWrittenCount() : SYNC_WRITTEN.get();
+    }
+
+    public static long getDroppedCount() {
+        return WRITER != null ? WRITER.getDroppedCount() : 0;
+    }
+
+    private static AsyncLineWriter newWriter(Path file, String threadName) {
+        return new AsyncLineWriter(file,
+                PropertyConfig.getInt("flaky.log.queueCapacity", 10000),
+                PropertyConfig.getInt("flaky.log.batchSize", 64),
+                PropertyConfig.getLong("flaky.log.flushIntervalMs", 200),
+                threadName);
+    }
+
+    // Seed the known hashes from earlier runs so the side table keeps one entry per distinct stack
+    private static void loadKnownStacks() {
+        if (knownStacksLoaded) return;
+        synchronized (KNOWN_STACKS) {
+            if (knownStacksLoaded) return;
+            if (Files.exists(STACK_LOG)) {
+                try (BufferedReader br = Files.newBufferedReader(STACK_LOG, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        String hash = readStackHash(line);
+                        if (hash != null) KNOWN_STACKS.add(hash);
+                    }
+                } catch (IOException ignored) { }
+            }
+            knownStacksLoaded = true;
         }
     }
 
-    private static void appendLine(File file, String line) throws IOException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
-            bw.write(line);
-            bw.newLine();
-            bw.flush();
+    private static String readStackHash(String line) {
+        try {
+            JsonReader reader = new JsonReader(new StringReader(line));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("stackHash".equals(reader.nextName())) return reader.nextString();
+                reader.skipValue();
+            }
+        } catch (Exception ignored) { }
+        return null;
+    }
+
+    private static synchronized void logSync(Path file, String json) throws IOException {
+        long started = PhaseTimer.start();
+        try (FileChannel out = AsyncLineWriter.openAppend(file)) {
+            AsyncLineWriter.append(out, List.of(json));
         }
+        PhaseTimer.stop(PhaseTimer.Phase.REPORT_FLUSH, started);
     }
 }
-
@@ -0,0 +1,35 @@
+package com.company.listeners;
+
+import com.company.config.PropertyConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies the parallel settings from PropertyConfig to every suite before it runs.
+ * The runners expose scenarios through a parallel data provider, so the data-provider-thread-count decides how many
+ * scenarios run at once. With parallel.enabled=false the count is pinned to 1 to keep the old sequential behaviour.
+ *
+ * TestNG only honours IAlterSuiteListener from the suite xml or the ServiceLoader (META-INF/services), not @Listeners.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        boolean enabled = PropertyConfig.getBoolean("parallel.enabled", false);
+        // Both keys are validated as integers by PropertyConfig; a blank value counts as unset
+        int threadCount = Math.max(1, PropertyConfig.getInt("threadCount", 1));
+        int dataProviderThreadCount = Math.max(1, PropertyConfig.getInt("dataProviderThreadCount", threadCount));
+
+        for (XmlSuite suite : suites) {
+            if (enabled) {
+                suite.setThreadCount(threadCount);
+                suite.setDataProviderThreadCount(dataProviderThreadCount);
+                System.out.println("[ParallelSuiteListener] " + suite.getName() + ": parallel scenarios enabled (threadCount=" + threadCount + ", dataProviderThreadCount=" + dataProviderThreadCount + ")");
+            } else {
+                suite.setDataProviderThreadCount(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.listeners;
+
+import com.company.perf.PhaseTimer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.nio.file.Path;
+
+/**
+ * Writes the PhaseTimer report (target/perf/perf-report.json) when a suite finishes, after the per-test listeners have
+ * flushed their reports so the report flush phase is included.
+ *
+ * Registered through META-INF/services so every suite xml and -Dtest run picks it up.
+ */
+public class PerfReportListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Path report = PhaseTimer.writeReport();
+        if (report != null) {
+            System.out.println("[PerfReportListener] Phase timings written to " + report);
+        }
+    }
+}
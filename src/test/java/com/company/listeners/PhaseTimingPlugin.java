@@ -0,0 +1,42 @@
+package com.company.listeners;
+
+import com.company.perf.PhaseTimer;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Cucumber plugin feeding PhaseTimer: step and hook durations (as measured by Cucumber) and scenario durations for the
+ * slowest-scenarios list. Events arrive on the thread that ran the scenario, so each lands in that thread's histograms.
+ * Registered in the runners' @CucumberOptions plugin list; PerfReportListener writes the report.
+ */
+public class PhaseTimingPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!PhaseTimer.isEnabled()) return;
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onCaseFinished);
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        long nanos = event.getResult().getDuration().toNanos();
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            TestCase testCase = event.getTestCase();
+            PhaseTimer.recordStep(nanos, step.getStep().getText(), testCase.getName(), step.getUri(), step.getStep().getLine());
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            PhaseTimer.record(PhaseTimer.Phase.HOOK, nanos);
+        }
+    }
+
+    private void onCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        PhaseTimer.recordScenario(event.getResult().getDuration().toNanos(), testCase.getName(), event.getResult().getStatus().name(),
+                testCase.getUri(), testCase.getLocation().getLine());
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.listeners;
+
+import com.company.config.PropertyConfig;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only event file for the streaming report (report.mode=stream).
+ * Each finished test is written as one JSON line to target/report/events.jsonl by a background writer, so nothing
+ * accumulates in memory during the run. ReportRenderer turns the file into paginated HTML afterwards.
+ */
+final class ReportEventLog {
+
+    static final Path EVENTS = Paths.get("target", "report", "events.jsonl");
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final boolean ENABLED = "stream".equalsIgnoreCase(PropertyConfig.get("report.mode", "extent"));
+    private static final long OFFER_TIMEOUT_MS = PropertyConfig.getLong("report.stream.offerTimeoutMs", 5000);
+    private static final AsyncLineWriter WRITER = ENABLED ? open() : null;
+
+    private ReportEventLog() { }
+
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    static void append(ExtentTestManager.TestRecord test) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", test.name());
+        entry.put("status", test.status().name());
+        entry.put("thread", Thread.currentThread().getName());
+        entry.put("start", test.start());
+        entry.put("end", test.end());
+        List<Map<String, Object>> logs = new ArrayList<>();
+        test.forEachEvent((time, status, details, throwable) -> {
+            Map<String, Object> log = new LinkedHashMap<>();
+            log.put("time", time);
+            log.put("status", status.name());
+            if (throwable != null) {
+                StringWriter sw = new StringWriter();
+                throwable.printStackTrace(new PrintWriter(sw));
+                log.put("details", String.valueOf(throwable));
+                log.put("stackTrace", sw.toString());
+            } else {
+                log.put("details", details);
+            }
+            logs.add(log);
+        });
+        entry.put("logs", logs);
+        // Waits briefly for the writer rather than dropping: unlike the flaky log, a missing line is a missing test.
+        // Lines still dropped are counted and reported by finish().
+        WRITER.offer(GSON.toJson(entry), OFFER_TIMEOUT_MS);
+    }
+
+    static long getDroppedCount() {
+        return WRITER != null ? WRITER.getDroppedCount() : 0;
+    }
+
+    /**
+     * Called when a TestNG context finishes. If any event could not be written (queue full past the offer timeout, or
+     * an I/O error) the count is logged and a trailer event is appended, which ReportRenderer shows on index.html.
+     * The count is cumulative for the JVM, so the renderer keeps the largest trailer it sees.
+     */
+    static void finish() {
+        long dropped = getDroppedCount();
+        if (dropped == 0) {
+            return;
+        }
+        System.err.println("[ReportEventLog] " + dropped + " test event(s) could not be written to " + EVENTS + "; the streamed report is incomplete");
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("event", "dropped");
+        entry.put("dropped", dropped);
+        WRITER.offer(GSON.toJson(entry), OFFER_TIMEOUT_MS);
+    }
+
+    // Events from a previous run are discarded once per JVM, before the first test of this run is appended
+    private static AsyncLineWriter open() {
+        try {
+            Files.deleteIfExists(EVENTS);
+        } catch (IOException e) {
+            System.err.println("[ReportEventLog] Could not remove old " + EVENTS + ": " + e.getMessage());
+        }
+        return new AsyncLineWriter(EVENTS,
+                PropertyConfig.getInt("report.stream.queueCapacity", 10000),
+                PropertyConfig.getInt("report.stream.batchSize", 64),
+                PropertyConfig.getLong("report.stream.flushIntervalMs", 500),
+                "report-event-writer");
+    }
+}
@@ -1,49 +1,78 @@
 package com.company.listeners;
 
+import io.cucumber.testng.PickleWrapper;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+// Retries failed tests according to RetryPolicy (failure classification, flaky history, suite-wide budget, backoff)
 public class RetryAnalyzer implements IRetryAnalyzer {
     private int retryCount = 0;
-    private static final int maxRetryCount = 2; // configurable
 
     @Override
     public boolean retry(ITestResult result) {
-        if (retryCount < maxRetryCount) {
-            retryCount++;
-
-            // Prepare log entry
-            try {
-                Map<String, Object> entry = new HashMap<>();
-                entry.put("timestamp", Instant.now().toString());
-                entry.put("testClass", result.getTestClass() != null ? result.getTestClass().getName() : "");
-                entry.put("testMethod", result.getMethod() != null ? result.getMethod().getMethodName() : "");
-                entry.put("attempt", retryCount);
-                entry.put("maxRetryCount", maxRetryCount);
-                entry.put("status", "RETRY");
-
-                if (result.getThrowable() != null) {
-                    Throwable t = result.getThrowable();
-                    entry.put("errorMessage", t.getMessage());
-                    StringWriter sw = new StringWriter();
-                    t.printStackTrace(new PrintWriter(sw));
-                    entry.put("stackTrace", sw.toString());
-                }
-
-                // Use centralized flaky logger
-                FlakyLogger.log(entry);
-            } catch (Exception ignored) {
-                // Do not fail tests if logging fails
+        String testClass = result.getTestClass() != null ? result.getTestClass().getName() : "";
+        String testMethod = result.getMethod() != null ? result.getMethod().getMethodName() : "";
+        String scenario = scenarioName(result);
+        String testKey = testClass + "#" + testMethod + (scenario != null ? "[" + scenario + "]" : "");
+
+        RetryPolicy.Category category = RetryPolicy.classify(result.getThrowable());
+        int allowed = RetryPolicy.allowedRetries(category, testKey);
+        if (retryCount >= allowed) {
+            if (category == RetryPolicy.Category.DETERMINISTIC && retryCount == 0) {
+                System.out.println("[RetryAnalyzer] Not retrying " + testKey + ": deterministic failure (" + result.getThrowable().getClass().getName() + ")");
+            }
+            return false;
+        }
+        if (!RetryPolicy.tryAcquireBudget()) {
+            return false;
+        }
+        retryCount++;
+
+        // Prepare log entry
+        try {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("timestamp", Instant.now().toString());
+            entry.put("runId", FlakyLogger.runId());
+            entry.put("testClass", testClass);
+            entry.put("testMethod", testMethod);
+            if (scenario != null) entry.put("scenario", scenario);
+            entry.put("attempt", retryCount);
+            entry.put("maxRetryCount", allowed);
+            entry.put("category", category.name());
+            entry.put("status", "RETRY");
+
+            if (result.getThrowable() != null) {
+                // Compact fingerprint instead of the full trace; the trace itself is stored once per stack hash
+                Throwable t = result.getThrowable();
+                FailureFingerprint fp = FailureFingerprint.of(t);
+                entry.put("errorClass", fp.exceptionClass);
+                entry.put("errorMessage", fp.message);
+                entry.put("messageHash", fp.messageHash);
+                entry.put("frames", fp.frames);
+                entry.put("stackHash", fp.stackHash);
+                FlakyLogger.logStackOnce(fp.stackHash, t);
             }
 
-            return true;
+            // Use centralized flaky logger
+            FlakyLogger.log(entry);
+        } catch (Exception ignored) {
+            // Do not fail tests if logging fails
+        }
+
+        RetryPolicy.backoff(retryCount);
+        return true;
+    }
+
+    // Cucumber runners pass the scenario as the first data-provider parameter
+    private static String scenarioName(ITestResult result) {
+        Object[] params = result.getParameters();
+        if (params != null && params.length > 0 && params[0] instanceof PickleWrapper) {
+            return ((PickleWrapper) params[0]).getPickle().getName();
         }
-        return false;
+        return null;
     }
 }
@@ -31,8 +31,11 @@ public class RetryListener implements IAnnotationTransformer, ITestListener {
     @Override
     public void onTestFailedButWithinSuccessPercentage(org.testng.ITestResult result) { }
 
+    // Mark the run in the flaky log, so FlakyAnalytics counts it even if nothing retries
     @Override
-    public void onStart(ITestContext context) { }
+    public void onStart(ITestContext context) {
+        FlakyLogger.logRunStart();
+    }
 
     @Override
     public void onFinish(ITestContext context) { }
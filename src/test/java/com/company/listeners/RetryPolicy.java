@@ -0,0 +1,141 @@
+package com.company.listeners;
+
+import com.company.analytics.FlakyHistory;
+import com.company.config.PropertyConfig;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Decides whether a failed test is worth retrying.
+ *  - Failures are classified from the throwable and its causes: assertion mismatches fail fast, timeouts / stale
+ *    elements / lost sessions / connection errors are retried, anything else is "unknown".
+ *  - Unknown failures get retry.unknown.maxRetries attempts, or the full retry.maxRetries when the flaky history shows
+ *    the test retrying in at least retry.history.minRecentRate of recent runs. The history is the index FlakyAnalytics
+ *    left in the flaky history directory after earlier builds (see FlakyHistory.dir()).
+ *  - A suite-wide retry.budget caps the total number of retries so an outage cannot double the suite duration.
+ *  - Retries wait for a jittered exponential backoff (retry.backoff.baseMs, capped at retry.backoff.maxMs).
+ */
+public final class RetryPolicy {
+
+    public enum Category { TRANSIENT, DETERMINISTIC, UNKNOWN }
+
+    static final int MAX_RETRIES = PropertyConfig.getInt("retry.maxRetries", 2);
+    private static final int UNKNOWN_MAX_RETRIES = PropertyConfig.getInt("retry.unknown.maxRetries", 1);
+    private static final long BACKOFF_BASE_MS = PropertyConfig.getLong("retry.backoff.baseMs", 500);
+    private static final long BACKOFF_MAX_MS = PropertyConfig.getLong("retry.backoff.maxMs", 5000);
+    private static final double MIN_RECENT_RATE = PropertyConfig.getDouble("retry.history.minRecentRate", 0.1);
+
+    private static final Set<String> EXTRA_TRANSIENT = names(PropertyConfig.get("retry.transientExceptions", ""));
+    private static final Set<String> EXTRA_DETERMINISTIC = names(PropertyConfig.get("retry.failFastExceptions",
+            "io.cucumber.java.PendingException,org.openqa.selenium.InvalidSelectorException,org.openqa.selenium.InvalidArgumentException"));
+
+    private static final AtomicInteger BUDGET = new AtomicInteger(PropertyConfig.getInt("retry.budget", 50));
+    private static final AtomicBoolean BUDGET_EXHAUSTED_LOGGED = new AtomicBoolean();
+
+    // Loaded lazily on the first failure so passing suites never touch the index
+    private static volatile FlakyHistory history;
+
+    private RetryPolicy() { }
+
+    public static Category classify(Throwable t) {
+        int depth = 0;
+        for (Throwable c = t; c != null && depth < 10; c = c.getCause(), depth++) {
+            String name = c.getClass().getName();
+            if (EXTRA_DETERMINISTIC.contains(name)) return Category.DETERMINISTIC;
+            if (EXTRA_TRANSIENT.contains(name)) return Category.TRANSIENT;
+            if (c instanceof AssertionError) return Category.DETERMINISTIC;
+            if (c instanceof TimeoutException
+                    || c instanceof StaleElementReferenceException
+                    || c instanceof NoSuchSessionException
+                    || c instanceof SessionNotCreatedException
+                    || c instanceof UnreachableBrowserException
+                    || c instanceof SocketTimeoutException
+                    || c instanceof ConnectException
+                    || c instanceof java.util.concurrent.TimeoutException
+                    || name.equals("org.apache.http.NoHttpResponseException")
+                    || name.equals("org.apache.http.conn.ConnectTimeoutException")) {
+                return Category.TRANSIENT;
+            }
+        }
+        return Category.UNKNOWN;
+    }
+
+    /**
+     * Retries allowed for a failure of this category; 0 means fail fast.
+     */
+    public static int allowedRetries(Category category, String testKey) {
+        switch (category) {
+            case DETERMINISTIC:
+                return 0;
+            case TRANSIENT:
+                return MAX_RETRIES;
+            default:
+                return history().recentRunRate(testKey) >= MIN_RECENT_RATE ? MAX_RETRIES : Math.min(UNKNOWN_MAX_RETRIES, MAX_RETRIES);
+        }
+    }
+
+    // Take one retry from the suite-wide budget
+    public static boolean tryAcquireBudget() {
+        int left;
+        do {
+            left = BUDGET.get();
+            if (left <= 0) {
+                if (BUDGET_EXHAUSTED_LOGGED.compareAndSet(false, true)) {
+                    System.out.println("[RetryPolicy] Suite retry budget exhausted; further failures are not retried");
+                }
+                return false;
+            }
+        } while (!BUDGET.compareAndSet(left, left - 1));
+        return true;
+    }
+
+    // Full jitter: a random wait in [0, min(max, base * 2^(attempt-1))]
+    public static void backoff(int attempt) {
+        long ceiling = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << Math.min(Math.max(attempt - 1, 0), 20));
+        if (ceiling <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static FlakyHistory history() {
+        FlakyHistory h = history;
+        if (h == null) {
+            synchronized (RetryPolicy.class) {
+                h = history;
+                if (h == null) {
+                    String configured = PropertyConfig.get("retry.history.index", "");
+                    Path index = configured.isEmpty() ? FlakyHistory.indexFile() : Paths.get(configured.trim());
+                    h = FlakyHistory.load(index);
+                    System.out.println("[RetryPolicy] " + (h.isEmpty() ? "No flaky history at " + index + "; unknown failures get "
+                            + Math.min(UNKNOWN_MAX_RETRIES, MAX_RETRIES) + " retries" : "Using flaky history from " + index));
+                    history = h;
+                }
+            }
+        }
+        return h;
+    }
+
+    private static Set<String> names(String csv) {
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
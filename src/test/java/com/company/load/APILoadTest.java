@@ -0,0 +1,266 @@
+package com.company.load;
+
+import com.company.perf.LatencyHistogram;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load mode for the API feature files: the same scenarios, run repeatedly by N concurrent virtual users.
+ * Behavior:
+ *  - Scenarios are selected with load.tags / load.scenarioName; each user cycles through them until load.durationSeconds
+ *    has elapsed or load.iterations scenarios have been run in total (whichever comes first).
+ *  - Every scenario runs load.warmupIterations times untimed before the users start.
+ *  - Users run on virtual threads when the JVM has them (Java 21+), otherwise on one platform thread each.
+ *  - Latency is recorded per HTTP request (method + path) and per scenario; the summary (p50/p95/p99/max, throughput,
+ *    errors) is printed and written to target/load/load-report.json.
+ *  - The test fails when a configured SLO (load.slo.*) is violated, which fails the build.
+ * Run with: mvn test -Dsurefire.suiteXmlFiles=testng-api-load.xml (see load.properties).
+ */
+@CucumberOptions(
+        features = "src/test/resources/features/api",
+        glue = {"com.company.steps", "com.company.hooks.apiHooks", "com.company.config"},
+        plugin = {"com.company.listeners.PhaseTimingPlugin"}
+)
+public class APILoadTest {
+
+    private static final int MAX_DISTINCT_ERRORS = 20;
+
+    @Test
+    public void runLoad() throws Exception {
+        LoadProfile profile = LoadProfile.fromConfig();
+        profile.sizeConnectionPool();
+
+        TestNGCucumberRunner runner = new TestNGCucumberRunner(getClass(), profile::cucumberProperty);
+        List<Pickle> scenarios = new ArrayList<>();
+        for (Object[] row : runner.provideScenarios()) {
+            scenarios.add(((PickleWrapper) row[0]).getPickle());
+        }
+        Assert.assertFalse(scenarios.isEmpty(), "No API scenarios match the load selection (" + profile + ")");
+
+        // Untimed pass first: Spring context, RestAssured/Groovy class loading and the first connections would otherwise
+        // dominate the first iterations and the tail latencies
+        for (int i = 0; i < profile.warmupIterations; i++) {
+            for (Pickle scenario : scenarios) {
+                try {
+                    runner.runScenario(scenario);
+                } catch (Throwable t) {
+                    System.out.println("[APILoadTest] Warm-up of '" + scenario.getName() + "' failed: " + t);
+                }
+            }
+        }
+
+        RequestTimingFilter timings = new RequestTimingFilter();
+        List<Filter> previousFilters = new ArrayList<>(RestAssured.filters());
+        RestAssured.filters(timings);
+
+        Map<String, LatencyHistogram> byScenario = new ConcurrentHashMap<>();
+        Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong budget = new AtomicLong(profile.iterations > 0 ? profile.iterations : Long.MAX_VALUE);
+
+        boolean virtual = profile.virtualThreads && supportsVirtualThreads();
+        System.out.println("[APILoadTest] " + scenarios.size() + " scenario(s), " + profile + ", " + (virtual ? "virtual" : "platform") + " threads");
+
+        long started = System.nanoTime();
+        long deadline = profile.durationSeconds > 0 ? started + TimeUnit.SECONDS.toNanos(profile.durationSeconds) : Long.MAX_VALUE;
+        ExecutorService users = newUserExecutor(profile.users, virtual);
+        try {
+            for (int u = 0; u < profile.users; u++) {
+                int user = u;
+                long startDelayMs = profile.users > 1 ? TimeUnit.SECONDS.toMillis(profile.rampUpSeconds) * user / (profile.users - 1) : 0;
+                users.submit(() -> {
+                    sleep(startDelayMs);
+                    // Users start at different scenarios so the mix is even from the first iteration
+                    int next = user;
+                    while (!Thread.currentThread().isInterrupted() && System.nanoTime() < deadline && budget.getAndDecrement() > 0) {
+                        Pickle scenario = scenarios.get(next++ % scenarios.size());
+                        long t0 = System.nanoTime();
+                        try {
+                            runner.runScenario(scenario);
+                        } catch (Throwable t) {
+                            failed.incrementAndGet();
+                            recordError(errors, scenario.getName(), t);
+                        }
+                        byScenario.computeIfAbsent(scenario.getName(), k -> new LatencyHistogram()).recordNanos(System.nanoTime() - t0);
+                        completed.incrementAndGet();
+                        sleep(profile.thinkTimeMs);
+                    }
+                });
+            }
+            users.shutdown();
+            long waitSeconds = profile.durationSeconds > 0 ? profile.durationSeconds + profile.rampUpSeconds + 60 : Long.MAX_VALUE / 2;
+            if (!users.awaitTermination(waitSeconds, TimeUnit.SECONDS)) {
+                users.shutdownNow();
+                System.out.println("[APILoadTest] Users still running after the test window; interrupted");
+            }
+        } finally {
+            RestAssured.replaceFiltersWith(previousFilters);
+            runner.finish();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long iterations = completed.get();
+        LatencyHistogram latency = timings.all.count() > 0 ? timings.all : merged(byScenario);
+        Map<String, Double> actual = new LinkedHashMap<>();
+        actual.put("p50Ms", latency.percentileMicros(50) / 1000.0);
+        actual.put("p95Ms", latency.percentileMicros(95) / 1000.0);
+        actual.put("p99Ms", latency.percentileMicros(99) / 1000.0);
+        actual.put("maxMs", latency.maxMicros() / 1000.0);
+        actual.put("errorRate", iterations == 0 ? 0 : round((double) failed.get() / iterations));
+        actual.put("minThroughput", round(latency.count() / elapsedSeconds));
+        List<String> violations = profile.violations(actual);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("profile", profile.toString());
+        report.put("threads", virtual ? "virtual" : "platform");
+        report.put("elapsedSeconds", round(elapsedSeconds));
+        report.put("iterations", iterations);
+        report.put("failedIterations", failed.get());
+        report.put("scenariosPerSecond", round(iterations / elapsedSeconds));
+        report.put("requests", timings.all.count());
+        report.put("requestErrors", timings.errors());
+        report.put("requestsPerSecond", round(timings.all.count() / elapsedSeconds));
+        report.put("latency", latency.summaryMillis());
+        report.put("byRequest", summaries(timings.byRequest, timings.errorsByRequest));
+        report.put("byScenario", summaries(byScenario, Map.of()));
+        report.put("errors", counts(errors));
+        report.put("slo", Map.of("limits", profile.slos, "actual", actual, "violations", violations));
+        Path file = writeReport(Paths.get(profile.reportDir), report);
+
+        print(elapsedSeconds, iterations, failed.get(), timings, byScenario);
+        System.out.println("[APILoadTest] Report written to " + file);
+        Assert.assertTrue(iterations > 0, "No scenario iterations completed");
+        Assert.assertTrue(violations.isEmpty(), "SLO violated: " + String.join("; ", violations));
+    }
+
+    private static boolean supportsVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Compiled for Java 17, so virtual threads are looked up reflectively and used only when the running JVM has them
+    private static ExecutorService newUserExecutor(int users, boolean virtual) {
+        if (virtual) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("[APILoadTest] Virtual threads unavailable (" + e + "); using platform threads");
+            }
+        }
+        AtomicInteger n = new AtomicInteger();
+        return Executors.newFixedThreadPool(users, r -> {
+            Thread t = new Thread(r, "load-user-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void recordError(Map<String, AtomicLong> errors, String scenario, Throwable t) {
+        String message = String.valueOf(t.getMessage()).lines().findFirst().orElse("");
+        if (message.length() > 200) message = message.substring(0, 200) + "...";
+        String key = scenario + ": " + t.getClass().getSimpleName() + ": " + message;
+        AtomicLong count = errors.get(key);
+        if (count == null) {
+            // Bound the table: a systematic failure with varying messages must not grow it per iteration
+            key = errors.size() < MAX_DISTINCT_ERRORS ? key : scenario + ": (other errors)";
+            count = errors.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    private static LatencyHistogram merged(Map<String, LatencyHistogram> histograms) {
+        LatencyHistogram all = new LatencyHistogram();
+        for (LatencyHistogram h : histograms.values()) all.merge(h);
+        return all;
+    }
+
+    private static Map<String, Object> summaries(Map<String, LatencyHistogram> histograms, Map<String, AtomicLong> errors) {
+        Map<String, Object> out = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> e : histograms.entrySet()) {
+            Map<String, Object> summary = e.getValue().summaryMillis();
+            AtomicLong errorCount = errors.get(e.getKey());
+            if (errorCount != null) summary.put("errors", errorCount.get());
+            out.put(e.getKey(), summary);
+        }
+        for (Map.Entry<String, AtomicLong> e : errors.entrySet()) {
+            out.putIfAbsent(e.getKey(), Map.of("count", 0, "errors", e.getValue().get()));
+        }
+        return out;
+    }
+
+    private static Map<String, Long> counts(Map<String, AtomicLong> counters) {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((k, v) -> out.put(k, v.get()));
+        return out;
+    }
+
+    private static Path writeReport(Path dir, Map<String, Object> report) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("load-report.json");
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            gson.toJson(report, w);
+        }
+        return file;
+    }
+
+    private static void print(double elapsedSeconds, long iterations, long failed, RequestTimingFilter timings, Map<String, LatencyHistogram> byScenario) {
+        System.out.println(String.format("[APILoadTest] %d iterations (%d failed) in %.1f s: %.1f scenarios/s, %.1f requests/s",
+                iterations, failed, elapsedSeconds, iterations / elapsedSeconds, timings.all.count() / elapsedSeconds));
+        System.out.println(String.format("[APILoadTest] %-40s %8s %9s %9s %9s %9s", "", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        printRow("all requests", timings.all);
+        new TreeMap<>(timings.byRequest).forEach(APILoadTest::printRow);
+        new TreeMap<>(byScenario).forEach((name, h) -> printRow("scenario: " + name, h));
+    }
+
+    private static void printRow(String name, LatencyHistogram h) {
+        System.out.println(String.format("[APILoadTest] %-40s %8d %9.2f %9.2f %9.2f %9.2f", name.length() > 40 ? name.substring(0, 40) : name, h.count(),
+                h.percentileMicros(50) / 1000.0, h.percentileMicros(95) / 1000.0, h.percentileMicros(99) / 1000.0, h.maxMicros() / 1000.0));
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 100) / 100.0;
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.load;
+
+import com.company.config.PropertyConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load-test settings read from load.properties / system properties: how many virtual users, for how long or how many
+ * iterations, which scenarios, and the SLOs the run must meet.
+ */
+final class LoadProfile {
+
+    final int users;
+    final long durationSeconds;
+    final long iterations;
+    final long rampUpSeconds;
+    final long thinkTimeMs;
+    final int warmupIterations;
+    final String tags;
+    final String name;
+    final boolean virtualThreads;
+    final String reportDir;
+
+    // SLO name (e.g. "p95Ms") -> limit; only configured SLOs are checked
+    final Map<String, Double> slos = new LinkedHashMap<>();
+
+    private LoadProfile() {
+        users = Math.max(1, PropertyConfig.getInt("load.users", 10));
+        durationSeconds = PropertyConfig.getLong("load.durationSeconds", 30);
+        iterations = PropertyConfig.getLong("load.iterations", 0);
+        rampUpSeconds = PropertyConfig.getLong("load.rampUpSeconds", 0);
+        thinkTimeMs = PropertyConfig.getLong("load.thinkTimeMs", 0);
+        warmupIterations = Math.max(0, PropertyConfig.getInt("load.warmupIterations", 1));
+        tags = PropertyConfig.get("load.tags", "").trim();
+        name = PropertyConfig.get("load.scenarioName", "").trim();
+        virtualThreads = PropertyConfig.getBoolean("load.virtualThreads", true);
+        reportDir = PropertyConfig.get("load.reportDir", "target/load");
+        for (String slo : new String[] {"p50Ms", "p95Ms", "p99Ms", "maxMs", "errorRate", "minThroughput"}) {
+            String v = PropertyConfig.get("load.slo." + slo, "").trim();
+            if (!v.isEmpty()) slos.put(slo, Double.parseDouble(v));
+        }
+        if (durationSeconds <= 0 && iterations <= 0) {
+            throw new IllegalArgumentException("Set load.durationSeconds or load.iterations to a positive value");
+        }
+    }
+
+    static LoadProfile fromConfig() {
+        return new LoadProfile();
+    }
+
+    /**
+     * Cucumber options for the load runner: scenario selection comes from load.tags / load.scenarioName.
+     */
+    String cucumberProperty(String key) {
+        if ("cucumber.filter.tags".equals(key) && !tags.isEmpty()) return tags;
+        if ("cucumber.filter.name".equals(key) && !name.isEmpty()) return name;
+        return System.getProperty(key);
+    }
+
+    /**
+     * Size the shared API connection pool to the user count unless the pool limits were set explicitly, so users
+     * measure the server rather than queueing for a pooled connection. Must run before the first API request.
+     */
+    void sizeConnectionPool() {
+        if (System.getProperty("api.pool.maxPerRoute") == null) {
+            int configured = PropertyConfig.getInt("api.pool.maxPerRoute", 20);
+            PropertyConfig.set("api.pool.maxPerRoute", String.valueOf(Math.max(configured, users)));
+        }
+        if (System.getProperty("api.pool.maxTotal") == null) {
+            int configured = PropertyConfig.getInt("api.pool.maxTotal", 50);
+            PropertyConfig.set("api.pool.maxTotal", String.valueOf(Math.max(configured, users)));
+        }
+    }
+
+    /**
+     * Compare the run's figures with the configured SLOs. Returns one line per violated SLO.
+     */
+    List<String> violations(Map<String, Double> actual) {
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, Double> slo : slos.entrySet()) {
+            Double value = actual.get(slo.getKey());
+            if (value == null) continue;
+            boolean ok = "minThroughput".equals(slo.getKey()) ? value >= slo.getValue() : value <= slo.getValue();
+            if (!ok) {
+                failed.add(slo.getKey() + " = " + value + " (limit " + slo.getValue() + ")");
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users
+                + (durationSeconds > 0 ? ", durationSeconds=" + durationSeconds : "")
+                + (iterations > 0 ? ", iterations=" + iterations : "")
+                + (rampUpSeconds > 0 ? ", rampUpSeconds=" + rampUpSeconds : "")
+                + (thinkTimeMs > 0 ? ", thinkTimeMs=" + thinkTimeMs : "")
+                + (tags.isEmpty() ? "" : ", tags=" + tags)
+                + (name.isEmpty() ? "" : ", scenarioName=" + name);
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.load;
+
+import com.company.perf.LatencyHistogram;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RestAssured filter timing every request sent by the API steps, grouped by method and path as written in the step
+ * ("GET /posts/1"). Requests that fail with an exception are counted as errors and not timed.
+ */
+final class RequestTimingFilter implements Filter {
+
+    final LatencyHistogram all = new LatencyHistogram();
+    final Map<String, LatencyHistogram> byRequest = new ConcurrentHashMap<>();
+    final Map<String, AtomicLong> errorsByRequest = new ConcurrentHashMap<>();
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response, FilterContext ctx) {
+        String key = request.getMethod() + " " + request.getUserDefinedPath();
+        long started = System.nanoTime();
+        try {
+            Response r = ctx.next(request, response);
+            long elapsed = System.nanoTime() - started;
+            all.recordNanos(elapsed);
+            byRequest.computeIfAbsent(key, k -> new LatencyHistogram()).recordNanos(elapsed);
+            return r;
+        } catch (RuntimeException e) {
+            errorsByRequest.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            throw e;
+        }
+    }
+
+    long errors() {
+        long n = 0;
+        for (AtomicLong c : errorsByRequest.values()) n += c.get();
+        return n;
+    }
+}
@@ -0,0 +1,117 @@
+package com.company.perf;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The log-linear bucket math behind every reported percentile (and so behind the load-mode SLO gates): exact below
+ * 128 us, buckets 1/64 of their power-of-two range wide above, percentiles never below the true value.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void valuesBelow128AreExact() {
+        for (long v = 0; v < 128; v++) {
+            assertEquals(LatencyHistogram.indexOf(v), (int) v);
+            assertEquals(LatencyHistogram.upperBound((int) v), v);
+            LatencyHistogram h = new LatencyHistogram();
+            h.record(v);
+            assertEquals(h.percentileMicros(50), v);
+            assertEquals(h.percentileMicros(100), v);
+        }
+    }
+
+    @Test
+    public void bucketBoundaries() {
+        assertEquals(LatencyHistogram.indexOf(127), 127);
+        // From 128 on, buckets are 2 wide in [128, 256), 4 wide in [256, 512), ...
+        assertEquals(LatencyHistogram.indexOf(128), 128);
+        assertEquals(LatencyHistogram.indexOf(129), 128);
+        assertEquals(LatencyHistogram.indexOf(130), 129);
+        assertEquals(LatencyHistogram.upperBound(128), 129);
+        assertEquals(LatencyHistogram.indexOf(255), 191);
+        assertEquals(LatencyHistogram.upperBound(191), 255);
+        assertEquals(LatencyHistogram.indexOf(256), 192);
+        assertEquals(LatencyHistogram.upperBound(192), 259);
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(Long.MAX_VALUE)), Long.MAX_VALUE);
+
+        // Negative values are recorded as 0, Long.MAX_VALUE fits the last bucket
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        assertEquals(h.minMicros(), 0);
+        assertEquals(h.percentileMicros(100), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void everyValueFallsInsideItsBucketWithinOnePointSixPercent() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long v = 128 + (random.nextLong() >>> (1 + random.nextInt(62)));
+            int index = LatencyHistogram.indexOf(v);
+            long upper = LatencyHistogram.upperBound(index);
+            assertTrue(upper >= v, v + " above its bucket's upper bound " + upper);
+            assertTrue(LatencyHistogram.upperBound(index - 1) < v, v + " also fits the bucket before");
+            assertTrue((upper - v) / (double) v <= 1 / 64.0, v + " -> " + upper);
+        }
+    }
+
+    @Test
+    public void percentilesAreWithinTheDocumentedError() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) h.record(v);
+        for (double p : new double[] {1, 50, 90, 95, 99, 99.9}) {
+            long exact = (long) Math.ceil(p / 100 * 100_000);
+            long reported = h.percentileMicros(p);
+            assertTrue(reported >= exact, "p" + p + "=" + reported + " below " + exact);
+            assertTrue((reported - exact) / (double) exact <= 0.016, "p" + p + "=" + reported + " vs " + exact);
+        }
+        // Capped at the recorded maximum rather than the top of its bucket
+        assertEquals(h.percentileMicros(100), 100_000);
+        assertEquals(h.count(), 100_000);
+        assertEquals(h.meanMicros(), 50_000.5, 1e-9);
+        assertEquals(new LatencyHistogram().percentileMicros(99), 0);
+    }
+
+    @Test
+    public void mergeEqualsRecordingEverythingInOne() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            long v = random.nextInt(2_000_000);
+            (i % 3 == 0 ? a : b).record(v);
+            all.record(v);
+        }
+        a.merge(b);
+        a.merge(new LatencyHistogram());
+        assertEquals(a.count(), all.count());
+        assertEquals(a.minMicros(), all.minMicros());
+        assertEquals(a.maxMicros(), all.maxMicros());
+        assertEquals(a.meanMicros(), all.meanMicros(), 1e-9);
+        for (double p : new double[] {0, 25, 50, 75, 90, 99, 100}) {
+            assertEquals(a.percentileMicros(p), all.percentileMicros(p), "p" + p);
+        }
+        assertEquals(a.summaryMillis(), all.summaryMillis());
+    }
+
+    @Test
+    public void summaryIsInMillisecondsInAFixedOrder() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.recordNanos(1_500_000);
+        h.recordNanos(2_500_000);
+        Map<String, Object> summary = h.summaryMillis();
+        assertEquals(List.copyOf(summary.keySet()), List.of("count", "minMs", "meanMs", "p50Ms", "p90Ms", "p95Ms", "p99Ms", "maxMs"));
+        assertEquals(summary.get("count"), 2L);
+        assertEquals(summary.get("minMs"), 1.5);
+        assertEquals(summary.get("meanMs"), 2.0);
+        assertEquals(summary.get("maxMs"), 2.5);
+    }
+}
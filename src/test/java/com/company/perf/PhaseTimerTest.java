@@ -0,0 +1,65 @@
+package com.company.perf;
+
+import com.company.config.PropertyConfig;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * The shape of PhaseTimer.report(), and that threads beyond perf.maxThreadRecorders still count, in the shared
+ * recorder. PhaseTimer is JVM-wide, so assertions are relative to what other tests may already have recorded.
+ */
+public class PhaseTimerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reportHasEveryPhaseAndSection() {
+        PhaseTimer.record(PhaseTimer.Phase.HOOK, 3_000_000);
+        Map<String, Object> report = PhaseTimer.report();
+        assertEquals(List.copyOf(report.keySet()), List.of("generatedAt", "phases", "slowestScenarios", "slowestSteps", "threads"));
+
+        Map<String, Object> phases = (Map<String, Object>) report.get("phases");
+        assertEquals(List.copyOf(phases.keySet()), List.of("driverAcquire", "step", "hook", "httpRequest", "reportFlush"));
+        for (Object summary : phases.values()) {
+            assertEquals(List.copyOf(((Map<String, Object>) summary).keySet()),
+                    List.of("count", "minMs", "meanMs", "p50Ms", "p90Ms", "p95Ms", "p99Ms", "maxMs"));
+        }
+        assertTrue((Long) ((Map<String, Object>) phases.get("hook")).get("count") >= 1);
+
+        Map<String, Object> threads = (Map<String, Object>) report.get("threads");
+        Map<String, Object> mine = (Map<String, Object>) threads.get(Thread.currentThread().getName());
+        assertTrue(mine != null && mine.containsKey("hookTotalMs"), "threads: " + threads);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void threadsBeyondTheLimitShareOneRecorder() throws InterruptedException {
+        int max = PropertyConfig.getInt("perf.maxThreadRecorders", 256);
+        long before = httpCount(PhaseTimer.report());
+
+        int extra = max + 20;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < extra; i++) {
+            Thread t = new Thread(() -> PhaseTimer.record(PhaseTimer.Phase.HTTP_REQUEST, 1_000_000), "phase-timer-test-" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+
+        Map<String, Object> report = PhaseTimer.report();
+        assertEquals(httpCount(report) - before, extra, "every sample counted, shared recorder included");
+        Map<String, Object> byThread = (Map<String, Object>) report.get("threads");
+        assertTrue(byThread.containsKey("(shared)"), "no shared recorder among " + byThread.size() + " threads");
+        assertTrue(byThread.size() <= max + 1, byThread.size() + " recorders for perf.maxThreadRecorders=" + max);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long httpCount(Map<String, Object> report) {
+        return (Long) ((Map<String, Object>) ((Map<String, Object>) report.get("phases")).get("httpRequest")).get("count");
+    }
+}
@@ -2,15 +2,24 @@ package com.company.runner;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 
 @CucumberOptions(
         features = "src/test/resources/features/api",
         glue = {"com.company.steps", "com.company.hooks.apiHooks", "com.company.config"},
-        plugin = {"pretty", "json:target/cucumber.json"}
+        plugin = {"pretty", "json:target/cucumber.json", "com.company.listeners.PhaseTimingPlugin"}
 )
 @Listeners({com.company.listeners.ExtentTestNGListener.class, com.company.listeners.RetryListener.class})
 public class APITestNGRunner extends AbstractTestNGCucumberTests {
     // Inherits run logic from AbstractTestNGCucumberTests
+
+    // Parallel data provider so scenarios can run concurrently; the thread count is applied by ParallelSuiteListener.
+    // With -Dshard.total only this shard's scenarios are returned (see ShardSelector)
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return ShardSelector.select(super.scenarios());
+    }
 }
 
@@ -2,14 +2,23 @@ package com.company.runner;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Listeners;
 
 @CucumberOptions(
         features = "src/test/resources/features/mobile",
         glue = {"com.company.steps", "com.company.hooks.mobileHooks", "com.company.config"},
-        plugin = {"pretty", "json:target/cucumber.json"}
+        plugin = {"pretty", "json:target/cucumber.json", "com.company.listeners.PhaseTimingPlugin"}
 )
 @Listeners({com.company.listeners.ExtentTestNGListener.class, com.company.listeners.RetryListener.class})
 public class MobileTestNGRunner extends AbstractTestNGCucumberTests {
     // Inherits run logic from AbstractTestNGCucumberTests
+
+    // Parallel data provider so scenarios can run concurrently; the thread count is applied by ParallelSuiteListener.
+    // With -Dshard.total only this shard's scenarios are returned (see ShardSelector)
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return ShardSelector.select(super.scenarios());
+    }
 }
@@ -0,0 +1,98 @@
+package com.company.runner;
+
+import com.company.config.APIRequestFactory;
+import com.company.driver.DriverManager;
+import com.company.hooks.apiHooks.APIHooks;
+import com.company.listeners.ExtentTestManager;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.openqa.selenium.WebDriver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Parallel scenarios share the JVM, so the per-scenario state behind DriverManager, APIHooks and ExtentTestManager
+ * must stay confined to the data-provider thread that set it. Several threads set up "scenarios" in lock-step and
+ * check that each one reads back only its own driver, request/response specs and test record.
+ */
+public class ScenarioIsolationTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 50;
+
+    @Test
+    public void perScenarioStateStaysOnItsThread() throws Exception {
+        CyclicBarrier allSet = new CyclicBarrier(THREADS);
+        CyclicBarrier allChecked = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int id = t;
+                results.add(pool.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        runScenario(id + "-" + round, allSet, allChecked);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : results) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void runScenario(String name, CyclicBarrier allSet, CyclicBarrier allChecked) throws Exception {
+        APIHooks hooks = new APIHooks();
+        ReflectionTestUtils.setField(hooks, "apiFactory", new APIRequestFactory());
+        WebDriver driver = fakeDriver(name);
+
+        DriverManager.setDriver(driver);
+        hooks.beforeScenario();
+        RequestSpecification request = APIHooks.getRequestSpec();
+        ResponseSpecification response = APIHooks.getCommonResponseSpec();
+        ExtentTestManager.TestRecord record = ExtentTestManager.startTest(name);
+
+        // Every thread has now replaced its state; any shared slot would hold another thread's value
+        allSet.await(30, TimeUnit.SECONDS);
+        assertSame(DriverManager.getDriver(), driver, "driver of " + name);
+        assertSame(APIHooks.getRequestSpec(), request, "request spec of " + name);
+        assertSame(APIHooks.getCommonResponseSpec(), response, "response spec of " + name);
+        assertSame(ExtentTestManager.getExtentTest(), record, "test record of " + name);
+        allChecked.await(30, TimeUnit.SECONDS);
+
+        DriverManager.quitDriver();
+        hooks.afterScenario();
+        ExtentTestManager.endTest();
+        assertNull(DriverManager.getDriver(), "driver left behind by " + name);
+        assertNull(APIHooks.getRequestSpec(), "request spec left behind by " + name);
+        assertNull(ExtentTestManager.getExtentTest(), "test record left behind by " + name);
+    }
+
+    // A WebDriver that answers toString() with its scenario and ignores everything else (quit() included)
+    private static WebDriver fakeDriver(String name) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(), new Class<?>[]{WebDriver.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString": return "FakeDriver(" + name + ")";
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: return null;
+                    }
+                });
+    }
+}
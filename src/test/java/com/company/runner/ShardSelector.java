@@ -0,0 +1,102 @@
+package com.company.runner;
+
+import com.company.analytics.ShardPlanner;
+import com.company.config.PropertyConfig;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the runner's scenarios that belong to this shard (-Dshard.index=0..total-1, -Dshard.total=N).
+ * The split has one source shared by every shard, never the machine's own duration history:
+ *  - The plan ShardPlanner wrote (shard-<i>.txt rerun lists), only when shard.plan names its directory. A plan left in
+ *    shard.dir is never picked up on its own: it may be stale or missing on some of the machines. A plan for another
+ *    shard.total, or one that lists a scenario twice, fails the run rather than skipping or duplicating scenarios.
+ *  - Scenarios the plan does not list (new since it was written), and all scenarios when there is no plan, go to
+ *    ShardPlanner.hashShard, so every shard places them the same way.
+ * With shard.total=1 (the default) all scenarios run.
+ */
+final class ShardSelector {
+
+    private ShardSelector() { }
+
+    static Object[][] select(Object[][] scenarios) {
+        int total = PropertyConfig.getInt("shard.total", 1);
+        if (total <= 1 || scenarios.length == 0) return scenarios;
+        int index = PropertyConfig.getInt("shard.index", 0);
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException("shard.index=" + index + " is outside 0.." + (total - 1) + " for shard.total=" + total);
+        }
+
+        Map<String, Object[]> byKey = new LinkedHashMap<>();
+        for (Object[] row : scenarios) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            byKey.put(ShardPlanner.scenarioKey(pickle.getUri().toString(), pickle.getLine()), row);
+        }
+        Map<String, Integer> assignment = assign(byKey.keySet(), total);
+
+        List<Object[]> selected = new ArrayList<>();
+        for (Map.Entry<String, Object[]> e : byKey.entrySet()) {
+            if (assignment.get(e.getKey()) == index) selected.add(e.getValue());
+        }
+        System.out.println("[ShardSelector] shard " + index + "/" + total + ": " + selected.size() + " of " + scenarios.length + " scenarios");
+        return selected.toArray(new Object[0][]);
+    }
+
+    // Shard of every key: from the shared plan when there is one, by hash for keys it does not list
+    static Map<String, Integer> assign(Collection<String> keys, int total) {
+        Path planDir = planDir();
+        Map<String, Integer> plan = Collections.emptyMap();
+        if (planDir != null) {
+            try {
+                plan = ShardPlanner.readPlan(planDir, total);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read shard plan " + planDir, e);
+            }
+        }
+        Map<String, Integer> out = new LinkedHashMap<>();
+        int unplanned = 0;
+        for (String key : keys) {
+            Integer shard = plan.get(key);
+            if (shard == null) {
+                shard = ShardPlanner.hashShard(key, total);
+                unplanned++;
+            }
+            out.put(key, shard);
+        }
+        if (planDir == null) {
+            Path written = Paths.get(PropertyConfig.get("shard.dir", "target/shards"));
+            System.out.println("[ShardSelector] No shard.plan; " + keys.size() + " scenarios split by hash. "
+                    + (Files.exists(written.resolve("shard-0.txt")) ? "The plan in " + written + " is ignored; pass -Dshard.plan=" + written + " to every shard to use it"
+                    : "Run the planner (mvn exec:java@update-shard-history -Dshard.total=" + total + ") once and pass -Dshard.plan=<dir> to every shard")
+                    + " for a duration-balanced split");
+        } else {
+            System.out.println("[ShardSelector] Plan " + planDir + ": " + (keys.size() - unplanned) + " of " + keys.size()
+                    + " scenarios planned" + (unplanned > 0 ? ", " + unplanned + " not in the plan split by hash" : "")
+                    + "; every scenario is assigned to exactly one of " + total + " shards");
+        }
+        return out;
+    }
+
+    // shard.plan when set (it must hold a plan); otherwise none, and the split is by hash
+    private static Path planDir() {
+        String configured = PropertyConfig.get("shard.plan", "").trim();
+        if (configured.isEmpty()) return null;
+        Path dir = Paths.get(configured);
+        if (!Files.exists(dir.resolve("shard-0.txt"))) {
+            throw new IllegalStateException("shard.plan=" + configured + " has no shard-0.txt; pass the directory ShardPlanner wrote");
+        }
+        return dir;
+    }
+}
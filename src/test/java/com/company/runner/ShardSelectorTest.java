@@ -0,0 +1,96 @@
+package com.company.runner;
+
+import com.company.analytics.ShardPlanner;
+import com.company.config.PropertyConfig;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Every shard derives the same assignment from the plan passed in shard.plan (or by hash without one), so the shards
+ * together cover each scenario exactly once.
+ */
+public class ShardSelectorTest {
+
+    private static final String API = "src/test/resources/features/api/api.feature";
+
+    private Path plan;
+
+    @BeforeMethod
+    public void createPlan() throws IOException {
+        plan = Files.createTempDirectory("shard-plan");
+        Files.writeString(plan.resolve("shard-0.txt"), API + ":7:19\n");
+        Files.writeString(plan.resolve("shard-1.txt"), API + ":12\nsrc/test/resources/features/web/web.feature:4\n");
+        PropertyConfig.set("shard.plan", plan.toString());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void clearPlan() {
+        PropertyConfig.set("shard.plan", null);
+    }
+
+    @Test
+    public void plannedScenariosFollowThePlan() {
+        Map<String, Integer> assignment = ShardSelector.assign(List.of(API + ":7", API + ":12", API + ":19"), 2);
+        assertEquals(assignment, Map.of(API + ":7", 0, API + ":12", 1, API + ":19", 0));
+    }
+
+    @Test
+    public void scenariosMissingFromThePlanAreSplitByHash() {
+        String added = API + ":40";
+        assertEquals((int) ShardSelector.assign(List.of(added), 2).get(added), ShardPlanner.hashShard(added, 2));
+    }
+
+    @Test
+    public void withoutAPlanEveryScenarioLandsInExactlyOneShard() {
+        PropertyConfig.set("shard.plan", null);
+        List<String> keys = new ArrayList<>();
+        for (int line = 1; line <= 50; line++) keys.add(API + ":" + line);
+        Map<String, Integer> assignment = ShardSelector.assign(keys, 3);
+        Set<Integer> shards = new HashSet<>(assignment.values());
+        assertEquals(assignment.keySet(), new HashSet<>(keys));
+        assertTrue(shards.size() == 3 && shards.contains(0) && shards.contains(2), "shards used: " + shards);
+        assertEquals(ShardSelector.assign(keys, 3), assignment);
+    }
+
+    @Test
+    public void planInShardDirIsIgnoredWithoutShardPlan() {
+        PropertyConfig.set("shard.plan", null);
+        PropertyConfig.set("shard.dir", plan.toString());
+        try {
+            List<String> keys = List.of(API + ":7", API + ":12", API + ":19");
+            Map<String, Integer> assignment = ShardSelector.assign(keys, 2);
+            for (String key : keys) assertEquals((int) assignment.get(key), ShardPlanner.hashShard(key, 2), key);
+            // The plan is for two shards, so reading it would have failed
+            assertEquals(ShardSelector.assign(keys, 3).keySet(), new HashSet<>(keys));
+        } finally {
+            PropertyConfig.set("shard.dir", null);
+        }
+    }
+
+    @Test
+    public void planForAnotherShardCountIsRejected() {
+        IllegalStateException e = expectThrows(IllegalStateException.class, () -> ShardSelector.assign(List.of(API + ":7"), 3));
+        assertTrue(e.getMessage().contains("shard.total=3"), e.getMessage());
+    }
+
+    @Test
+    public void scenarioInTwoShardsIsRejected() throws IOException {
+        Files.writeString(plan.resolve("shard-1.txt"), API + ":7\n");
+        IllegalStateException e = expectThrows(IllegalStateException.class, () -> ShardSelector.assign(List.of(API + ":7"), 2));
+        assertTrue(e.getMessage().contains(API + ":7"), e.getMessage());
+    }
+}